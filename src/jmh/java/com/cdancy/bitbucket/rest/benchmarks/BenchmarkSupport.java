@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.benchmarks;
+
+import com.cdancy.bitbucket.rest.BitbucketApiMetadata;
+import com.cdancy.bitbucket.rest.BitbucketAuthentication;
+import com.cdancy.bitbucket.rest.config.BitbucketAuthenticationModule;
+import com.google.common.base.Throwables;
+import com.google.common.io.Resources;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import org.jclouds.ContextBuilder;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Shared plumbing for the benchmarks: an injector wired exactly like the one
+ * BitbucketClient builds, and access to the JSON fixtures under src/test/resources.
+ */
+final class BenchmarkSupport {
+
+    static final String ENDPOINT = "http://localhost:7990";
+
+    private BenchmarkSupport() {
+        throw new UnsupportedOperationException("Purposefully not implemented");
+    }
+
+    static Injector injector(final BitbucketAuthentication authentication) {
+        return ContextBuilder
+                .newBuilder(new BitbucketApiMetadata())
+                .endpoint(ENDPOINT)
+                .modules(Collections.<Module>singletonList(new BitbucketAuthenticationModule(authentication)))
+                .buildInjector();
+    }
+
+    static byte[] fixture(final String resourceName) {
+        try {
+            return Resources.toByteArray(Resources.getResource(BenchmarkSupport.class, "/" + resourceName));
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+}
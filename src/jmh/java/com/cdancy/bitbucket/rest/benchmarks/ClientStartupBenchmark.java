@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.benchmarks;
+
+import com.cdancy.bitbucket.rest.BitbucketApi;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of a BitbucketClient: every measurement runs in a fresh JVM
+ * without warmup, which is what a short lived (e.g. serverless) webhook
+ * handler pays before it can make its first call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ClientStartupBenchmark {
+
+    @Benchmark
+    public BitbucketClient buildClient() throws IOException {
+        try (BitbucketClient client = client()) {
+            return client;
+        }
+    }
+
+    @Benchmark
+    public void buildClientAndFeatureApis(final Blackhole blackhole) throws IOException {
+        try (BitbucketClient client = client()) {
+            final BitbucketApi api = client.api();
+            blackhole.consume(api.pullRequestApi());
+            blackhole.consume(api.repositoryApi());
+            blackhole.consume(api.buildStatusApi());
+            blackhole.consume(api.commentsApi());
+        }
+    }
+
+    private static BitbucketClient client() {
+        return BitbucketClient.builder()
+                .endPoint(BenchmarkSupport.ENDPOINT)
+                .credentials("admin:password")
+                .build();
+    }
+}
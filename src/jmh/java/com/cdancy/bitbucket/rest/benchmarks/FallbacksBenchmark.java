@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.benchmarks;
+
+import com.cdancy.bitbucket.rest.domain.common.Error;
+import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning an error body into the List of Error every fallback hands
+ * back, for both a well-formed Bitbucket error payload and a plain-text one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FallbacksBenchmark {
+
+    private String errorsJson;
+    private String plainText;
+
+    @Setup
+    public void setup() {
+        errorsJson = new String(BenchmarkSupport.fixture("errors.json"), StandardCharsets.UTF_8);
+        plainText = "command [GET " + BenchmarkSupport.ENDPOINT
+                + "/rest/api/1.0/projects/PRJ/repos/repo HTTP/1.1] failed with response: HTTP/1.1 502 Bad Gateway";
+    }
+
+    @Benchmark
+    public List<Error> getErrorsFromJson() {
+        return BitbucketFallbacks.getErrors(errorsJson);
+    }
+
+    @Benchmark
+    public List<Error> readErrorsFromJson() {
+        return BitbucketFallbacks.readErrors(errorsJson);
+    }
+
+    @Benchmark
+    public List<Error> getErrorsFromPlainText() {
+        return BitbucketFallbacks.getErrors(plainText);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.benchmarks;
+
+import com.cdancy.bitbucket.rest.BitbucketApi;
+import com.cdancy.bitbucket.rest.BitbucketAuthentication;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.cdancy.bitbucket.rest.features.PullRequestApi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady state cost of getting hold of a feature API off a client, compared
+ * with the delegate jclouds builds on every access of its own BitbucketApi.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureApiAccessBenchmark {
+
+    private BitbucketClient client;
+    private BitbucketApi jcloudsApi;
+
+    @Setup
+    public void setup() {
+        client = BitbucketClient.builder()
+                .endPoint(BenchmarkSupport.ENDPOINT)
+                .credentials("admin:password")
+                .build();
+        jcloudsApi = BenchmarkSupport.injector(BitbucketAuthentication.builder().credentials("admin:password").build())
+                .getInstance(BitbucketApi.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.close();
+        jcloudsApi.close();
+    }
+
+    @Benchmark
+    public PullRequestApi client() {
+        return client.api().pullRequestApi();
+    }
+
+    @Benchmark
+    public PullRequestApi jclouds() {
+        return jcloudsApi.pullRequestApi();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.benchmarks;
+
+import com.cdancy.bitbucket.rest.BitbucketAuthentication;
+import com.cdancy.bitbucket.rest.auth.AuthenticationScope;
+import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
+import com.cdancy.bitbucket.rest.filters.ScrubNullFromPathFilter;
+import com.google.inject.Injector;
+import org.jclouds.http.HttpRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The request filters every BitbucketApi call runs through before it hits the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FiltersBenchmark {
+
+    private static final String REPO_PATH = "/rest/api/1.0/projects/PRJ/repos/repo";
+
+    private ScrubNullFromPathFilter scrubNullFromPathFilter;
+    private Injector basicInjector;
+    private Injector anonymousInjector;
+    private BitbucketAuthenticationFilter scopedAuthenticationFilter;
+
+    private HttpRequest cleanRequest;
+    private HttpRequest nullParamRequest;
+
+    @Setup
+    public void setup() {
+        scrubNullFromPathFilter = new ScrubNullFromPathFilter();
+        basicInjector = BenchmarkSupport.injector(BitbucketAuthentication.builder().credentials("admin:password").build());
+        anonymousInjector = BenchmarkSupport.injector(BitbucketAuthentication.builder().build());
+        final BitbucketAuthentication token = BitbucketAuthentication.builder().token("token").build();
+        scopedAuthenticationFilter = new BitbucketAuthenticationFilter(() -> token);
+
+        cleanRequest = request(REPO_PATH + "/commits/abc123?limit=25");
+        // what jclouds leaves behind when an optional path param is null
+        nullParamRequest = request(REPO_PATH + "/browse/%7Bpath%7D/?at=master");
+    }
+
+    @Benchmark
+    public HttpRequest scrubNullFromPathClean() {
+        return scrubNullFromPathFilter.filter(cleanRequest);
+    }
+
+    @Benchmark
+    public HttpRequest scrubNullFromPathWithNull() {
+        return scrubNullFromPathFilter.filter(nullParamRequest);
+    }
+
+    @Benchmark
+    public HttpRequest scrubNullFromPathRegexClean() {
+        return regexScrubNullFromPath(cleanRequest);
+    }
+
+    @Benchmark
+    public HttpRequest scrubNullFromPathRegexWithNull() {
+        return regexScrubNullFromPath(nullParamRequest);
+    }
+
+    // jclouds asks the injector for the filter every time it builds a request
+    @Benchmark
+    public HttpRequest authenticationBasic() {
+        return basicInjector.getInstance(BitbucketAuthenticationFilter.class).filter(cleanRequest);
+    }
+
+    @Benchmark
+    public HttpRequest authenticationAnonymous() {
+        return anonymousInjector.getInstance(BitbucketAuthenticationFilter.class).filter(cleanRequest);
+    }
+
+    // as a BitbucketClientPool client does
+    @Benchmark
+    public HttpRequest authenticationScoped() {
+        return AuthenticationScope.call(scopedAuthenticationFilter,
+                () -> anonymousInjector.getInstance(BitbucketAuthenticationFilter.class).filter(cleanRequest));
+    }
+
+    /**
+     * The regex based implementation ScrubNullFromPathFilter used to have,
+     * kept as a baseline.
+     */
+    private static HttpRequest regexScrubNullFromPath(final HttpRequest request) {
+        String requestPath = request.getEndpoint().getRawPath()
+                .replaceAll("%7B.+?%7D", "")
+                .replaceAll("\\/\\/", "/");
+        if (requestPath.charAt(requestPath.length() - 1) == '/') {
+            requestPath = requestPath.substring(0, requestPath.length() - 1);
+        }
+        return request.toBuilder().replacePath(requestPath).build();
+    }
+
+    private static HttpRequest request(final String pathAndQuery) {
+        return HttpRequest.builder()
+                .method("GET")
+                .endpoint(BenchmarkSupport.ENDPOINT + pathAndQuery)
+                .addHeader("Accept", "application/json")
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.benchmarks;
+
+import com.cdancy.bitbucket.rest.BitbucketAuthentication;
+import com.cdancy.bitbucket.rest.domain.activities.ActivitiesPage;
+import com.cdancy.bitbucket.rest.domain.branch.BranchPage;
+import com.cdancy.bitbucket.rest.domain.commit.CommitPage;
+import com.cdancy.bitbucket.rest.domain.project.ProjectPage;
+import com.cdancy.bitbucket.rest.domain.pullrequest.PullRequestPage;
+import com.cdancy.bitbucket.rest.domain.repository.RepositoryPage;
+import com.cdancy.bitbucket.rest.domain.search.SearchResult;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of representative response bodies through the same Gson
+ * instance (and AutoValue/SerializedNames adapters) the ParseJson parser uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GsonDeserializationBenchmark {
+
+    private static final Map<String, Type> FIXTURES = ImmutableMap.<String, Type>builder()
+            .put("pull-request-page.json", PullRequestPage.class)
+            .put("pull-request-commits.json", CommitPage.class)
+            .put("pull-request-activities.json", ActivitiesPage.class)
+            .put("search.json", SearchResult.class)
+            .put("repository-page-full.json", RepositoryPage.class)
+            .put("project-page-full.json", ProjectPage.class)
+            .put("branch-list.json", BranchPage.class)
+            .build();
+
+    @Param({"pull-request-page.json",
+            "pull-request-commits.json",
+            "pull-request-activities.json",
+            "search.json",
+            "repository-page-full.json",
+            "project-page-full.json",
+            "branch-list.json"})
+    public String fixture;
+
+    private Gson gson;
+    private Type type;
+    private byte[] body;
+    private String bodyAsString;
+
+    @Setup
+    public void setup() {
+        gson = BenchmarkSupport.injector(BitbucketAuthentication.builder().build()).getInstance(Gson.class);
+        type = FIXTURES.get(fixture);
+        body = BenchmarkSupport.fixture(fixture);
+        bodyAsString = new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Mirrors ParseJson: decode straight off the (here in-memory) payload stream.
+     */
+    @Benchmark
+    public Object fromStream() {
+        final Reader reader = new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+        return gson.fromJson(reader, type);
+    }
+
+    @Benchmark
+    public Object fromString() {
+        return gson.fromJson(bodyAsString, type);
+    }
+}
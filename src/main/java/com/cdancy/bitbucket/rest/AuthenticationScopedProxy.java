@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest;
+
+import com.cdancy.bitbucket.rest.auth.AuthenticationScope;
+import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
+import com.google.common.reflect.Reflection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.jclouds.rest.annotations.Delegate;
+
+/**
+ * Proxy running every call made on a BitbucketApi, and on the feature APIs
+ * it hands out, within an {@link AuthenticationScope} for the credentials
+ * the given Supplier holds, all of them binding the given filter.
+ * Closing the proxy does not close the underlying, shared, BitbucketApi.
+ */
+final class AuthenticationScopedProxy implements InvocationHandler {
+
+    private final Object target;
+    private final Supplier<BitbucketAuthentication> authentication;
+    private final BitbucketAuthenticationFilter filter;
+    private final ConcurrentMap<Method, Object> delegates = new ConcurrentHashMap<>();
+
+    private AuthenticationScopedProxy(final Object target, final Supplier<BitbucketAuthentication> authentication,
+            final BitbucketAuthenticationFilter filter) {
+        this.target = target;
+        this.authentication = authentication;
+        this.filter = filter;
+    }
+
+    static <T> T create(final Class<T> type, final T target, final Supplier<BitbucketAuthentication> authentication,
+            final BitbucketAuthenticationFilter filter) {
+        return Reflection.newProxy(type, new AuthenticationScopedProxy(target, authentication, filter));
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return args.length == 1 && proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "AuthenticationScoped(" + authentication.get().authType() + ", " + target + ")";
+            case "close":
+                return null;
+            default:
+                break;
+        }
+
+        try {
+            if (method.isAnnotationPresent(Delegate.class)) {
+                return delegates.computeIfAbsent(method, m -> Reflection.newProxy(m.getReturnType(),
+                        new AuthenticationScopedProxy(invokeTarget(m, args), authentication, filter)));
+            }
+            return AuthenticationScope.call(filter, () -> invokeTarget(method, args));
+        } catch (final UndeclaredCallException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Object invokeTarget(final Method method, final Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw new UndeclaredCallException(e.getCause());
+        } catch (final IllegalAccessException e) {
+            throw new UndeclaredCallException(e);
+        }
+    }
+
+    /**
+     * Carries whatever the target threw through the Supplier given to
+     * AuthenticationScope so it can be rethrown as is.
+     */
+    private static final class UndeclaredCallException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UndeclaredCallException(final Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -48,6 +48,15 @@ public class BitbucketApiMetadata extends BaseHttpApiMetadata<BitbucketApi> {
 
     public static Properties defaultProperties() {
         final Properties properties = BaseHttpApiMetadata.defaultProperties();
+        properties.setProperty(BitbucketConstants.CONDITIONAL_CACHE_MAX_ENTRIES, "0");
+        properties.setProperty(BitbucketConstants.CONDITIONAL_CACHE_MAX_BYTES, Long.toString(64L * 1024 * 1024));
+        properties.setProperty(BitbucketConstants.COMMIT_CACHE_MAX_ENTRIES, "0");
+        properties.setProperty(BitbucketConstants.COMMIT_CACHE_MAX_BYTES, Long.toString(64L * 1024 * 1024));
+        properties.setProperty(BitbucketConstants.RATE_LIMIT_PERMITS_PER_SECOND, "0");
+        properties.setProperty(BitbucketConstants.RATE_LIMIT_GROUPS, "");
+        properties.setProperty(BitbucketConstants.RATE_LIMIT_BACKOFF_START, "1000");
+        properties.setProperty(BitbucketConstants.RATE_LIMIT_BACKOFF_MAX, "60000");
+        properties.setProperty(BitbucketConstants.INTERNING, "false");
         return properties;
     }
 
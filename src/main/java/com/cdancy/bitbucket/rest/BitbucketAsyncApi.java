@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest;
+
+import com.cdancy.bitbucket.rest.auth.AuthenticationScope;
+import com.cdancy.bitbucket.rest.features.AdminApi;
+import com.cdancy.bitbucket.rest.features.BranchApi;
+import com.cdancy.bitbucket.rest.features.BuildStatusApi;
+import com.cdancy.bitbucket.rest.features.CommentsApi;
+import com.cdancy.bitbucket.rest.features.CommitsApi;
+import com.cdancy.bitbucket.rest.features.CompareApi;
+import com.cdancy.bitbucket.rest.features.DefaultReviewersApi;
+import com.cdancy.bitbucket.rest.features.FileApi;
+import com.cdancy.bitbucket.rest.features.HookApi;
+import com.cdancy.bitbucket.rest.features.InsightsApi;
+import com.cdancy.bitbucket.rest.features.KeysApi;
+import com.cdancy.bitbucket.rest.features.LabelsApi;
+import com.cdancy.bitbucket.rest.features.LikesApi;
+import com.cdancy.bitbucket.rest.features.PostWebHookApi;
+import com.cdancy.bitbucket.rest.features.ProjectApi;
+import com.cdancy.bitbucket.rest.features.PullRequestApi;
+import com.cdancy.bitbucket.rest.features.RepositoryApi;
+import com.cdancy.bitbucket.rest.features.SearchApi;
+import com.cdancy.bitbucket.rest.features.SyncApi;
+import com.cdancy.bitbucket.rest.features.SystemApi;
+import com.cdancy.bitbucket.rest.features.TagApi;
+import com.cdancy.bitbucket.rest.features.TasksApi;
+import com.cdancy.bitbucket.rest.features.WebHookApi;
+
+import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
+import com.cdancy.bitbucket.rest.http.AsyncHttpInvoker;
+import com.google.common.base.Defaults;
+import com.google.common.reflect.Reflection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.jclouds.http.HttpUtils;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.reflect.Reflection2;
+
+/**
+ * Non-blocking view over the feature APIs of a BitbucketApi. Each feature API
+ * is exposed as a {@link Feature} whose calls return a CompletableFuture
+ * right away: the request is built on the calling thread from the very same
+ * `@Named` endpoint, filters included, and sent without a thread waiting on
+ * it. Once the response arrives it is parsed on the jclouds user executor,
+ * errors going through the endpoint's `BitbucketFallbacks` mapping as they
+ * would for a blocking call, so hundreds of requests can be in flight on a
+ * handful of threads.
+ *
+ * <p>Calls bypass the HttpExchangeInterceptors of the blocking transport
+ * (response caches, rate limiting, metrics) and jclouds' retries, and read
+ * responses fully into memory; use the blocking api() for the streaming
+ * endpoints.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * CompletableFuture&lt;PullRequest&gt; pr = client.asyncApi().pullRequestApi()
+ *         .call(api -&gt; api.get("PRJ", "repo", 1));
+ * </pre>
+ */
+public final class BitbucketAsyncApi {
+
+    private final Feature<AdminApi> adminApi;
+    private final Feature<BranchApi> branchApi;
+    private final Feature<BuildStatusApi> buildStatusApi;
+    private final Feature<CommentsApi> commentsApi;
+    private final Feature<CommitsApi> commitsApi;
+    private final Feature<CompareApi> compareApi;
+    private final Feature<DefaultReviewersApi> defaultReviewersApi;
+    private final Feature<FileApi> fileApi;
+    private final Feature<HookApi> hookApi;
+    private final Feature<WebHookApi> webHookApi;
+    private final Feature<ProjectApi> projectApi;
+    private final Feature<PullRequestApi> pullRequestApi;
+    private final Feature<RepositoryApi> repositoryApi;
+    private final Feature<SyncApi> syncApi;
+    private final Feature<SystemApi> systemApi;
+    private final Feature<TagApi> tagApi;
+    private final Feature<TasksApi> tasksApi;
+    private final Feature<InsightsApi> insightsApi;
+    private final Feature<KeysApi> keysApi;
+    private final Feature<SearchApi> searchApi;
+    private final Feature<LabelsApi> labelsApi;
+    private final Feature<PostWebHookApi> postWebHookApi;
+    private final Feature<LikesApi> likesApi;
+
+    /**
+     * Create a BitbucketAsyncApi.
+     *
+     * @param invoker the AsyncHttpInvoker of the jclouds context to send requests through.
+     * @param filter optional filter to bind in an AuthenticationScope while building requests.
+     */
+    BitbucketAsyncApi(final AsyncHttpInvoker invoker, @Nullable final BitbucketAuthenticationFilter filter) {
+        Objects.requireNonNull(invoker, "invoker cannot be null");
+        this.adminApi = new Feature<>(AdminApi.class, invoker, filter);
+        this.branchApi = new Feature<>(BranchApi.class, invoker, filter);
+        this.buildStatusApi = new Feature<>(BuildStatusApi.class, invoker, filter);
+        this.commentsApi = new Feature<>(CommentsApi.class, invoker, filter);
+        this.commitsApi = new Feature<>(CommitsApi.class, invoker, filter);
+        this.compareApi = new Feature<>(CompareApi.class, invoker, filter);
+        this.defaultReviewersApi = new Feature<>(DefaultReviewersApi.class, invoker, filter);
+        this.fileApi = new Feature<>(FileApi.class, invoker, filter);
+        this.hookApi = new Feature<>(HookApi.class, invoker, filter);
+        this.webHookApi = new Feature<>(WebHookApi.class, invoker, filter);
+        this.projectApi = new Feature<>(ProjectApi.class, invoker, filter);
+        this.pullRequestApi = new Feature<>(PullRequestApi.class, invoker, filter);
+        this.repositoryApi = new Feature<>(RepositoryApi.class, invoker, filter);
+        this.syncApi = new Feature<>(SyncApi.class, invoker, filter);
+        this.systemApi = new Feature<>(SystemApi.class, invoker, filter);
+        this.tagApi = new Feature<>(TagApi.class, invoker, filter);
+        this.tasksApi = new Feature<>(TasksApi.class, invoker, filter);
+        this.insightsApi = new Feature<>(InsightsApi.class, invoker, filter);
+        this.keysApi = new Feature<>(KeysApi.class, invoker, filter);
+        this.searchApi = new Feature<>(SearchApi.class, invoker, filter);
+        this.labelsApi = new Feature<>(LabelsApi.class, invoker, filter);
+        this.postWebHookApi = new Feature<>(PostWebHookApi.class, invoker, filter);
+        this.likesApi = new Feature<>(LikesApi.class, invoker, filter);
+    }
+
+    public Feature<AdminApi> adminApi() {
+        return adminApi;
+    }
+
+    public Feature<BranchApi> branchApi() {
+        return branchApi;
+    }
+
+    public Feature<BuildStatusApi> buildStatusApi() {
+        return buildStatusApi;
+    }
+
+    public Feature<CommentsApi> commentsApi() {
+        return commentsApi;
+    }
+
+    public Feature<CommitsApi> commitsApi() {
+        return commitsApi;
+    }
+
+    public Feature<CompareApi> compareApi() {
+        return compareApi;
+    }
+
+    public Feature<DefaultReviewersApi> defaultReviewersApi() {
+        return defaultReviewersApi;
+    }
+
+    public Feature<FileApi> fileApi() {
+        return fileApi;
+    }
+
+    public Feature<HookApi> hookApi() {
+        return hookApi;
+    }
+
+    public Feature<WebHookApi> webHookApi() {
+        return webHookApi;
+    }
+
+    public Feature<ProjectApi> projectApi() {
+        return projectApi;
+    }
+
+    public Feature<PullRequestApi> pullRequestApi() {
+        return pullRequestApi;
+    }
+
+    public Feature<RepositoryApi> repositoryApi() {
+        return repositoryApi;
+    }
+
+    public Feature<SyncApi> syncApi() {
+        return syncApi;
+    }
+
+    public Feature<SystemApi> systemApi() {
+        return systemApi;
+    }
+
+    public Feature<TagApi> tagApi() {
+        return tagApi;
+    }
+
+    public Feature<TasksApi> tasksApi() {
+        return tasksApi;
+    }
+
+    public Feature<InsightsApi> insightsApi() {
+        return insightsApi;
+    }
+
+    public Feature<KeysApi> keysApi() {
+        return keysApi;
+    }
+
+    public Feature<SearchApi> searchApi() {
+        return searchApi;
+    }
+
+    public Feature<LabelsApi> labelsApi() {
+        return labelsApi;
+    }
+
+    public Feature<PostWebHookApi> postWebHookApi() {
+        return postWebHookApi;
+    }
+
+    public Feature<LikesApi> likesApi() {
+        return likesApi;
+    }
+
+    /**
+     * Non-blocking handle onto a single feature API.
+     *
+     * @param <A> the feature API type (e.g. PullRequestApi).
+     */
+    public static final class Feature<A> {
+
+        private final Class<A> type;
+        private final AsyncHttpInvoker invoker;
+        private final BitbucketAuthenticationFilter filter;
+
+        Feature(final Class<A> type, final AsyncHttpInvoker invoker, @Nullable final BitbucketAuthenticationFilter filter) {
+            this.type = type;
+            this.invoker = invoker;
+            this.filter = filter;
+        }
+
+        /**
+         * Call a single endpoint of this feature API without blocking. The
+         * Function is handed a stand-in for the feature API which only
+         * records the method invoked on it and its arguments, so it must
+         * invoke exactly one endpoint and nothing else.
+         *
+         * @param <R> the type returned by the endpoint.
+         * @param call the call to make (e.g. `api -&gt; api.get(...)`).
+         * @return CompletableFuture holding what the endpoint returned.
+         */
+        public <R> CompletableFuture<R> call(final Function<? super A, ? extends R> call) {
+            Objects.requireNonNull(call, "call cannot be null");
+            final Recorder recorder = new Recorder(type);
+            call.apply(Reflection.newProxy(type, recorder));
+            final Invocation invocation = recorder.invocation();
+            return filter != null
+                    ? AuthenticationScope.call(filter, () -> invoker.<R>invoke(invocation))
+                    : invoker.<R>invoke(invocation);
+        }
+    }
+
+    /**
+     * Stand-in for a feature API remembering the one endpoint invoked on it.
+     */
+    private static final class Recorder implements InvocationHandler {
+
+        private final Class<?> type;
+        private Invocation invocation;
+
+        Recorder(final Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "Recorder(" + type.getSimpleName() + ")";
+                }
+            }
+            if (invocation != null) {
+                throw new IllegalStateException("Only one endpoint of " + type.getSimpleName()
+                        + " may be called, already called " + invocation.getInvokable().getName());
+            }
+            final Invocation called = Invocation.create(Reflection2.method(type, method.getName(), method.getParameterTypes()),
+                    args != null ? Arrays.asList(args) : Collections.emptyList());
+            if (!HttpUtils.tryFindHttpMethod(called.getInvokable()).isPresent()) {
+                throw new IllegalArgumentException(type.getSimpleName() + "." + method.getName() + " is not an endpoint");
+            }
+            invocation = called;
+            return Defaults.defaultValue(method.getReturnType());
+        }
+
+        Invocation invocation() {
+            if (invocation == null) {
+                throw new IllegalArgumentException("No endpoint of " + type.getSimpleName() + " was called");
+            }
+            return invocation;
+        }
+    }
+}
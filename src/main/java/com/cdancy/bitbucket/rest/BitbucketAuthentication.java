@@ -31,6 +31,7 @@ import org.jclouds.javax.annotation.Nullable;
 public class BitbucketAuthentication extends Credentials {
 
     private final AuthenticationType authType;
+    private final String authorizationHeader;
 
     /**
      * Create instance of BitbucketAuthentication
@@ -42,7 +43,10 @@ public class BitbucketAuthentication extends Credentials {
         super(null, authType == AuthenticationType.Basic && authValue.contains(":")
                 ? base64().encode(authValue.getBytes())
                 : authValue);
-        this.authType = authType;    
+        this.authType = authType;
+        this.authorizationHeader = authType == AuthenticationType.Anonymous
+                ? null
+                : authType + " " + this.credential;
     }
 
     @Nullable
@@ -54,6 +58,17 @@ public class BitbucketAuthentication extends Credentials {
         return authType;
     }
 
+    /**
+     * Value of the HTTP Authorization header, computed once up front so it
+     * can be attached to every request without being rebuilt.
+     *
+     * @return the header value or null for anonymous access.
+     */
+    @Nullable
+    public String authorizationHeader() {
+        return authorizationHeader;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
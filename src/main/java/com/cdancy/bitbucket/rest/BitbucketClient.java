@@ -18,8 +18,13 @@
 package com.cdancy.bitbucket.rest;
 
 import com.cdancy.bitbucket.rest.auth.AuthenticationType;
+import com.cdancy.bitbucket.rest.auth.RefreshableAuthentication;
 import com.cdancy.bitbucket.rest.config.BitbucketAuthenticationModule;
+import com.cdancy.bitbucket.rest.config.BitbucketHttpCommandExecutorServiceModule;
+import com.cdancy.bitbucket.rest.http.AsyncHttpInvoker;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.Injector;
 import com.google.inject.Module;
 
 import java.io.Closeable;
@@ -27,15 +32,21 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 import org.jclouds.ContextBuilder;
+import org.jclouds.concurrent.config.ExecutorServiceModule;
+import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
 import org.jclouds.javax.annotation.Nullable;
 
 public final class BitbucketClient implements Closeable {
 
     private final String endPoint;
-    private final BitbucketAuthentication credentials;
+    private final RefreshableAuthentication credentials;
     private final BitbucketApi bitbucketApi;
+    private final BitbucketAsyncApi bitbucketAsyncApi;
     private final Properties overrides;
+    private final ExecutorService virtualThreadExecutor;
 
     /**
      * Create a BitbucketClient inferring endpoint and authentication from
@@ -61,30 +72,96 @@ public final class BitbucketClient implements Closeable {
             @Nullable final BitbucketAuthentication authentication,
             @Nullable final Properties overrides,
             @Nullable final List<Module> modules) {
+        this(endPoint, authentication, overrides, modules, false);
+    }
+
+    /**
+     * Create an BitbucketClient optionally backing the jclouds executors
+     * with virtual threads.
+     *
+     * @param endPoint URL of Bitbucket instance.
+     * @param authentication authentication used to connect to Bitbucket instance.
+     * @param overrides jclouds Properties to override defaults when creating a new BitbucketApi.
+     * @param modules a list of modules to be passed to the Contextbuilder, e.g. for logging.
+     * @param virtualThreads use a virtual-thread-per-task executor if the running JVM supports it.
+     */
+    public BitbucketClient(@Nullable final String endPoint,
+            @Nullable final BitbucketAuthentication authentication,
+            @Nullable final Properties overrides,
+            @Nullable final List<Module> modules,
+            final boolean virtualThreads) {
+        this(endPoint, new RefreshableAuthentication(authentication != null
+                ? authentication
+                : BitbucketUtils.inferAuthentication(), null), overrides, modules, virtualThreads);
+    }
+
+    private BitbucketClient(@Nullable final String endPoint,
+            final RefreshableAuthentication authentication,
+            @Nullable final Properties overrides,
+            @Nullable final List<Module> modules,
+            final boolean virtualThreads) {
         this.endPoint = endPoint != null
                 ? endPoint
                 : BitbucketUtils.inferEndpoint();
-        this.credentials = authentication != null
-                ? authentication
-                : BitbucketUtils.inferAuthentication();
+        this.credentials = authentication;
         this.overrides = mergeOverrides(overrides);
-        this.bitbucketApi = createApi(this.endPoint, this.credentials, this.overrides, modules);
+        this.virtualThreadExecutor = virtualThreads
+                ? BitbucketUtils.newVirtualThreadPerTaskExecutor()
+                : null;
+        final List<Module> allModules = Lists.newArrayList();
+        if (modules != null) {
+            allModules.addAll(modules);
+        }
+        if (this.virtualThreadExecutor != null) {
+            allModules.add(new ExecutorServiceModule(MoreExecutors.listeningDecorator(this.virtualThreadExecutor)));
+        }
+        final Injector injector = createInjector(this.endPoint, this.credentials, this.overrides, allModules);
+        this.bitbucketApi = LazyFeatureApiProxy.create(injector.getInstance(BitbucketApi.class));
+        this.bitbucketAsyncApi = new BitbucketAsyncApi(injector.getInstance(AsyncHttpInvoker.class), null);
+    }
+
+    /**
+     * Create a BitbucketClient on top of an already built BitbucketApi,
+     * e.g. one shared through a BitbucketClientPool. Closing such a client
+     * leaves the BitbucketApi it was given open.
+     */
+    BitbucketClient(final String endPoint,
+            final RefreshableAuthentication authentication,
+            final Properties overrides,
+            final BitbucketApi bitbucketApi,
+            final BitbucketAsyncApi bitbucketAsyncApi) {
+        this.endPoint = endPoint;
+        this.credentials = authentication;
+        this.overrides = overrides;
+        this.bitbucketApi = bitbucketApi;
+        this.bitbucketAsyncApi = bitbucketAsyncApi;
+        this.virtualThreadExecutor = null;
     }
 
-    private BitbucketApi createApi(final String endPoint,
-                                   final BitbucketAuthentication authentication,
-                                   final Properties overrides,
-                                   final List<Module> modules) {
+    static Injector createInjector(final String endPoint,
+                                    final RefreshableAuthentication authentication,
+                                    final Properties overrides,
+                                    final List<Module> modules) {
         final List<Module> allModules = Lists.newArrayList(new BitbucketAuthenticationModule(authentication));
-        if (modules != null) {
-            allModules.addAll(modules);
+        allModules.addAll(modules);
+        if (!hasHttpCommandExecutorServiceModule(modules)) {
+            allModules.add(new BitbucketHttpCommandExecutorServiceModule());
         }
         return ContextBuilder
                 .newBuilder(new BitbucketApiMetadata.Builder().build())
                 .endpoint(endPoint)
                 .modules(allModules)
                 .overrides(overrides)
-                .buildApi(BitbucketApi.class);
+                .buildInjector();
+    }
+
+    private static boolean hasHttpCommandExecutorServiceModule(final List<Module> modules) {
+        for (final Module module : modules) {
+            if (module.getClass().isAnnotationPresent(ConfiguresHttpCommandExecutorService.class)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -94,7 +171,7 @@ public final class BitbucketClient implements Closeable {
      * @param possibleOverrides Optional passed in overrides.
      * @return Properties object.
      */
-    private Properties mergeOverrides(final Properties possibleOverrides) {
+    static Properties mergeOverrides(final Properties possibleOverrides) {
         final Properties inferOverrides = BitbucketUtils.inferOverrides();
         if (possibleOverrides != null) {
             inferOverrides.putAll(possibleOverrides);
@@ -116,25 +193,71 @@ public final class BitbucketClient implements Closeable {
     }
 
     public String authValue() {
-        return this.credentials.authValue();
+        return this.credentials.get().authValue();
     }
 
     public AuthenticationType authType() {
-        return this.credentials.authType();
+        return this.credentials.get().authType();
+    }
+
+    /**
+     * Ask the credentials Supplier this client was built with, if any, for
+     * fresh credentials and use them for every call made from now on.
+     *
+     * @return the credentials now in use.
+     */
+    public BitbucketAuthentication refreshAuthentication() {
+        return this.credentials.refresh();
+    }
+
+    /**
+     * Use the given credentials for every call made from now on, e.g. after
+     * rotating a token, without rebuilding the client.
+     *
+     * @param authentication the credentials to use.
+     * @return the credentials now in use.
+     */
+    public BitbucketAuthentication updateAuthentication(final BitbucketAuthentication authentication) {
+        return this.credentials.update(authentication);
     }
 
     public BitbucketApi api() {
         return this.bitbucketApi;
     }
 
+    /**
+     * Non-blocking view of `api()` whose calls return CompletableFuture's
+     * without tying up a thread per request, see {@link BitbucketAsyncApi}.
+     *
+     * @return BitbucketAsyncApi sharing this clients jclouds context.
+     */
+    public BitbucketAsyncApi asyncApi() {
+        return this.bitbucketAsyncApi;
+    }
+
+    /**
+     * Whether this client's jclouds executors are backed by virtual threads.
+     *
+     * @return true if virtual threads were requested and are supported by the running JVM.
+     */
+    public boolean virtualThreads() {
+        return this.virtualThreadExecutor != null;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
 
     @Override
     public void close() throws IOException {
-        if (this.api() != null) {
-            this.api().close();
+        try {
+            if (this.api() != null) {
+                this.api().close();
+            }
+        } finally {
+            if (this.virtualThreadExecutor != null) {
+                this.virtualThreadExecutor.shutdown();
+            }
         }
     }
 
@@ -142,8 +265,10 @@ public final class BitbucketClient implements Closeable {
 
         private String endPoint;
         private BitbucketAuthentication.Builder authBuilder;
+        private Supplier<BitbucketAuthentication> authSupplier;
         private Properties overrides;
         private List<Module> modules = Lists.newArrayList();
+        private boolean virtualThreads;
 
         /**
          * Define the base endpoint to connect to.
@@ -166,6 +291,7 @@ public final class BitbucketClient implements Closeable {
         public Builder credentials(final String optionallyBase64EncodedCredentials) {
             authBuilder = BitbucketAuthentication.builder()
                     .credentials(optionallyBase64EncodedCredentials);
+            authSupplier = null;
             return this;
         }
 
@@ -178,6 +304,22 @@ public final class BitbucketClient implements Closeable {
         public Builder token(final String token) {
             authBuilder = BitbucketAuthentication.builder()
                     .token(token);
+            authSupplier = null;
+            return this;
+        }
+
+        /**
+         * Optional Supplier of credentials, e.g. one reading a short-lived
+         * token from a secret store. It is asked for the initial credentials
+         * when the client is built and again on each call to
+         * `BitbucketClient.refreshAuthentication()`.
+         *
+         * @param authSupplier Supplier of authentication credentials.
+         * @return this Builder.
+         */
+        public Builder authentication(final Supplier<BitbucketAuthentication> authSupplier) {
+            this.authSupplier = authSupplier;
+            authBuilder = null;
             return this;
         }
 
@@ -207,6 +349,26 @@ public final class BitbucketClient implements Closeable {
             return this;
         }
 
+        /**
+         * Optionally back the jclouds user executor with a virtual-thread-per-task
+         * executor. This requires JDK 21+ and is silently ignored on older
+         * JVMs, where the default jclouds executors are used instead. Should
+         * not be combined with a user supplied ExecutorServiceModule.
+         *
+         * <p>Blocking calls only run on the user executor when a
+         * {@code jclouds.timeouts.<api:method>} property is set for them,
+         * otherwise they run on the caller's own thread. With virtual threads
+         * those calls are no longer capped at {@code jclouds.user-threads}
+         * concurrent requests.
+         *
+         * @param virtualThreads whether to use virtual threads.
+         * @return this Builder.
+         */
+        public Builder virtualThreads(final boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
         /**
          * Build an instance of BitbucketClient.
          *
@@ -214,12 +376,18 @@ public final class BitbucketClient implements Closeable {
          */
         public BitbucketClient build() {
 
-            // 1.) If user passed in some auth use/build that.
+            // 1.) If user passed in a credentials Supplier refresh from that.
+            if (authSupplier != null) {
+                return new BitbucketClient(endPoint, RefreshableAuthentication.of(authSupplier),
+                        overrides, modules, virtualThreads);
+            }
+
+            // 2.) If user passed in some auth use/build that.
             final BitbucketAuthentication authentication = authBuilder != null
                     ? authBuilder.build()
                     : null;
 
-            return new BitbucketClient(endPoint, authentication, overrides, modules);
+            return new BitbucketClient(endPoint, authentication, overrides, modules, virtualThreads);
         }
     }
 }
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest;
+
+import com.cdancy.bitbucket.rest.auth.RefreshableAuthentication;
+import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
+import com.cdancy.bitbucket.rest.http.AsyncHttpInvoker;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+import org.jclouds.concurrent.config.ExecutorServiceModule;
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Builds the jclouds context (Guice injector, executors, HTTP transport and
+ * its caches) for a Bitbucket instance once, and hands out lightweight
+ * BitbucketClient's for any number of credentials on top of it. Each call
+ * made through such a client authenticates with that client's credentials,
+ * so creating one costs a couple of small proxies rather than a new context.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * try (BitbucketClientPool pool = BitbucketClientPool.builder().endPoint("http://127.0.0.1:7990").build()) {
+ *     BitbucketClient tenant = pool.client(BitbucketAuthentication.builder().token(token).build());
+ *     tenant.api().projectApi().list(null, null, null, null);
+ * }
+ * </pre>
+ *
+ * <p>Clients handed out by the pool share its lifecycle: closing one of them
+ * is a no-op, closing the pool closes the shared context for all of them.
+ */
+public final class BitbucketClientPool implements Closeable {
+
+    private final String endPoint;
+    private final Properties overrides;
+    private final BitbucketApi bitbucketApi;
+    private final AsyncHttpInvoker asyncHttpInvoker;
+    private final ExecutorService virtualThreadExecutor;
+
+    /**
+     * Create a BitbucketClientPool. If the endPoint is null we will query
+     * System Properties and Environment Variables, as BitbucketClient does.
+     * Calls made outside of a pooled client are anonymous.
+     *
+     * @param endPoint URL of Bitbucket instance.
+     * @param overrides jclouds Properties to override defaults when creating the shared BitbucketApi.
+     * @param modules a list of modules to be passed to the Contextbuilder, e.g. for logging.
+     * @param virtualThreads use a virtual-thread-per-task executor if the running JVM supports it.
+     */
+    public BitbucketClientPool(@Nullable final String endPoint,
+            @Nullable final Properties overrides,
+            @Nullable final List<Module> modules,
+            final boolean virtualThreads) {
+        this.endPoint = endPoint != null
+                ? endPoint
+                : BitbucketUtils.inferEndpoint();
+        this.overrides = BitbucketClient.mergeOverrides(overrides);
+        this.virtualThreadExecutor = virtualThreads
+                ? BitbucketUtils.newVirtualThreadPerTaskExecutor()
+                : null;
+        final List<Module> allModules = Lists.newArrayList();
+        if (modules != null) {
+            allModules.addAll(modules);
+        }
+        if (this.virtualThreadExecutor != null) {
+            allModules.add(new ExecutorServiceModule(MoreExecutors.listeningDecorator(this.virtualThreadExecutor)));
+        }
+        final Injector injector = BitbucketClient.createInjector(this.endPoint,
+                new RefreshableAuthentication(BitbucketAuthentication.builder().build(), null), this.overrides, allModules);
+        this.bitbucketApi = LazyFeatureApiProxy.create(injector.getInstance(BitbucketApi.class));
+        this.asyncHttpInvoker = injector.getInstance(AsyncHttpInvoker.class);
+    }
+
+    /**
+     * Get a client authenticating every call with the given credentials.
+     *
+     * @param authentication credentials to use for the client's calls.
+     * @return BitbucketClient sharing this pool's context.
+     */
+    public BitbucketClient client(final BitbucketAuthentication authentication) {
+        Objects.requireNonNull(authentication, "authentication cannot be null");
+        return client(new RefreshableAuthentication(authentication, null));
+    }
+
+    /**
+     * Get a client authenticating every call with whatever credentials the
+     * given Supplier hands out. Calling `refreshAuthentication()` on the
+     * returned client asks the Supplier for fresh credentials.
+     *
+     * @param authentication Supplier of credentials to use for the client's calls.
+     * @return BitbucketClient sharing this pool's context.
+     */
+    public BitbucketClient client(final Supplier<BitbucketAuthentication> authentication) {
+        return client(RefreshableAuthentication.of(authentication));
+    }
+
+    private BitbucketClient client(final RefreshableAuthentication authentication) {
+        final BitbucketAuthenticationFilter filter = new BitbucketAuthenticationFilter(authentication);
+        final BitbucketApi api = AuthenticationScopedProxy.create(BitbucketApi.class, bitbucketApi, authentication, filter);
+        return new BitbucketClient(endPoint, authentication, overrides, api, new BitbucketAsyncApi(asyncHttpInvoker, filter));
+    }
+
+    public String endPoint() {
+        return this.endPoint;
+    }
+
+    public Properties overrides() {
+        return this.overrides;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.bitbucketApi.close();
+        } finally {
+            if (this.virtualThreadExecutor != null) {
+                this.virtualThreadExecutor.shutdown();
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private String endPoint;
+        private Properties overrides;
+        private final List<Module> modules = Lists.newArrayList();
+        private boolean virtualThreads;
+
+        /**
+         * Define the base endpoint to connect to.
+         *
+         * @param endPoint Bitbucket base endpoint.
+         * @return this Builder.
+         */
+        public Builder endPoint(final String endPoint) {
+            this.endPoint = endPoint;
+            return this;
+        }
+
+        /**
+         * Optional jclouds Properties to override.
+         *
+         * @param overrides optional jclouds Properties to override.
+         * @return this Builder.
+         */
+        public Builder overrides(final Properties overrides) {
+            this.overrides = overrides;
+            return this;
+        }
+
+        /**
+         * Optional List of Module to add. Modules can be added, for logging
+         * for example.
+         *
+         * @param modules optional List of Module to add.
+         * @return this Builder.
+         */
+        public Builder modules(final Module... modules) {
+            this.modules.addAll(Arrays.asList(modules));
+            return this;
+        }
+
+        /**
+         * Optionally back the jclouds user executor with a virtual-thread-per-task
+         * executor. This requires JDK 21+ and is silently ignored on older JVMs.
+         *
+         * @param virtualThreads whether to use virtual threads.
+         * @return this Builder.
+         */
+        public Builder virtualThreads(final boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Build an instance of BitbucketClientPool.
+         *
+         * @return BitbucketClientPool
+         */
+        public BitbucketClientPool build() {
+            return new BitbucketClientPool(endPoint, overrides, modules, virtualThreads);
+        }
+    }
+}
@@ -36,6 +36,59 @@ public class BitbucketConstants {
     public static final String JCLOUDS_PROPERTY_ID = "jclouds.";
     public static final String BITBUCKET_REST_PROPERTY_ID = "bitbucket.rest." + JCLOUDS_PROPERTY_ID;
 
+    /**
+     * Maximum number of responses kept by the ConditionalRequestCache. A
+     * value of 0, the default, disables conditional requests altogether.
+     */
+    public static final String CONDITIONAL_CACHE_MAX_ENTRIES = JCLOUDS_PROPERTY_ID + "bitbucket.conditional-cache.max-entries";
+
+    /**
+     * Maximum number of body bytes kept by the ConditionalRequestCache.
+     */
+    public static final String CONDITIONAL_CACHE_MAX_BYTES = JCLOUDS_PROPERTY_ID + "bitbucket.conditional-cache.max-bytes";
+
+    /**
+     * Maximum number of responses kept by the ImmutableCommitCache. A value
+     * of 0, the default, disables it altogether.
+     */
+    public static final String COMMIT_CACHE_MAX_ENTRIES = JCLOUDS_PROPERTY_ID + "bitbucket.commit-cache.max-entries";
+
+    /**
+     * Maximum number of body bytes kept by the ImmutableCommitCache.
+     */
+    public static final String COMMIT_CACHE_MAX_BYTES = JCLOUDS_PROPERTY_ID + "bitbucket.commit-cache.max-bytes";
+
+    /**
+     * Requests per second each group of operations is limited to by the
+     * TokenBucketRateLimiter. A value of 0, the default, means unlimited.
+     */
+    public static final String RATE_LIMIT_PERMITS_PER_SECOND = JCLOUDS_PROPERTY_ID + "bitbucket.rate-limit.permits-per-second";
+
+    /**
+     * Per group (or per operation) overrides of the rate limit, e.g.
+     * `repository=5,pull-request:merge=1`.
+     */
+    public static final String RATE_LIMIT_GROUPS = JCLOUDS_PROPERTY_ID + "bitbucket.rate-limit.groups";
+
+    /**
+     * Milliseconds the RateLimitRetryHandler first backs off for on a 429
+     * that carries no Retry-After header.
+     */
+    public static final String RATE_LIMIT_BACKOFF_START = JCLOUDS_PROPERTY_ID + "bitbucket.rate-limit.backoff-start";
+
+    /**
+     * Upper bound, in milliseconds, on how long the RateLimitRetryHandler
+     * waits before retrying a 429.
+     */
+    public static final String RATE_LIMIT_BACKOFF_MAX = JCLOUDS_PROPERTY_ID + "bitbucket.rate-limit.backoff-max";
+
+    /**
+     * Whether the InterningTypeAdapterFactory makes equal Person, User,
+     * Project, MinimalRepository and Reference objects share one instance.
+     * Defaults to false.
+     */
+    public static final String INTERNING = JCLOUDS_PROPERTY_ID + "bitbucket.interning";
+
     public static final String JCLOUDS_VARIABLE_ID = "JCLOUDS_";
     public static final String BITBUCKET_REST_VARIABLE_ID = "BITBUCKET_REST_" + JCLOUDS_VARIABLE_ID;
 
@@ -41,11 +41,14 @@ import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.jclouds.javax.annotation.Nullable;
 
 /**
@@ -288,6 +291,23 @@ public class BitbucketUtils {
         }
     }
 
+    /**
+     * Create an ExecutorService that starts a new virtual thread for each
+     * task. Virtual threads only exist on JDK 21+ so the factory method is
+     * looked up reflectively, allowing this library to still target JDK 11.
+     *
+     * @return virtual-thread-per-task ExecutorService or null if the running JVM does not support virtual threads.
+     */
+    @Nullable
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (final ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
     protected BitbucketUtils() {
         throw new UnsupportedOperationException("Purposefully not implemented");
     }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest;
+
+import com.google.common.reflect.Reflection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jclouds.rest.annotations.Delegate;
+
+/**
+ * Proxy over the jclouds generated BitbucketApi which creates each feature
+ * API on first access and hands out that same instance from then on. jclouds
+ * itself builds a fresh delegate proxy on every call to e.g. `repositoryApi()`.
+ */
+final class LazyFeatureApiProxy implements InvocationHandler {
+
+    private final BitbucketApi target;
+    private final ConcurrentMap<Method, Object> delegates = new ConcurrentHashMap<>();
+
+    private LazyFeatureApiProxy(final BitbucketApi target) {
+        this.target = target;
+    }
+
+    static BitbucketApi create(final BitbucketApi target) {
+        return Reflection.newProxy(BitbucketApi.class, new LazyFeatureApiProxy(target));
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return args.length == 1 && proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "LazyFeatureApis(" + target + ")";
+            default:
+                break;
+        }
+
+        if (method.isAnnotationPresent(Delegate.class)) {
+            final Object existing = delegates.get(method);
+            if (existing != null) {
+                return existing;
+            }
+            final Object created = invokeTarget(method, args);
+            final Object raced = delegates.putIfAbsent(method, created);
+            return raced != null ? raced : created;
+        }
+        return invokeTarget(method, args);
+    }
+
+    private Object invokeTarget(final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
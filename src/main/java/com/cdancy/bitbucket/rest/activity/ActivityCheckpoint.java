@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.activity;
+
+import com.google.auto.value.AutoValue;
+
+/**
+ * Most recent activity of a pull request seen by an {@link ActivityTracker}.
+ */
+@AutoValue
+public abstract class ActivityCheckpoint {
+
+    public abstract String project();
+
+    public abstract String repo();
+
+    public abstract long pullRequestId();
+
+    /**
+     * Id of the most recent activity seen. Activity ids increase over time.
+     *
+     * @return id of the most recent activity.
+     */
+    public abstract long activityId();
+
+    /**
+     * Creation date, in epoch milliseconds, of the most recent activity seen.
+     *
+     * @return creation date of the most recent activity.
+     */
+    public abstract long createdDate();
+
+    ActivityCheckpoint() {
+    }
+
+    public static ActivityCheckpoint create(final String project,
+            final String repo,
+            final long pullRequestId,
+            final long activityId,
+            final long createdDate) {
+
+        return new AutoValue_ActivityCheckpoint(project, repo, pullRequestId, activityId, createdDate);
+    }
+}
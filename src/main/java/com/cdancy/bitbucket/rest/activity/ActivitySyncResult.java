@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.activity;
+
+import com.cdancy.bitbucket.rest.BitbucketUtils;
+import com.cdancy.bitbucket.rest.domain.common.Error;
+import com.cdancy.bitbucket.rest.domain.common.ErrorsHolder;
+import com.google.auto.value.AutoValue;
+
+import java.util.List;
+
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Outcome of a single {@link ActivityTracker#sync} of a pull request.
+ */
+@AutoValue
+public abstract class ActivitySyncResult implements ErrorsHolder {
+
+    /**
+     * Checkpoint of the pull request after the sync. Unchanged when nothing
+     * new was found or the sync failed.
+     *
+     * @return the current checkpoint or null if the pull request has no
+     *     activity yet.
+     */
+    @Nullable
+    public abstract ActivityCheckpoint checkpoint();
+
+    /**
+     * Number of new activities handed to the consumer.
+     *
+     * @return number of new activities.
+     */
+    public abstract int activities();
+
+    /**
+     * Number of activity pages requested.
+     *
+     * @return number of pages read.
+     */
+    public abstract int pages();
+
+    ActivitySyncResult() {
+    }
+
+    public static ActivitySyncResult create(@Nullable final ActivityCheckpoint checkpoint,
+            final int activities,
+            final int pages,
+            @Nullable final List<Error> errors) {
+
+        return new AutoValue_ActivitySyncResult(BitbucketUtils.nullToEmpty(errors), checkpoint, activities, pages);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.activity;
+
+import com.cdancy.bitbucket.rest.domain.activities.Activities;
+import com.cdancy.bitbucket.rest.features.PullRequestApi;
+import com.cdancy.bitbucket.rest.pagination.Paginator;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Incrementally syncs the activity of pull requests. The id and creation
+ * date of the most recent activity seen is kept, per pull request, in a
+ * {@link CheckpointStore} and later syncs only page through activity until
+ * they reach it, so the cost of a sync is proportional to the amount of new
+ * activity rather than to the length of the pull request's history.
+ *
+ * <p>Bitbucket lists activity most recent first, which is therefore the
+ * order new activities are handed to the consumer. Pages are decoded one
+ * activity at a time and reading stops as soon as known activity is
+ * reached. Activities shifted onto a later page by activity created while
+ * paging are recognized and not handed over twice.
+ *
+ * <p>The checkpoint is only moved forward once every new activity has been
+ * consumed: if the consumer throws, or a page cannot be read, the next sync
+ * hands the same activities over again.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * ActivityTracker tracker = ActivityTracker.builder(client.api().pullRequestApi(),
+ *         new FileCheckpointStore(Paths.get("checkpoints.properties"))).build();
+ * ActivitySyncResult result = tracker.sync("PRJ", "repo", 42, activity -&gt; warehouse.insert(activity));
+ * </pre>
+ */
+public final class ActivityTracker {
+
+    public static final int DEFAULT_PAGE_SIZE = 25;
+
+    private final PullRequestApi api;
+    private final CheckpointStore store;
+    private final int pageSize;
+
+    private ActivityTracker(final Builder builder) {
+        this.api = builder.api;
+        this.store = builder.store;
+        this.pageSize = builder.pageSize;
+    }
+
+    public static Builder builder(final PullRequestApi api, final CheckpointStore store) {
+        return new Builder(api, store);
+    }
+
+    /**
+     * Hand every activity created since the last sync of a pull request to
+     * the passed consumer, most recent first, and move its checkpoint
+     * forward. The first sync of a pull request reads its whole history.
+     *
+     * @param project the project key.
+     * @param repo the repository slug.
+     * @param pullRequestId the pull request id.
+     * @param consumer receives each new activity.
+     * @return outcome of the sync.
+     */
+    public ActivitySyncResult sync(final String project,
+            final String repo,
+            final long pullRequestId,
+            final Consumer<? super Activities> consumer) {
+        Objects.requireNonNull(project, "project cannot be null");
+        Objects.requireNonNull(repo, "repo cannot be null");
+        Objects.requireNonNull(consumer, "consumer cannot be null");
+
+        final ActivityCheckpoint checkpoint = store.load(project, repo, pullRequestId);
+        Activities newest = null;
+        Activities oldest = null;
+        int activities = 0;
+        int pages = 0;
+        int start = 0;
+        boolean done = false;
+        while (!done) {
+            try (StreamingPage<Activities> page = api.listActivitiesStreaming(project, repo, pullRequestId, pageSize, start)) {
+                pages++;
+                while (page.hasNext()) {
+                    final Activities activity = page.next();
+                    if (known(activity, checkpoint)) {
+                        done = true;
+                        break;
+                    }
+                    if (oldest != null && activity.id() >= oldest.id()) {
+                        // pushed down from an earlier page by new activity
+                        continue;
+                    }
+                    consumer.accept(activity);
+                    activities++;
+                    oldest = activity;
+                    if (newest == null) {
+                        newest = activity;
+                    }
+                }
+                if (!done) {
+                    if (!page.errors().isEmpty()) {
+                        return ActivitySyncResult.create(checkpoint, activities, pages, page.errors());
+                    }
+                    done = !Paginator.hasNextPage(page.isLastPage(), page.nextPageStart(), start);
+                    start = page.nextPageStart();
+                }
+            }
+        }
+
+        if (newest == null) {
+            return ActivitySyncResult.create(checkpoint, 0, pages, null);
+        }
+        final ActivityCheckpoint updated = ActivityCheckpoint.create(project, repo, pullRequestId,
+                newest.id(), newest.createdDate());
+        store.save(updated);
+        return ActivitySyncResult.create(updated, activities, pages, null);
+    }
+
+    private static boolean known(final Activities activity, final ActivityCheckpoint checkpoint) {
+        // ids rather than creation dates decide as the latter are not
+        // guaranteed to follow the order activities are listed in
+        return checkpoint != null && activity.id() <= checkpoint.activityId();
+    }
+
+    public static final class Builder {
+
+        private final PullRequestApi api;
+        private final CheckpointStore store;
+        private int pageSize = DEFAULT_PAGE_SIZE;
+
+        Builder(final PullRequestApi api, final CheckpointStore store) {
+            this.api = Objects.requireNonNull(api, "api cannot be null");
+            this.store = Objects.requireNonNull(store, "store cannot be null");
+        }
+
+        /**
+         * Number of activities requested per page. Small pages keep the
+         * steady state, where only a handful of activities are new, cheap.
+         *
+         * @param pageSize number of activities per page.
+         * @return this Builder.
+         */
+        public Builder pageSize(final int pageSize) {
+            if (pageSize < 1) {
+                throw new IllegalArgumentException("pageSize must be >= 1: " + pageSize);
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public ActivityTracker build() {
+            return new ActivityTracker(this);
+        }
+    }
+}
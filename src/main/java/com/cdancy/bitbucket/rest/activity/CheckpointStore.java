@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.activity;
+
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Persists the {@link ActivityCheckpoint} of every pull request tracked by an
+ * {@link ActivityTracker}. {@link InMemoryCheckpointStore} and
+ * {@link FileCheckpointStore} are provided.
+ *
+ * <p>Implementations must be thread safe as pull requests may be synced
+ * concurrently.
+ */
+public interface CheckpointStore {
+
+    /**
+     * Load the checkpoint of a pull request.
+     *
+     * @param project the project key.
+     * @param repo the repository slug.
+     * @param pullRequestId the pull request id.
+     * @return the checkpoint or null if the pull request was never synced.
+     */
+    @Nullable
+    ActivityCheckpoint load(String project, String repo, long pullRequestId);
+
+    /**
+     * Store the checkpoint of a pull request, replacing any previous one.
+     *
+     * @param checkpoint the checkpoint to store.
+     */
+    void save(ActivityCheckpoint checkpoint);
+
+    /**
+     * Forget the checkpoint of a pull request (e.g. once it is closed), so
+     * its next sync starts from the beginning.
+     *
+     * @param project the project key.
+     * @param repo the repository slug.
+     * @param pullRequestId the pull request id.
+     */
+    void remove(String project, String repo, long pullRequestId);
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.activity;
+
+import static com.cdancy.bitbucket.rest.activity.InMemoryCheckpointStore.key;
+
+import com.google.common.base.Throwables;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * {@link CheckpointStore} persisting checkpoints to a properties file, one
+ * `project/repo/pullRequestId=activityId,createdDate` entry per pull request.
+ *
+ * <p>Checkpoints are read once when the store is created and the whole file
+ * is rewritten on every change: the new content goes to a sibling temporary
+ * file which is then atomically moved over the old one, so a crash never
+ * leaves a partially written file behind.
+ */
+public final class FileCheckpointStore implements CheckpointStore {
+
+    private final Path file;
+
+    // guarded by `this`
+    private final Map<String, ActivityCheckpoint> checkpoints = new TreeMap<>();
+
+    /**
+     * Create a FileCheckpointStore, loading any checkpoints already stored
+     * in the passed file.
+     *
+     * @param file the file checkpoints are stored in. Need not exist yet.
+     */
+    public FileCheckpointStore(final Path file) {
+        this.file = Objects.requireNonNull(file, "file cannot be null").toAbsolutePath();
+        if (Files.exists(this.file)) {
+            load();
+        }
+    }
+
+    @Nullable
+    @Override
+    public synchronized ActivityCheckpoint load(final String project, final String repo, final long pullRequestId) {
+        return checkpoints.get(key(project, repo, pullRequestId));
+    }
+
+    @Override
+    public synchronized void save(final ActivityCheckpoint checkpoint) {
+        Objects.requireNonNull(checkpoint, "checkpoint cannot be null");
+        final String key = key(checkpoint.project(), checkpoint.repo(), checkpoint.pullRequestId());
+        final ActivityCheckpoint previous = checkpoints.put(key, checkpoint);
+        if (!checkpoint.equals(previous)) {
+            try {
+                write();
+            } catch (final RuntimeException e) {
+                restore(key, previous);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void remove(final String project, final String repo, final long pullRequestId) {
+        final String key = key(project, repo, pullRequestId);
+        final ActivityCheckpoint previous = checkpoints.remove(key);
+        if (previous != null) {
+            try {
+                write();
+            } catch (final RuntimeException e) {
+                restore(key, previous);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Undo an in-memory change whose write failed so memory and file agree.
+     */
+    private void restore(final String key, @Nullable final ActivityCheckpoint previous) {
+        if (previous != null) {
+            checkpoints.put(key, previous);
+        } else {
+            checkpoints.remove(key);
+        }
+    }
+
+    private void load() {
+        final Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        }
+        for (final String key : properties.stringPropertyNames()) {
+            final String[] pullRequest = key.split("/", -1);
+            final String[] activity = properties.getProperty(key).split(",", -1);
+            if (pullRequest.length != 3 || activity.length != 2) {
+                throw new IllegalStateException("Malformed checkpoint in " + file + ": " + key);
+            }
+            checkpoints.put(key, ActivityCheckpoint.create(pullRequest[0],
+                    pullRequest[1],
+                    Long.parseLong(pullRequest[2]),
+                    Long.parseLong(activity[0].trim()),
+                    Long.parseLong(activity[1].trim())));
+        }
+    }
+
+    private void write() {
+        final Properties properties = new Properties();
+        for (final Map.Entry<String, ActivityCheckpoint> entry : checkpoints.entrySet()) {
+            properties.setProperty(entry.getKey(),
+                    entry.getValue().activityId() + "," + entry.getValue().createdDate());
+        }
+        try {
+            final Path parent = file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            final Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    properties.store(writer, "pull request activity checkpoints");
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+}
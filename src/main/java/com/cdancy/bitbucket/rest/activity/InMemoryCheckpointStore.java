@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.activity;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * {@link CheckpointStore} keeping checkpoints in memory only.
+ */
+public final class InMemoryCheckpointStore implements CheckpointStore {
+
+    private final Map<String, ActivityCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    @Nullable
+    @Override
+    public ActivityCheckpoint load(final String project, final String repo, final long pullRequestId) {
+        return checkpoints.get(key(project, repo, pullRequestId));
+    }
+
+    @Override
+    public void save(final ActivityCheckpoint checkpoint) {
+        Objects.requireNonNull(checkpoint, "checkpoint cannot be null");
+        checkpoints.put(key(checkpoint.project(), checkpoint.repo(), checkpoint.pullRequestId()), checkpoint);
+    }
+
+    @Override
+    public void remove(final String project, final String repo, final long pullRequestId) {
+        checkpoints.remove(key(project, repo, pullRequestId));
+    }
+
+    /**
+     * Key a pull request is stored under. Neither project keys nor
+     * repository slugs may contain a '/'.
+     */
+    static String key(final String project, final String repo, final long pullRequestId) {
+        return project + '/' + repo + '/' + pullRequestId;
+    }
+}
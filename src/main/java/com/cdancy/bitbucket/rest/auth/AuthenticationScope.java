@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.auth;
+
+import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Authentication bound to the calling thread for the duration of a call.
+ * Requests built while a BitbucketAuthenticationFilter is bound get that
+ * filter instead of the one for the credentials the context was built with,
+ * which lets many clients with different credentials share a single jclouds
+ * context (see BitbucketClientPool).
+ *
+ * <p>The scope is only consulted while jclouds builds the request, which
+ * happens on the calling thread. The filter is then part of the request, so
+ * work jclouds hands off to its user executor, e.g. when
+ * `jclouds.timeouts.*` is set, keeps it.
+ */
+public final class AuthenticationScope {
+
+    private static final ThreadLocal<BitbucketAuthenticationFilter> CURRENT = new ThreadLocal<>();
+
+    private AuthenticationScope() {
+        throw new UnsupportedOperationException("Purposefully not implemented");
+    }
+
+    /**
+     * Filter bound to the calling thread.
+     *
+     * @return the bound filter or null if none is bound.
+     */
+    @Nullable
+    public static BitbucketAuthenticationFilter current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run a call with the given filter bound to the calling thread,
+     * restoring whatever was bound before once it returns.
+     *
+     * @param <T> the type returned by the call.
+     * @param filter the filter authenticating requests made by the call.
+     * @param call the call to make.
+     * @return the result of the call.
+     */
+    public static <T> T call(final BitbucketAuthenticationFilter filter, final Supplier<T> call) {
+        Objects.requireNonNull(filter, "filter cannot be null");
+        final BitbucketAuthenticationFilter previous = CURRENT.get();
+        CURRENT.set(filter);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.auth;
+
+import com.cdancy.bitbucket.rest.BitbucketAuthentication;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Holder for the credentials a client authenticates with that can be swapped
+ * at runtime, e.g. to rotate an expiring token, without rebuilding the
+ * client. Every BitbucketAuthentication precomputes its Authorization header
+ * so swapping credentials is a single atomic write and reading them on every
+ * request allocates nothing.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * BitbucketClient client = BitbucketClient.builder()
+ *         .endPoint(url)
+ *         .authentication(() -&gt; BitbucketAuthentication.builder().token(vault.token()).build())
+ *         .build();
+ * ...
+ * client.refreshAuthentication();
+ * </pre>
+ */
+public final class RefreshableAuthentication implements Supplier<BitbucketAuthentication> {
+
+    private final AtomicReference<BitbucketAuthentication> current;
+    private final Supplier<BitbucketAuthentication> source;
+
+    /**
+     * Create a RefreshableAuthentication.
+     *
+     * @param authentication the credentials to start with.
+     * @param source optional Supplier asked for fresh credentials on each `refresh()`.
+     */
+    public RefreshableAuthentication(final BitbucketAuthentication authentication,
+            @Nullable final Supplier<BitbucketAuthentication> source) {
+        this.current = new AtomicReference<>(Objects.requireNonNull(authentication, "authentication cannot be null"));
+        this.source = source;
+    }
+
+    /**
+     * Create a RefreshableAuthentication seeded from, and refreshed by, the
+     * given Supplier.
+     *
+     * @param source Supplier asked for the initial credentials and on each `refresh()`.
+     * @return RefreshableAuthentication.
+     */
+    public static RefreshableAuthentication of(final Supplier<BitbucketAuthentication> source) {
+        Objects.requireNonNull(source, "source cannot be null");
+        return new RefreshableAuthentication(source.get(), source);
+    }
+
+    /**
+     * The credentials currently in use.
+     *
+     * @return the current credentials.
+     */
+    @Override
+    public BitbucketAuthentication get() {
+        return current.get();
+    }
+
+    /**
+     * Ask the source Supplier for fresh credentials and swap them in. Calls
+     * already in flight keep the credentials they started with.
+     *
+     * @return the credentials now in use, unchanged if no source Supplier was given.
+     */
+    public BitbucketAuthentication refresh() {
+        if (source == null) {
+            return current.get();
+        }
+        return update(source.get());
+    }
+
+    /**
+     * Swap in the given credentials.
+     *
+     * @param authentication the credentials to use from now on.
+     * @return the credentials now in use.
+     */
+    public BitbucketAuthentication update(final BitbucketAuthentication authentication) {
+        current.set(Objects.requireNonNull(authentication, "authentication cannot be null"));
+        return authentication;
+    }
+}
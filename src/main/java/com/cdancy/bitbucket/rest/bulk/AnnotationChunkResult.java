@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.cdancy.bitbucket.rest.domain.common.RequestStatus;
+import com.google.auto.value.AutoValue;
+
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Outcome of uploading one chunk of annotations with an {@link InsightsUploader}.
+ */
+@AutoValue
+public abstract class AnnotationChunkResult {
+
+    /**
+     * Position of this chunk amongst all chunks of the upload.
+     *
+     * @return zero-based chunk index.
+     */
+    public abstract int index();
+
+    /**
+     * Position, in the uploaded list, of the first annotation of this chunk.
+     *
+     * @return zero-based offset of the chunk.
+     */
+    public abstract int offset();
+
+    public abstract int size();
+
+    @Nullable
+    public abstract RequestStatus requestStatus();
+
+    @Nullable
+    public abstract Throwable error();
+
+    AnnotationChunkResult() {
+    }
+
+    /**
+     * Whether Bitbucket accepted the annotations of this chunk.
+     *
+     * @return true if the chunk was stored.
+     */
+    public boolean success() {
+        return error() == null
+                && requestStatus() != null
+                && Boolean.TRUE.equals(requestStatus().value());
+    }
+
+    public static AnnotationChunkResult create(final int index,
+            final int offset,
+            final int size,
+            @Nullable final RequestStatus requestStatus,
+            @Nullable final Throwable error) {
+
+        return new AutoValue_AnnotationChunkResult(index, offset, size, requestStatus, error);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * Outcome of uploading annotations with an {@link InsightsUploader}, one
+ * {@link AnnotationChunkResult} per chunk so partial failures can be
+ * inspected, and retried, individually.
+ */
+@AutoValue
+public abstract class AnnotationUploadResult {
+
+    public abstract String commitId();
+
+    public abstract String reportKey();
+
+    public abstract List<AnnotationChunkResult> chunks();
+
+    AnnotationUploadResult() {
+    }
+
+    /**
+     * Whether every chunk was accepted.
+     *
+     * @return true if all annotations were stored.
+     */
+    public boolean success() {
+        for (final AnnotationChunkResult chunk : chunks()) {
+            if (!chunk.success()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Chunks which Bitbucket did not accept.
+     *
+     * @return failed chunks, in chunk order.
+     */
+    public List<AnnotationChunkResult> failedChunks() {
+        final ImmutableList.Builder<AnnotationChunkResult> failed = ImmutableList.builder();
+        for (final AnnotationChunkResult chunk : chunks()) {
+            if (!chunk.success()) {
+                failed.add(chunk);
+            }
+        }
+        return failed.build();
+    }
+
+    /**
+     * Number of annotations stored across all accepted chunks.
+     *
+     * @return number of uploaded annotations.
+     */
+    public int uploaded() {
+        int uploaded = 0;
+        for (final AnnotationChunkResult chunk : chunks()) {
+            if (chunk.success()) {
+                uploaded += chunk.size();
+            }
+        }
+        return uploaded;
+    }
+
+    public static AnnotationUploadResult create(final String commitId,
+            final String reportKey,
+            final List<AnnotationChunkResult> chunks) {
+
+        return new AutoValue_AnnotationUploadResult(commitId, reportKey, ImmutableList.copyOf(chunks));
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.cdancy.bitbucket.rest.domain.common.RequestStatus;
+import com.cdancy.bitbucket.rest.features.BuildStatusApi;
+import com.cdancy.bitbucket.rest.options.CreateBuildStatus;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous, coalescing, publisher of build statuses.
+ *
+ * <p>Updates handed to {@link #publish(String, CreateBuildStatus)} are queued
+ * and sent in batches: whenever `linger` has passed since the first queued
+ * update, as soon as `maxBatchSize` distinct updates are waiting, or when
+ * {@link #flush()} is called. Queued updates for the same commit and key
+ * are coalesced so only the most recent one is sent, which keeps write load
+ * down when e.g. INPROGRESS is quickly followed by SUCCESSFUL. Updates for a
+ * commit and key already being sent wait for that request to finish, so
+ * the final state always wins. At most `maxConcurrency` requests are in
+ * flight at any time.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * try (BuildStatusPublisher publisher = BuildStatusPublisher.builder(client.api().buildStatusApi()).build()) {
+ *     publisher.publish(commitId, inProgress);
+ *     publisher.publish(commitId, successful).thenAccept(result -&gt; ...);
+ * }
+ * </pre>
+ */
+public final class BuildStatusPublisher implements Closeable {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    public static final Duration DEFAULT_LINGER = Duration.ofMillis(500);
+
+    private final BuildStatusApi api;
+    private final int maxConcurrency;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final ScheduledExecutorService scheduler;
+
+    // guarded by `this`
+    private final Map<UpdateKey, Pending> pending = new LinkedHashMap<>();
+    private final Map<UpdateKey, Pending> inFlight = new HashMap<>();
+    private boolean draining;
+    private boolean flushScheduled;
+    private boolean closed;
+
+    private BuildStatusPublisher(final Builder builder) {
+        this.api = builder.api;
+        this.maxConcurrency = builder.maxConcurrency;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.lingerNanos = builder.linger.toNanos();
+        if (builder.executor != null) {
+            this.executor = builder.executor;
+            this.ownedExecutor = null;
+        } else {
+            this.ownedExecutor = Executors.newFixedThreadPool(maxConcurrency,
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("build-status-publisher-%d").build());
+            this.executor = this.ownedExecutor;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("build-status-publisher-flush").build());
+    }
+
+    public static Builder builder(final BuildStatusApi api) {
+        return new Builder(api);
+    }
+
+    /**
+     * Queue a build status for the given commit.
+     *
+     * @param commitId the commit the build status belongs to.
+     * @param buildStatus the build status to publish.
+     * @return CompletableFuture completing with the result once the update,
+     *     or the one superseding it, has been sent.
+     */
+    public CompletableFuture<BuildStatusResult> publish(final String commitId, final CreateBuildStatus buildStatus) {
+        Objects.requireNonNull(commitId, "commitId cannot be null");
+        Objects.requireNonNull(buildStatus, "buildStatus cannot be null");
+        Objects.requireNonNull(buildStatus.key(), "buildStatus.key cannot be null");
+
+        final CompletableFuture<BuildStatusResult> future = new CompletableFuture<>();
+        final boolean dispatchNow;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("BuildStatusPublisher is closed");
+            }
+            final UpdateKey key = new UpdateKey(commitId, buildStatus.key());
+            final Pending existing = pending.get(key);
+            if (existing != null) {
+                existing.supersede(buildStatus, future);
+            } else {
+                pending.put(key, new Pending(key, commitId, buildStatus, future));
+            }
+
+            dispatchNow = pending.size() >= maxBatchSize;
+            if (dispatchNow) {
+                draining = true;
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::scheduledFlush, lingerNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (dispatchNow) {
+            dispatch();
+        }
+        return future;
+    }
+
+    /**
+     * Send everything queued so far without waiting for `linger` to pass.
+     *
+     * @return CompletableFuture completing once every update queued before
+     *     this call has been sent.
+     */
+    public CompletableFuture<Void> flush() {
+        final List<CompletableFuture<BuildStatusResult>> outstanding = new ArrayList<>();
+        synchronized (this) {
+            for (final Pending entry : pending.values()) {
+                outstanding.addAll(entry.futures);
+            }
+            for (final Pending entry : inFlight.values()) {
+                outstanding.addAll(entry.futures);
+            }
+            draining = true;
+        }
+        dispatch();
+        return CompletableFuture.allOf(outstanding.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Number of updates, after coalescing, waiting to be sent.
+     *
+     * @return number of queued updates.
+     */
+    public synchronized int pending() {
+        return pending.size();
+    }
+
+    /**
+     * Stop accepting updates, send whatever is still queued and wait for it
+     * to complete.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            flush().join();
+        } finally {
+            scheduler.shutdownNow();
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdown();
+            }
+        }
+    }
+
+    private void scheduledFlush() {
+        synchronized (this) {
+            flushScheduled = false;
+            draining = true;
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        final List<Pending> batch = Lists.newArrayList();
+        synchronized (this) {
+            if (!draining) {
+                return;
+            }
+            final Iterator<Pending> it = pending.values().iterator();
+            while (it.hasNext() && inFlight.size() < maxConcurrency) {
+                final Pending next = it.next();
+                if (!inFlight.containsKey(next.key)) {
+                    it.remove();
+                    inFlight.put(next.key, next);
+                    batch.add(next);
+                }
+            }
+            if (pending.isEmpty()) {
+                draining = false;
+            }
+        }
+        for (final Pending next : batch) {
+            try {
+                executor.execute(() -> send(next));
+            } catch (final RejectedExecutionException e) {
+                complete(next, null, e);
+            }
+        }
+    }
+
+    private void send(final Pending update) {
+        RequestStatus requestStatus = null;
+        Throwable error = null;
+        try {
+            requestStatus = api.add(update.commitId, update.buildStatus);
+        } catch (final Throwable e) {
+            // an Error too must complete the update, or its key stays in flight
+            error = e;
+        }
+        complete(update, requestStatus, error);
+    }
+
+    private void complete(final Pending update, final RequestStatus requestStatus, final Throwable error) {
+        synchronized (this) {
+            inFlight.remove(update.key);
+            if (!pending.isEmpty()) {
+                draining = true;
+            }
+        }
+        final int last = update.futures.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            update.futures.get(i).complete(BuildStatusResult.create(update.commitId,
+                    update.buildStatus, i != last, requestStatus, error));
+        }
+        dispatch();
+    }
+
+    /**
+     * Commit and build key an update applies to. Commit hashes are compared
+     * ignoring case.
+     */
+    private static final class UpdateKey {
+
+        private final String commitId;
+        private final String key;
+
+        UpdateKey(final String commitId, final String key) {
+            this.commitId = commitId.toLowerCase(Locale.ROOT);
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof UpdateKey)) {
+                return false;
+            }
+            final UpdateKey that = (UpdateKey) other;
+            return commitId.equals(that.commitId) && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(commitId, key);
+        }
+    }
+
+    /**
+     * Most recent build status for a commit and key, together with the
+     * futures of every update it superseded.
+     */
+    private static final class Pending {
+
+        private final UpdateKey key;
+        private final String commitId;
+        private final List<CompletableFuture<BuildStatusResult>> futures = new ArrayList<>(1);
+        private CreateBuildStatus buildStatus;
+
+        Pending(final UpdateKey key,
+                final String commitId,
+                final CreateBuildStatus buildStatus,
+                final CompletableFuture<BuildStatusResult> future) {
+            this.key = key;
+            this.commitId = commitId;
+            this.buildStatus = buildStatus;
+            this.futures.add(future);
+        }
+
+        void supersede(final CreateBuildStatus newer, final CompletableFuture<BuildStatusResult> future) {
+            this.buildStatus = newer;
+            this.futures.add(future);
+        }
+    }
+
+    public static final class Builder {
+
+        private final BuildStatusApi api;
+        private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private Duration linger = DEFAULT_LINGER;
+        private Executor executor;
+
+        Builder(final BuildStatusApi api) {
+            this.api = Objects.requireNonNull(api, "api cannot be null");
+        }
+
+        /**
+         * Maximum number of build statuses sent at the same time.
+         *
+         * @param maxConcurrency maximum number of requests in flight.
+         * @return this Builder.
+         */
+        public Builder maxConcurrency(final int maxConcurrency) {
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("maxConcurrency must be >= 1: " + maxConcurrency);
+            }
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Number of distinct queued updates which triggers a flush without
+         * waiting for `linger` to pass.
+         *
+         * @param maxBatchSize number of queued updates.
+         * @return this Builder.
+         */
+        public Builder maxBatchSize(final int maxBatchSize) {
+            if (maxBatchSize < 1) {
+                throw new IllegalArgumentException("maxBatchSize must be >= 1: " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * How long updates are held, and so given the chance to be
+         * coalesced, before they are sent.
+         *
+         * @param linger time to hold updates for.
+         * @return this Builder.
+         */
+        public Builder linger(final Duration linger) {
+            if (Objects.requireNonNull(linger, "linger cannot be null").isNegative()) {
+                throw new IllegalArgumentException("linger cannot be negative: " + linger);
+            }
+            this.linger = linger;
+            return this;
+        }
+
+        /**
+         * Optional Executor the requests are made on. Defaults to a pool of
+         * `maxConcurrency` threads owned, and shut down, by the publisher.
+         *
+         * @param executor Executor requests are made on.
+         * @return this Builder.
+         */
+        public Builder executor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public BuildStatusPublisher build() {
+            return new BuildStatusPublisher(this);
+        }
+    }
+}
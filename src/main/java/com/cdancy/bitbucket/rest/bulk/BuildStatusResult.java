@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.cdancy.bitbucket.rest.domain.common.RequestStatus;
+import com.cdancy.bitbucket.rest.options.CreateBuildStatus;
+import com.google.auto.value.AutoValue;
+
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Outcome of a single update handed to a {@link BuildStatusPublisher}.
+ *
+ * <p>An update which was replaced by a later one for the same commit and
+ * key before it could be sent is `superseded`, and carries the outcome of
+ * the update that was actually sent in its place.
+ */
+@AutoValue
+public abstract class BuildStatusResult {
+
+    public abstract String commitId();
+
+    /**
+     * The build status that was sent to Bitbucket.
+     *
+     * @return the sent build status.
+     */
+    public abstract CreateBuildStatus buildStatus();
+
+    public abstract boolean superseded();
+
+    @Nullable
+    public abstract RequestStatus requestStatus();
+
+    @Nullable
+    public abstract Throwable error();
+
+    BuildStatusResult() {
+    }
+
+    /**
+     * Whether Bitbucket accepted the build status.
+     *
+     * @return true if the sent build status was stored.
+     */
+    public boolean success() {
+        return error() == null
+                && requestStatus() != null
+                && Boolean.TRUE.equals(requestStatus().value());
+    }
+
+    public static BuildStatusResult create(final String commitId,
+            final CreateBuildStatus buildStatus,
+            final boolean superseded,
+            @Nullable final RequestStatus requestStatus,
+            @Nullable final Throwable error) {
+
+        return new AutoValue_BuildStatusResult(commitId, buildStatus, superseded, requestStatus, error);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+/**
+ * Records which projects an {@link InventoryCrawler} has fully crawled so an
+ * interrupted crawl can be resumed without starting over.
+ * {@link InMemoryCrawlProgress} and {@link FileCrawlProgress} are provided.
+ *
+ * <p>Implementations must be thread safe as projects complete concurrently.
+ */
+public interface CrawlProgress {
+
+    /**
+     * Whether every repository of a project was already handed to the sink.
+     *
+     * @param project the project key.
+     * @return true if the project can be skipped.
+     */
+    boolean isCompleted(String project);
+
+    /**
+     * Record that every repository of a project was handed to the sink.
+     *
+     * @param project the project key.
+     */
+    void markCompleted(String project);
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.google.common.base.Throwables;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CrawlProgress} persisted to a file holding one completed project
+ * key per line. Keys are appended, and flushed, as projects complete so the
+ * file stays valid whenever the crawl is interrupted. Delete the file to
+ * start a fresh crawl.
+ */
+public final class FileCrawlProgress implements CrawlProgress {
+
+    private final Path file;
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create a FileCrawlProgress, loading the projects already completed
+     * according to the passed file.
+     *
+     * @param file the file progress is recorded in. Need not exist yet.
+     */
+    public FileCrawlProgress(final Path file) {
+        this.file = Objects.requireNonNull(file, "file cannot be null").toAbsolutePath();
+        if (Files.exists(this.file)) {
+            try {
+                for (final String line : Files.readAllLines(this.file, StandardCharsets.UTF_8)) {
+                    if (!line.trim().isEmpty()) {
+                        completed.add(line.trim());
+                    }
+                }
+            } catch (final IOException e) {
+                throw Throwables.propagate(e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isCompleted(final String project) {
+        return completed.contains(project);
+    }
+
+    @Override
+    public synchronized void markCompleted(final String project) {
+        if (!completed.add(Objects.requireNonNull(project, "project cannot be null"))) {
+            return;
+        }
+        try {
+            final Path parent = file.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(project);
+                writer.write('\n');
+            }
+        } catch (final IOException e) {
+            completed.remove(project);
+            throw Throwables.propagate(e);
+        }
+    }
+}
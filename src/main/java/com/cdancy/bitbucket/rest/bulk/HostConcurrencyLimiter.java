@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of requests made to the same Bitbucket host at the same
+ * time. A single instance can be shared by several crawlers (e.g. one per
+ * credential handed out by a BitbucketClientPool) so their combined load
+ * on a host stays bounded.
+ */
+public final class HostConcurrencyLimiter {
+
+    private final int maxConcurrentRequests;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    /**
+     * Create a HostConcurrencyLimiter.
+     *
+     * @param maxConcurrentRequests maximum number of requests in flight per host.
+     */
+    public HostConcurrencyLimiter(final int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be >= 1: " + maxConcurrentRequests);
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public int maxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * Make a call once the host of the passed endpoint has a permit available.
+     *
+     * @param <R> the type returned by the call.
+     * @param endPoint the Bitbucket endpoint the call is made against.
+     * @param call the call to make.
+     * @return the result of the call.
+     */
+    public <R> R call(final String endPoint, final Supplier<R> call) {
+        final Semaphore semaphore = permits.computeIfAbsent(host(endPoint),
+                host -> new Semaphore(maxConcurrentRequests, true));
+        semaphore.acquireUninterruptibly();
+        try {
+            return call.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Number of requests currently in flight to the host of the passed endpoint.
+     *
+     * @param endPoint the Bitbucket endpoint.
+     * @return number of requests in flight.
+     */
+    public int inFlight(final String endPoint) {
+        final Semaphore semaphore = permits.get(host(endPoint));
+        return semaphore != null ? maxConcurrentRequests - semaphore.availablePermits() : 0;
+    }
+
+    private static String host(final String endPoint) {
+        final String authority = URI.create(Objects.requireNonNull(endPoint, "endPoint cannot be null")).getAuthority();
+        return authority != null ? authority.toLowerCase(Locale.ROOT) : endPoint;
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.cdancy.bitbucket.rest.domain.common.RequestStatus;
+import com.cdancy.bitbucket.rest.domain.insights.Annotation;
+import com.cdancy.bitbucket.rest.features.InsightsApi;
+import com.cdancy.bitbucket.rest.options.CreateAnnotations;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uploads large numbers of Code Insights annotations by splitting them into
+ * chunks no bigger than Bitbucket accepts in a single request and sending
+ * up to `parallelism` chunks at the same time. Each chunk is serialized
+ * with a streaming JsonWriter (see BindAnnotationsToPayload) and its
+ * outcome is reported separately, so one rejected chunk does not hide the
+ * others having been stored.
+ *
+ * <p>Note that Bitbucket also limits the total number of annotations a
+ * single report can hold (1000 by default, see the
+ * `plugin.bitbucket-code-insights.annotations.max` server property).
+ * Chunks past that limit are reported as failed.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * try (InsightsUploader uploader = InsightsUploader.builder(client.api().insightsApi()).parallelism(8).build()) {
+ *     AnnotationUploadResult result = uploader.upload("PRJ", "repo", commitId, "sonar", annotations);
+ *     result.failedChunks().forEach(chunk -&gt; ...);
+ * }
+ * </pre>
+ */
+public final class InsightsUploader implements Closeable {
+
+    /**
+     * Maximum number of annotations Bitbucket accepts in a single request.
+     */
+    public static final int MAX_CHUNK_SIZE = 1000;
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private final InsightsApi api;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    private InsightsUploader(final Builder builder) {
+        this.api = builder.api;
+        this.chunkSize = builder.chunkSize;
+        this.parallelism = builder.parallelism;
+        if (builder.executor != null) {
+            this.executor = builder.executor;
+            this.ownedExecutor = null;
+        } else {
+            this.ownedExecutor = Executors.newFixedThreadPool(parallelism,
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("insights-uploader-%d").build());
+            this.executor = this.ownedExecutor;
+        }
+    }
+
+    public static Builder builder(final InsightsApi api) {
+        return new Builder(api);
+    }
+
+    /**
+     * Upload annotations to a report and wait for every chunk to complete.
+     *
+     * @param project the project key.
+     * @param repo the repository slug.
+     * @param commitId the commit the report belongs to.
+     * @param reportKey the key of the report.
+     * @param annotations the annotations to upload.
+     * @return outcome of every chunk.
+     */
+    public AnnotationUploadResult upload(final String project,
+            final String repo,
+            final String commitId,
+            final String reportKey,
+            final List<Annotation> annotations) {
+        return uploadAsync(project, repo, commitId, reportKey, annotations).join();
+    }
+
+    /**
+     * Upload annotations to a report.
+     *
+     * @param project the project key.
+     * @param repo the repository slug.
+     * @param commitId the commit the report belongs to.
+     * @param reportKey the key of the report.
+     * @param annotations the annotations to upload.
+     * @return CompletableFuture completing with the outcome of every chunk
+     *     once all of them have been sent.
+     */
+    public CompletableFuture<AnnotationUploadResult> uploadAsync(final String project,
+            final String repo,
+            final String commitId,
+            final String reportKey,
+            final List<Annotation> annotations) {
+        Objects.requireNonNull(project, "project cannot be null");
+        Objects.requireNonNull(repo, "repo cannot be null");
+        Objects.requireNonNull(commitId, "commitId cannot be null");
+        Objects.requireNonNull(reportKey, "reportKey cannot be null");
+        Objects.requireNonNull(annotations, "annotations cannot be null");
+
+        final List<List<Annotation>> chunks = Lists.partition(annotations, chunkSize);
+        final AnnotationChunkResult[] results = new AnnotationChunkResult[chunks.size()];
+        final AtomicInteger nextChunk = new AtomicInteger();
+
+        // a fixed number of workers pull chunks off a shared counter which
+        // bounds concurrency whatever Executor the requests are made on
+        final int workers = Math.min(parallelism, chunks.size());
+        final CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            final CompletableFuture<Void> worker = new CompletableFuture<>();
+            running[i] = worker;
+            final Runnable drain = () -> {
+                try {
+                    int index;
+                    while ((index = nextChunk.getAndIncrement()) < results.length) {
+                        results[index] = send(project, repo, commitId, reportKey, index, chunks.get(index));
+                    }
+                } finally {
+                    worker.complete(null);
+                }
+            };
+            try {
+                executor.execute(drain);
+            } catch (final RejectedExecutionException e) {
+                worker.complete(null);
+            }
+        }
+
+        return CompletableFuture.allOf(running).thenApply(ignore -> {
+            for (int index = 0; index < results.length; index++) {
+                if (results[index] == null) {
+                    // only possible when the executor rejected every worker
+                    results[index] = AnnotationChunkResult.create(index, index * chunkSize,
+                            chunks.get(index).size(), null, new RejectedExecutionException("chunk was never sent"));
+                }
+            }
+            return AnnotationUploadResult.create(commitId, reportKey, Arrays.asList(results));
+        });
+    }
+
+    /**
+     * Stop the owned Executor, if any. Uploads already started are left to
+     * complete.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private AnnotationChunkResult send(final String project,
+            final String repo,
+            final String commitId,
+            final String reportKey,
+            final int index,
+            final List<Annotation> chunk) {
+        RequestStatus requestStatus = null;
+        Throwable error = null;
+        try {
+            requestStatus = api.createAnnotations(project, repo, commitId, reportKey, CreateAnnotations.create(chunk));
+        } catch (final Throwable e) {
+            // an Error too is this chunk's result, not a chunk never sent
+            error = e;
+        }
+        return AnnotationChunkResult.create(index, index * chunkSize, chunk.size(), requestStatus, error);
+    }
+
+    public static final class Builder {
+
+        private final InsightsApi api;
+        private int chunkSize = MAX_CHUNK_SIZE;
+        private int parallelism = DEFAULT_PARALLELISM;
+        private Executor executor;
+
+        Builder(final InsightsApi api) {
+            this.api = Objects.requireNonNull(api, "api cannot be null");
+        }
+
+        /**
+         * Number of annotations sent per request. Defaults to, and may not
+         * exceed, {@link InsightsUploader#MAX_CHUNK_SIZE}.
+         *
+         * @param chunkSize number of annotations per request.
+         * @return this Builder.
+         */
+        public Builder chunkSize(final int chunkSize) {
+            if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+                throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE + ": " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Maximum number of chunks sent at the same time.
+         *
+         * @param parallelism maximum number of requests in flight.
+         * @return this Builder.
+         */
+        public Builder parallelism(final int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be >= 1: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Optional Executor the requests are made on. Defaults to a pool of
+         * `parallelism` threads owned, and shut down, by the uploader.
+         *
+         * @param executor Executor requests are made on.
+         * @return this Builder.
+         */
+        public Builder executor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public InsightsUploader build() {
+            return new InsightsUploader(this);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+
+/**
+ * Outcome of an {@link InventoryCrawler#crawl} run.
+ */
+@AutoValue
+public abstract class InventoryCrawlResult {
+
+    /**
+     * Number of projects whose every repository was handed to the sink.
+     *
+     * @return number of completed projects.
+     */
+    public abstract int projects();
+
+    /**
+     * Number of projects skipped as already completed by an earlier crawl.
+     *
+     * @return number of skipped projects.
+     */
+    public abstract int skippedProjects();
+
+    /**
+     * Number of repositories handed to the sink.
+     *
+     * @return number of crawled repositories.
+     */
+    public abstract int repositories();
+
+    /**
+     * Projects which could not be fully crawled, keyed by project key. They
+     * are not recorded as completed so the next crawl retries them.
+     *
+     * @return the first failure of every failed project.
+     */
+    public abstract Map<String, Throwable> failures();
+
+    InventoryCrawlResult() {
+    }
+
+    public boolean success() {
+        return failures().isEmpty();
+    }
+
+    public static InventoryCrawlResult create(final int projects,
+            final int skippedProjects,
+            final int repositories,
+            final Map<String, Throwable> failures) {
+
+        return new AutoValue_InventoryCrawlResult(projects, skippedProjects, repositories, ImmutableMap.copyOf(failures));
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.cdancy.bitbucket.rest.BitbucketApi;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.cdancy.bitbucket.rest.domain.branch.Branch;
+import com.cdancy.bitbucket.rest.domain.common.Error;
+import com.cdancy.bitbucket.rest.domain.project.Project;
+import com.cdancy.bitbucket.rest.domain.repository.Hook;
+import com.cdancy.bitbucket.rest.domain.repository.PullRequestSettings;
+import com.cdancy.bitbucket.rest.domain.repository.Repository;
+import com.cdancy.bitbucket.rest.exception.PaginationException;
+import com.cdancy.bitbucket.rest.pagination.Paginator;
+import com.google.common.collect.Lists;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Crawls every repository of every project of a Bitbucket instance, together
+ * with its default branch, pull request settings and hooks, and streams the
+ * resulting {@link RepositoryInventory} to a sink.
+ *
+ * <p>Projects are listed by the calling thread and each one is handed to a
+ * work-stealing pool which lists its repositories and fans out a task per
+ * repository, so a handful of very large projects do not leave the other
+ * workers idle. The number of requests in flight is capped per host by a
+ * {@link HostConcurrencyLimiter} which may be shared between crawlers.
+ *
+ * <p>Projects whose every repository reached the sink are recorded in a
+ * {@link CrawlProgress}; a later crawl given the same progress skips them,
+ * so an interrupted crawl resumes at project granularity. Repositories of a
+ * project which was only partially crawled are handed to the sink again.
+ *
+ * <p>The sink is called from several threads at the same time and must be
+ * thread safe.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * try (InventoryCrawler crawler = InventoryCrawler.builder(client)
+ *         .parallelism(16)
+ *         .progress(new FileCrawlProgress(Paths.get("crawl.progress")))
+ *         .build()) {
+ *     InventoryCrawlResult result = crawler.crawl(inventory -&gt; ...);
+ * }
+ * </pre>
+ */
+public final class InventoryCrawler implements Closeable {
+
+    public static final int DEFAULT_PARALLELISM = 8;
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final BitbucketApi api;
+    private final String endPoint;
+    private final int pageSize;
+    private final HostConcurrencyLimiter limiter;
+    private final CrawlProgress progress;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    private InventoryCrawler(final Builder builder) {
+        this.api = builder.api;
+        this.endPoint = builder.endPoint;
+        this.pageSize = builder.pageSize;
+        this.limiter = builder.limiter != null
+                ? builder.limiter
+                : new HostConcurrencyLimiter(builder.parallelism);
+        this.progress = builder.progress != null
+                ? builder.progress
+                : new InMemoryCrawlProgress();
+        if (builder.executor != null) {
+            this.executor = builder.executor;
+            this.ownedExecutor = null;
+        } else {
+            this.ownedExecutor = Executors.newWorkStealingPool(builder.parallelism);
+            this.executor = this.ownedExecutor;
+        }
+    }
+
+    public static Builder builder(final BitbucketClient client) {
+        return new Builder(client);
+    }
+
+    /**
+     * Crawl every project not yet completed according to the configured
+     * {@link CrawlProgress} and wait for the crawl to finish.
+     *
+     * @param sink receives the inventory of every crawled repository.
+     * @return outcome of the crawl.
+     * @throws PaginationException if the projects themselves could not be
+     *     listed. Projects found up to that point are crawled first.
+     */
+    public InventoryCrawlResult crawl(final Consumer<? super RepositoryInventory> sink) {
+        Objects.requireNonNull(sink, "sink cannot be null");
+
+        final Crawl crawl = new Crawl(sink);
+        RuntimeException listingFailure = null;
+        try {
+            for (final Project project : Paginator.of(start -> limited(() -> api.projectApi().list(null, null, start, pageSize)))) {
+                if (progress.isCompleted(project.key())) {
+                    crawl.skippedProjects.incrementAndGet();
+                } else {
+                    crawl.submitProject(project.key());
+                }
+            }
+        } catch (final RuntimeException e) {
+            listingFailure = e;
+        } finally {
+            crawl.release();
+        }
+        crawl.done.join();
+        if (listingFailure != null) {
+            throw listingFailure;
+        }
+        return InventoryCrawlResult.create(crawl.projects.get(),
+                crawl.skippedProjects.get(),
+                crawl.repositories.get(),
+                crawl.failures);
+    }
+
+    /**
+     * Stop the owned pool, if any.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private <R> R limited(final Supplier<R> call) {
+        return limiter.call(endPoint, call);
+    }
+
+    private RepositoryInventory inventory(final String project, final Repository repository) {
+        final List<Error> errors = new ArrayList<>();
+
+        Branch defaultBranch = limited(() -> api.branchApi().getDefault(project, repository.slug()));
+        if (!defaultBranch.errors().isEmpty()) {
+            errors.addAll(defaultBranch.errors());
+            defaultBranch = null;
+        }
+
+        PullRequestSettings pullRequestSettings = limited(() -> api.repositoryApi().getPullRequestSettings(project, repository.slug()));
+        if (!pullRequestSettings.errors().isEmpty()) {
+            errors.addAll(pullRequestSettings.errors());
+            pullRequestSettings = null;
+        }
+
+        List<Hook> hooks = null;
+        try {
+            hooks = Lists.newArrayList(Paginator.of(start -> limited(() -> api.hookApi().list(project, repository.slug(), start, pageSize))));
+        } catch (final PaginationException e) {
+            errors.addAll(e.errors());
+        }
+
+        return RepositoryInventory.create(repository, defaultBranch, pullRequestSettings, hooks, errors);
+    }
+
+    /**
+     * State of a single crawl. Every scheduled task holds a reference which
+     * it releases once finished; the crawl is done once the listing of
+     * projects, which holds the initial reference, and every task released.
+     */
+    private final class Crawl {
+
+        private final Consumer<? super RepositoryInventory> sink;
+        private final AtomicInteger references = new AtomicInteger(1);
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final AtomicInteger projects = new AtomicInteger();
+        private final AtomicInteger skippedProjects = new AtomicInteger();
+        private final AtomicInteger repositories = new AtomicInteger();
+        private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+        Crawl(final Consumer<? super RepositoryInventory> sink) {
+            this.sink = sink;
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                done.complete(null);
+            }
+        }
+
+        void submitProject(final String project) {
+            final ProjectCrawl projectCrawl = new ProjectCrawl(project);
+            submit(projectCrawl, () -> {
+                try {
+                    for (final Repository repository : Paginator.of(start -> limited(() -> api.repositoryApi().list(project, start, pageSize)))) {
+                        projectCrawl.retain();
+                        submit(projectCrawl, () -> {
+                            sink.accept(inventory(project, repository));
+                            repositories.incrementAndGet();
+                        });
+                    }
+                } catch (final RuntimeException e) {
+                    projectCrawl.fail(e);
+                }
+            });
+        }
+
+        /**
+         * Schedule a task of the passed project, which the task releases
+         * once finished whatever its outcome. Errors are recorded too, so
+         * that a project is never marked completed past a failed task.
+         */
+        private void submit(final ProjectCrawl projectCrawl, final Runnable task) {
+            references.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } catch (final Throwable e) {
+                        projectCrawl.fail(e);
+                    } finally {
+                        projectCrawl.release();
+                        release();
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                projectCrawl.fail(e);
+                projectCrawl.release();
+                release();
+            }
+        }
+
+        /**
+         * Tracks the outstanding tasks of a project, which is recorded as
+         * completed once its repositories were listed and all of them
+         * reached the sink.
+         */
+        private final class ProjectCrawl {
+
+            private final String project;
+            private final AtomicInteger references = new AtomicInteger(1);
+            private volatile Throwable failure;
+
+            ProjectCrawl(final String project) {
+                this.project = project;
+            }
+
+            void retain() {
+                references.incrementAndGet();
+            }
+
+            void fail(final Throwable error) {
+                if (failure == null) {
+                    failure = error;
+                }
+            }
+
+            void release() {
+                if (references.decrementAndGet() != 0) {
+                    return;
+                }
+                if (failure == null) {
+                    try {
+                        progress.markCompleted(project);
+                        projects.incrementAndGet();
+                        return;
+                    } catch (final RuntimeException e) {
+                        failure = e;
+                    }
+                }
+                failures.put(project, failure);
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private final BitbucketApi api;
+        private final String endPoint;
+        private int parallelism = DEFAULT_PARALLELISM;
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private HostConcurrencyLimiter limiter;
+        private CrawlProgress progress;
+        private Executor executor;
+
+        Builder(final BitbucketClient client) {
+            Objects.requireNonNull(client, "client cannot be null");
+            this.api = client.api();
+            this.endPoint = client.endPoint();
+        }
+
+        /**
+         * Number of worker threads of the owned work-stealing pool, and the
+         * default cap of requests in flight to the host.
+         *
+         * @param parallelism number of workers.
+         * @return this Builder.
+         */
+        public Builder parallelism(final int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be >= 1: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Number of values requested per page when listing projects,
+         * repositories and hooks.
+         *
+         * @param pageSize number of values per page.
+         * @return this Builder.
+         */
+        public Builder pageSize(final int pageSize) {
+            if (pageSize < 1) {
+                throw new IllegalArgumentException("pageSize must be >= 1: " + pageSize);
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Optional limiter capping requests per host. Defaults to one, owned
+         * by this crawler, allowing `parallelism` requests in flight.
+         *
+         * @param limiter the limiter, possibly shared with other crawlers.
+         * @return this Builder.
+         */
+        public Builder limiter(final HostConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+            return this;
+        }
+
+        /**
+         * Optional record of completed projects, allowing a crawl to resume
+         * where an earlier one stopped. Defaults to an
+         * {@link InMemoryCrawlProgress}.
+         *
+         * @param progress the record of completed projects.
+         * @return this Builder.
+         */
+        public Builder progress(final CrawlProgress progress) {
+            this.progress = progress;
+            return this;
+        }
+
+        /**
+         * Optional Executor the crawl runs on. Defaults to a work-stealing
+         * pool of `parallelism` workers owned, and shut down, by the crawler.
+         *
+         * @param executor Executor the crawl runs on.
+         * @return this Builder.
+         */
+        public Builder executor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public InventoryCrawler build() {
+            return new InventoryCrawler(this);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.cdancy.bitbucket.rest.BitbucketUtils;
+import com.cdancy.bitbucket.rest.exception.PaginationException;
+import com.cdancy.bitbucket.rest.pagination.Paginator;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
+import com.google.gson.JsonElement;
+import com.google.gson.Strictness;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the values of a paginated endpoint as JSON lines, one value per
+ * line, to a WritableByteChannel (e.g. a FileChannel).
+ *
+ * <p>Values are taken from endpoints returning `StreamingPage&lt;JsonElement&gt;`
+ * (e.g. `AdminApi.listUsersRaw`) and written exactly as Bitbucket sent them,
+ * without being mapped to, and re-serialized from, domain objects. Each
+ * value is written as soon as it is decoded so memory use is bounded by a
+ * single value whatever the number of values exported.
+ *
+ * <p>Output goes through a single buffer of `bufferSize` bytes, optionally
+ * gzip compressed, before reaching the channel. The channel is left open.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * try (FileChannel channel = FileChannel.open(Paths.get("users.jsonl.gz"), CREATE, WRITE, TRUNCATE_EXISTING)) {
+ *     long users = JsonLinesExporter.builder().gzip(true).build()
+ *             .export(start -&gt; api.adminApi().listUsersRaw(null, start, 1000), channel);
+ * }
+ * </pre>
+ */
+public final class JsonLinesExporter {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final TypeAdapter<JsonElement> ADAPTER = BitbucketUtils.GSON_PARSER.getAdapter(JsonElement.class);
+
+    private final boolean gzip;
+    private final int bufferSize;
+
+    private JsonLinesExporter(final Builder builder) {
+        this.gzip = builder.gzip;
+        this.bufferSize = builder.bufferSize;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Export every value of a paginated endpoint.
+     *
+     * @param fetcher function fetching the page found at the passed `start`.
+     * @param channel the channel to write to.
+     * @return number of values written.
+     * @throws IOException if writing to the channel failed.
+     * @throws PaginationException if a page could not be retrieved. Values
+     *     exported up to that point have been written.
+     */
+    public long export(final IntFunction<? extends StreamingPage<? extends JsonElement>> fetcher,
+            final WritableByteChannel channel) throws IOException {
+        Objects.requireNonNull(fetcher, "fetcher cannot be null");
+        Objects.requireNonNull(channel, "channel cannot be null");
+
+        long written = 0;
+        OutputStream out = new ChannelOutputStream(channel);
+        if (gzip) {
+            out = new GZIPOutputStream(out, bufferSize);
+        }
+        try (Writer writer = new OutputStreamWriter(new BufferedOutputStream(out, bufferSize), StandardCharsets.UTF_8)) {
+            final JsonWriter json = new JsonWriter(writer);
+
+            // values are top level documents separated by new lines
+            json.setStrictness(Strictness.LENIENT);
+
+            int start = 0;
+            boolean lastPage = false;
+            while (!lastPage) {
+                try (StreamingPage<? extends JsonElement> page = fetcher.apply(start)) {
+                    if (page == null) {
+                        throw new PaginationException("Null page returned at start=" + start, start, null);
+                    }
+                    while (page.hasNext()) {
+                        ADAPTER.write(json, page.next());
+                        writer.write('\n');
+                        written++;
+                    }
+                    if (!page.errors().isEmpty()) {
+                        throw new PaginationException("Failed to retrieve page at start=" + start + ": " + page.errors(),
+                                start, page.errors());
+                    }
+
+                    // guard against a non-advancing cursor as Paginator does
+                    lastPage = !Paginator.hasNextPage(page.isLastPage(), page.nextPageStart(), start);
+                    start = page.nextPageStart();
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Writes to a channel, without closing it, in whole buffers rather than
+     * byte by byte as FilterOutputStream would.
+     */
+    private static final class ChannelOutputStream extends OutputStream {
+
+        private final OutputStream channel;
+
+        ChannelOutputStream(final WritableByteChannel channel) {
+            this.channel = Channels.newOutputStream(channel);
+        }
+
+        @Override
+        public void write(final int value) throws IOException {
+            channel.write(value);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            channel.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.flush();
+        }
+    }
+
+    public static final class Builder {
+
+        private boolean gzip;
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+        Builder() {
+        }
+
+        /**
+         * Whether to gzip compress the output.
+         *
+         * @param gzip true to compress.
+         * @return this Builder.
+         */
+        public Builder gzip(final boolean gzip) {
+            this.gzip = gzip;
+            return this;
+        }
+
+        /**
+         * Size, in bytes, of the output buffer.
+         *
+         * @param bufferSize size of the output buffer.
+         * @return this Builder.
+         */
+        public Builder bufferSize(final int bufferSize) {
+            if (bufferSize < 1) {
+                throw new IllegalArgumentException("bufferSize must be >= 1: " + bufferSize);
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        public JsonLinesExporter build() {
+            return new JsonLinesExporter(this);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.cdancy.bitbucket.rest.BitbucketUtils;
+import com.cdancy.bitbucket.rest.domain.branch.Branch;
+import com.cdancy.bitbucket.rest.domain.common.Error;
+import com.cdancy.bitbucket.rest.domain.repository.Hook;
+import com.cdancy.bitbucket.rest.domain.repository.PullRequestSettings;
+import com.cdancy.bitbucket.rest.domain.repository.Repository;
+import com.google.auto.value.AutoValue;
+
+import java.util.List;
+
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Everything an {@link InventoryCrawler} gathered about a single repository.
+ * Parts which could not be retrieved are null, or empty, and the reason is
+ * found amongst `errors`.
+ */
+@AutoValue
+public abstract class RepositoryInventory {
+
+    public abstract Repository repository();
+
+    @Nullable
+    public abstract Branch defaultBranch();
+
+    @Nullable
+    public abstract PullRequestSettings pullRequestSettings();
+
+    public abstract List<Hook> hooks();
+
+    public abstract List<Error> errors();
+
+    RepositoryInventory() {
+    }
+
+    public static RepositoryInventory create(final Repository repository,
+            @Nullable final Branch defaultBranch,
+            @Nullable final PullRequestSettings pullRequestSettings,
+            @Nullable final List<Hook> hooks,
+            @Nullable final List<Error> errors) {
+
+        return new AutoValue_RepositoryInventory(repository, defaultBranch, pullRequestSettings,
+                BitbucketUtils.nullToEmpty(hooks), BitbucketUtils.nullToEmpty(errors));
+    }
+}
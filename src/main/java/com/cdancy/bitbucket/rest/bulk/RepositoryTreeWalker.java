@@ -0,0 +1,422 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.cdancy.bitbucket.rest.BitbucketApi;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.cdancy.bitbucket.rest.domain.branch.Branch;
+import com.cdancy.bitbucket.rest.domain.commit.Commit;
+import com.cdancy.bitbucket.rest.domain.common.Error;
+import com.cdancy.bitbucket.rest.domain.file.Child;
+import com.cdancy.bitbucket.rest.exception.PaginationException;
+import com.cdancy.bitbucket.rest.http.ImmutableCommitCache;
+import com.cdancy.bitbucket.rest.pagination.Paginator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.jclouds.javax.annotation.Nullable;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Lists the path of every file of a repository at a commit and streams them
+ * to a visitor.
+ *
+ * <p>`FileApi.listFiles` walks a directory recursively but page by page, so
+ * listing a large repository from its root is a long chain of serial
+ * requests. The walker instead browses the root of the repository, visits
+ * its files straight away and pages `listFiles` of every top-level directory
+ * concurrently. Submodules are not files of the repository and, as with
+ * `listFiles`, are never visited. At most `parallelism` requests are in
+ * flight per host, as capped by a {@link HostConcurrencyLimiter} which may
+ * be shared with other bulk helpers.
+ *
+ * <p>Branches and tags are first resolved to the commit they point to and
+ * every request is made at that commit, so the listing is consistent even
+ * if the branch moves during the walk. The paths of the last
+ * `cacheSize` fully listed commits are kept, up to `cacheMaxPaths` paths in
+ * total, least recently used first evicted, and walking one of them again
+ * replays its paths without any file listing request. Trees of more than
+ * `cacheMaxPaths` files are never kept. A commit can never change so
+ * entries never go stale.
+ *
+ * <p>The visitor is called from several threads at the same time and must
+ * be thread safe. Paths of a same top-level directory are visited in the
+ * order the server lists them; replayed paths are visited from the calling
+ * thread, grouped by top-level directory in the order the root lists them.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * try (RepositoryTreeWalker walker = RepositoryTreeWalker.builder(client)
+ *         .parallelism(16)
+ *         .build()) {
+ *     TreeWalkResult result = walker.walk("PRJ", "monorepo", "master", path -&gt; ...);
+ * }
+ * </pre>
+ */
+public final class RepositoryTreeWalker implements Closeable {
+
+    public static final int DEFAULT_PARALLELISM = 8;
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    public static final int DEFAULT_CACHE_SIZE = 16;
+    public static final int DEFAULT_CACHE_MAX_PATHS = 250_000;
+
+    private final BitbucketApi api;
+    private final String endPoint;
+    private final int pageSize;
+    private final int cacheSize;
+    private final int cacheMaxPaths;
+    private final HostConcurrencyLimiter limiter;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final LinkedHashMap<String, List<String>> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private int cachedPaths;
+
+    private RepositoryTreeWalker(final Builder builder) {
+        this.api = builder.api;
+        this.endPoint = builder.endPoint;
+        this.pageSize = builder.pageSize;
+        this.cacheSize = builder.cacheSize;
+        this.cacheMaxPaths = builder.cacheMaxPaths;
+        this.limiter = builder.limiter != null
+                ? builder.limiter
+                : new HostConcurrencyLimiter(builder.parallelism);
+        if (builder.executor != null) {
+            this.executor = builder.executor;
+            this.ownedExecutor = null;
+        } else {
+            this.ownedExecutor = Executors.newWorkStealingPool(builder.parallelism);
+            this.executor = this.ownedExecutor;
+        }
+    }
+
+    public static Builder builder(final BitbucketClient client) {
+        return new Builder(client);
+    }
+
+    /**
+     * Hand the path of every file of a repository at a given branch, tag
+     * or commit to the visitor and wait for the walk to finish.
+     *
+     * @param project the project key.
+     * @param repo the repository slug.
+     * @param at branch, tag or commit to walk, null for the default branch.
+     * @param visitor receives the path of every file, relative to the root
+     *     of the repository.
+     * @return outcome of the walk.
+     * @throws IllegalArgumentException if `at` could not be resolved to a
+     *     commit.
+     * @throws PaginationException if the root of the repository could not
+     *     be browsed. Directories found up to that point are walked first.
+     */
+    public TreeWalkResult walk(final String project,
+            final String repo,
+            @Nullable final String at,
+            final Consumer<? super String> visitor) {
+        Objects.requireNonNull(project, "project cannot be null");
+        Objects.requireNonNull(repo, "repo cannot be null");
+        Objects.requireNonNull(visitor, "visitor cannot be null");
+
+        final String commitId = resolve(project, repo, at);
+        final String key = project + '/' + repo + '@' + commitId.toLowerCase(Locale.ROOT);
+        final List<String> cachedPaths = cached(key);
+        if (cachedPaths != null) {
+            cachedPaths.forEach(visitor);
+            return TreeWalkResult.create(commitId, cachedPaths.size(), true, ImmutableMap.of());
+        }
+
+        final Walk walk = new Walk(project, repo, commitId, visitor);
+        RuntimeException listingFailure = null;
+        try {
+            for (final Child child : Paginator.of(start -> limited(() -> api.fileApi().listChildren(project, repo, null, commitId, start, pageSize).children()))) {
+                walk.submit(child);
+            }
+        } catch (final RuntimeException e) {
+            listingFailure = e;
+        }
+        CompletableFuture.allOf(walk.listings.toArray(new CompletableFuture<?>[0])).join();
+        if (listingFailure != null) {
+            throw listingFailure;
+        }
+        if (walk.failures.isEmpty() && walk.collecting()) {
+            store(key, walk.paths());
+        }
+        return TreeWalkResult.create(commitId, walk.files.get(), false, walk.failures);
+    }
+
+    /**
+     * Stop the owned pool, if any.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private <R> R limited(final Supplier<R> call) {
+        return limiter.call(endPoint, call);
+    }
+
+    private String resolve(final String project, final String repo, @Nullable final String at) {
+        if (at != null && ImmutableCommitCache.isCommitHash(at)) {
+            return at;
+        }
+        final String commitId;
+        final List<Error> errors;
+        if (at == null) {
+            final Branch branch = limited(() -> api.branchApi().getDefault(project, repo));
+            commitId = branch.latestCommit();
+            errors = branch.errors();
+        } else {
+            final Commit commit = limited(() -> api.commitsApi().get(project, repo, at, null));
+            commitId = commit.id();
+            errors = commit.errors();
+        }
+        if (commitId == null || !errors.isEmpty()) {
+            throw new IllegalArgumentException("Could not resolve " + (at != null ? at : "the default branch")
+                    + " of " + project + "/" + repo + " to a commit: " + errors);
+        }
+        return commitId;
+    }
+
+    @Nullable
+    private List<String> cached(final String key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    private void store(final String key, final List<String> paths) {
+        synchronized (cache) {
+            final List<String> previous = cache.put(key, paths);
+            if (previous != null) {
+                cachedPaths -= previous.size();
+            }
+            cachedPaths += paths.size();
+
+            final Iterator<List<String>> eldest = cache.values().iterator();
+            while (cache.size() > cacheSize || cachedPaths > cacheMaxPaths) {
+                cachedPaths -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * State of a single walk. Paths are only collected, per top-level
+     * entry, when the walker caches trees, and no longer once the walk
+     * visited more than `cacheMaxPaths` files.
+     */
+    private final class Walk {
+
+        private final String project;
+        private final String repo;
+        private final String commitId;
+        private final Consumer<? super String> visitor;
+        private final List<List<String>> subtrees = new ArrayList<>();
+        private final List<CompletableFuture<Void>> listings = new ArrayList<>();
+        private final AtomicInteger files = new AtomicInteger();
+        private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+        Walk(final String project, final String repo, final String commitId, final Consumer<? super String> visitor) {
+            this.project = project;
+            this.repo = repo;
+            this.commitId = commitId;
+            this.visitor = visitor;
+        }
+
+        void submit(final Child child) {
+
+            // listFiles leaves out nested submodules, so top-level ones are
+            // left out too for the manifest to only ever hold files.
+            if (child.isSubmodule()) {
+                return;
+            }
+            final String name = child.path()._toString();
+            final List<String> subtree = new ArrayList<>();
+            if (cacheSize > 0) {
+                subtrees.add(subtree);
+            }
+            if (!child.isDirectory()) {
+                visit(subtree, name);
+                return;
+            }
+            try {
+                listings.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        for (final String file : Paginator.of(start -> limited(() -> api.fileApi().listFiles(project, repo, name, commitId, start, pageSize)))) {
+                            visit(subtree, name + '/' + file);
+                        }
+                    } catch (final RuntimeException e) {
+                        failures.put(name, e);
+                    }
+                }, executor));
+            } catch (final RejectedExecutionException e) {
+                failures.put(name, e);
+            }
+        }
+
+        /**
+         * Whether every visited path was collected, safe to read once every
+         * listing completed.
+         */
+        boolean collecting() {
+            return cacheSize > 0 && files.get() <= cacheMaxPaths;
+        }
+
+        /**
+         * The collected paths, safe to read once every listing completed.
+         */
+        List<String> paths() {
+            final ImmutableList.Builder<String> paths = ImmutableList.builderWithExpectedSize(files.get());
+            for (final List<String> subtree : subtrees) {
+                paths.addAll(subtree);
+            }
+            return paths.build();
+        }
+
+        private void visit(final List<String> subtree, final String path) {
+            visitor.accept(path);
+            if (files.incrementAndGet() <= cacheMaxPaths && cacheSize > 0) {
+                subtree.add(path);
+            }
+        }
+    }
+
+    public static final class Builder {
+
+        private final BitbucketApi api;
+        private final String endPoint;
+        private int parallelism = DEFAULT_PARALLELISM;
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private int cacheSize = DEFAULT_CACHE_SIZE;
+        private int cacheMaxPaths = DEFAULT_CACHE_MAX_PATHS;
+        private HostConcurrencyLimiter limiter;
+        private Executor executor;
+
+        Builder(final BitbucketClient client) {
+            Objects.requireNonNull(client, "client cannot be null");
+            this.api = client.api();
+            this.endPoint = client.endPoint();
+        }
+
+        /**
+         * Number of worker threads of the owned work-stealing pool, and the
+         * default cap of requests in flight to the host.
+         *
+         * @param parallelism number of workers.
+         * @return this Builder.
+         */
+        public Builder parallelism(final int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be >= 1: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Number of values requested per page when browsing the root and
+         * listing files.
+         *
+         * @param pageSize number of values per page.
+         * @return this Builder.
+         */
+        public Builder pageSize(final int pageSize) {
+            if (pageSize < 1) {
+                throw new IllegalArgumentException("pageSize must be >= 1: " + pageSize);
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Number of fully listed commits whose paths are kept in memory.
+         * Zero disables the cache, and paths are then never collected.
+         *
+         * @param cacheSize number of cached commits.
+         * @return this Builder.
+         */
+        public Builder cacheSize(final int cacheSize) {
+            if (cacheSize < 0) {
+                throw new IllegalArgumentException("cacheSize must be >= 0: " + cacheSize);
+            }
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /**
+         * Number of paths kept in memory across all cached commits. Commits
+         * with more files than this are walked but never cached.
+         *
+         * @param cacheMaxPaths total number of cached paths.
+         * @return this Builder.
+         */
+        public Builder cacheMaxPaths(final int cacheMaxPaths) {
+            if (cacheMaxPaths < 0) {
+                throw new IllegalArgumentException("cacheMaxPaths must be >= 0: " + cacheMaxPaths);
+            }
+            this.cacheMaxPaths = cacheMaxPaths;
+            return this;
+        }
+
+        /**
+         * Optional limiter capping requests per host. Defaults to one, owned
+         * by this walker, allowing `parallelism` requests in flight.
+         *
+         * @param limiter the limiter, possibly shared with other walkers.
+         * @return this Builder.
+         */
+        public Builder limiter(final HostConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+            return this;
+        }
+
+        /**
+         * Optional Executor the listings run on. Defaults to a work-stealing
+         * pool of `parallelism` workers owned, and shut down, by the walker.
+         *
+         * @param executor Executor the listings run on.
+         * @return this Builder.
+         */
+        public Builder executor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public RepositoryTreeWalker build() {
+            return new RepositoryTreeWalker(this);
+        }
+    }
+}
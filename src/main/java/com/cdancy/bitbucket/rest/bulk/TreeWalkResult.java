@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.bulk;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+
+/**
+ * Outcome of a {@link RepositoryTreeWalker#walk} run.
+ */
+@AutoValue
+public abstract class TreeWalkResult {
+
+    /**
+     * The commit the walked tree belongs to.
+     *
+     * @return full commit hash.
+     */
+    public abstract String commitId();
+
+    /**
+     * Number of paths handed to the visitor.
+     *
+     * @return number of visited paths.
+     */
+    public abstract int files();
+
+    /**
+     * Whether the paths were replayed from the walker's cache rather than
+     * listed from the server.
+     *
+     * @return true if no file listing was requested.
+     */
+    public abstract boolean cached();
+
+    /**
+     * Top-level directories which could not be fully listed, keyed by
+     * directory. Paths of such directories may have been partially handed
+     * to the visitor and the tree is not cached.
+     *
+     * @return the failure of every failed directory.
+     */
+    public abstract Map<String, Throwable> failures();
+
+    TreeWalkResult() {
+    }
+
+    public boolean success() {
+        return failures().isEmpty();
+    }
+
+    public static TreeWalkResult create(final String commitId,
+            final int files,
+            final boolean cached,
+            final Map<String, Throwable> failures) {
+
+        return new AutoValue_TreeWalkResult(commitId, files, cached, ImmutableMap.copyOf(failures));
+    }
+}
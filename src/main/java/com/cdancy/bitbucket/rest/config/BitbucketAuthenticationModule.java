@@ -18,22 +18,45 @@
 package com.cdancy.bitbucket.rest.config;
 
 import com.cdancy.bitbucket.rest.BitbucketAuthentication;
+import com.cdancy.bitbucket.rest.auth.AuthenticationScope;
+import com.cdancy.bitbucket.rest.auth.RefreshableAuthentication;
+import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
 import java.util.Objects;
 
 /**
- * Configure the provider for BitbucketAuthentication.
+ * Configure the provider for BitbucketAuthentication along with the
+ * RefreshableAuthentication it is read from, and for the
+ * BitbucketAuthenticationFilter jclouds asks for whenever it builds a request.
  */
 public class BitbucketAuthenticationModule extends AbstractModule {
 
-    private final BitbucketAuthentication authentication;
+    private final RefreshableAuthentication authentication;
+    private final BitbucketAuthenticationFilter authenticationFilter;
 
     public BitbucketAuthenticationModule(final BitbucketAuthentication authentication) {
+        this(new RefreshableAuthentication(authentication, null));
+    }
+
+    public BitbucketAuthenticationModule(final RefreshableAuthentication authentication) {
         this.authentication = Objects.requireNonNull(authentication);
+        this.authenticationFilter = new BitbucketAuthenticationFilter(authentication);
     }
 
     @Override
     protected void configure() {
-        bind(BitbucketAuthentication.class).toProvider(new BitbucketAuthenticationProvider(authentication));
+        bind(RefreshableAuthentication.class).toInstance(authentication);
+    }
+
+    @Provides
+    BitbucketAuthentication provideAuthentication(final RefreshableAuthentication refreshable) {
+        return refreshable.get();
+    }
+
+    @Provides
+    BitbucketAuthenticationFilter provideAuthenticationFilter() {
+        final BitbucketAuthenticationFilter scoped = AuthenticationScope.current();
+        return scoped != null ? scoped : authenticationFilter;
     }
 }
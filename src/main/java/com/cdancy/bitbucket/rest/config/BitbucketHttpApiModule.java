@@ -17,19 +17,59 @@
 
 package com.cdancy.bitbucket.rest.config;
 
+import com.google.gson.TypeAdapterFactory;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.multibindings.OptionalBinder;
+
 import org.jclouds.http.HttpErrorHandler;
+import org.jclouds.http.HttpRetryHandler;
 import org.jclouds.http.annotation.ClientError;
 import org.jclouds.http.annotation.Redirection;
 import org.jclouds.http.annotation.ServerError;
 import org.jclouds.rest.ConfiguresHttpApi;
+import org.jclouds.rest.config.InvocationConfig;
 import org.jclouds.rest.config.HttpApiModule;
 
 import com.cdancy.bitbucket.rest.BitbucketApi;
 import com.cdancy.bitbucket.rest.handlers.BitbucketErrorHandler;
+import com.cdancy.bitbucket.rest.handlers.RateLimitRetryHandler;
+import com.cdancy.bitbucket.rest.http.ConditionalRequestCache;
+import com.cdancy.bitbucket.rest.http.HttpExchangeInterceptor;
+import com.cdancy.bitbucket.rest.http.ImmutableCommitCache;
+import com.cdancy.bitbucket.rest.http.Network;
+import com.cdancy.bitbucket.rest.http.TokenBucketRateLimiter;
+import com.cdancy.bitbucket.rest.parsers.InterningTypeAdapterFactory;
 
 @ConfiguresHttpApi
 public class BitbucketHttpApiModule extends HttpApiModule<BitbucketApi> {
 
+    @Override
+    protected void configure() {
+        super.configure();
+        OptionalBinder.newOptionalBinder(binder(), InvocationConfig.class).setDefault().to(CachingInvocationConfig.class);
+        bindHttpExchangeInterceptors(Multibinder.newSetBinder(binder(), HttpExchangeInterceptor.class));
+        Multibinder.newSetBinder(binder(), HttpExchangeInterceptor.class, Network.class);
+        Multibinder.newSetBinder(binder(), TypeAdapterFactory.class).addBinding().to(InterningTypeAdapterFactory.class);
+    }
+
+    /**
+     * Register the interceptors run by the BitbucketHttpCommandExecutorService
+     * around every exchange. These only take effect when that transport is in
+     * use, which BitbucketClient installs by default.
+     *
+     * @param interceptors the set of interceptors to add to.
+     */
+    protected void bindHttpExchangeInterceptors(final Multibinder<HttpExchangeInterceptor> interceptors) {
+        interceptors.addBinding().to(ImmutableCommitCache.class);
+        interceptors.addBinding().to(ConditionalRequestCache.class);
+        interceptors.addBinding().to(TokenBucketRateLimiter.class);
+    }
+
+    @Override
+    protected void bindRetryHandlers() {
+        bind(HttpRetryHandler.class).annotatedWith(ClientError.class).to(RateLimitRetryHandler.class);
+    }
+
     @Override
     protected void bindErrorHandlers() {
         bind(HttpErrorHandler.class).annotatedWith(Redirection.class).to(BitbucketErrorHandler.class);
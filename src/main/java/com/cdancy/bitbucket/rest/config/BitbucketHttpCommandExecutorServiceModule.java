@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.config;
+
+import com.cdancy.bitbucket.rest.http.BitbucketHttpCommandExecutorService;
+import com.cdancy.bitbucket.rest.http.HttpExchangeInterceptor;
+import com.google.inject.AbstractModule;
+import com.google.inject.Scopes;
+import com.google.inject.multibindings.Multibinder;
+
+import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
+import org.jclouds.http.config.SSLModule;
+
+/**
+ * Configure the {@link BitbucketHttpCommandExecutorService} as the transport
+ * used to talk to Bitbucket. This takes the place of the jclouds default
+ * `JavaUrlHttpCommandExecutorServiceModule` and is added by BitbucketClient
+ * unless another transport module has been passed in.
+ */
+@ConfiguresHttpCommandExecutorService
+public class BitbucketHttpCommandExecutorServiceModule extends AbstractModule {
+
+    @Override
+    protected void configure() {
+        install(new SSLModule());
+        Multibinder.newSetBinder(binder(), HttpExchangeInterceptor.class);
+        bind(HttpCommandExecutorService.class).to(BitbucketHttpCommandExecutorService.class).in(Scopes.SINGLETON);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj != null && obj.getClass() == getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.config;
+
+import com.cdancy.bitbucket.rest.http.HttpExchangeInterceptor;
+import com.cdancy.bitbucket.rest.http.Network;
+import com.cdancy.bitbucket.rest.metrics.BitbucketMetrics;
+import com.cdancy.bitbucket.rest.metrics.InMemoryBitbucketMetrics;
+import com.cdancy.bitbucket.rest.metrics.MeteredInvocationConfig;
+import com.cdancy.bitbucket.rest.metrics.MetricsInterceptor;
+import com.google.inject.AbstractModule;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.multibindings.OptionalBinder;
+
+import java.util.Objects;
+
+import org.jclouds.rest.config.InvocationConfig;
+
+/**
+ * Record per operation metrics (calls, errors by status, latency percentiles,
+ * bytes and fallbacks) for every call made through a client built with this
+ * module, e.g.
+ *
+ * <pre>
+ * InMemoryBitbucketMetrics metrics = new InMemoryBitbucketMetrics();
+ * BitbucketClient client = BitbucketClient.builder()
+ *         .modules(new BitbucketMetricsModule(metrics))
+ *         .build();
+ * </pre>
+ *
+ * <p>Exchanges are measured by a {@link Network} interceptor of the
+ * BitbucketHttpCommandExecutorService, so responses served by the response
+ * caches are not counted and a revalidated response counts as the `304` it
+ * was on the wire.
+ */
+public class BitbucketMetricsModule extends AbstractModule {
+
+    private final BitbucketMetrics metrics;
+
+    public BitbucketMetricsModule() {
+        this(new InMemoryBitbucketMetrics());
+    }
+
+    public BitbucketMetricsModule(final BitbucketMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    public BitbucketMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    protected void configure() {
+        bind(BitbucketMetrics.class).toInstance(metrics);
+        OptionalBinder.newOptionalBinder(binder(), InvocationConfig.class).setBinding().to(MeteredInvocationConfig.class);
+        Multibinder.newSetBinder(binder(), HttpExchangeInterceptor.class, Network.class).addBinding().to(MetricsInterceptor.class);
+    }
+}
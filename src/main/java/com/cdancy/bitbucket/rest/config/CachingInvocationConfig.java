@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.config;
+
+import com.google.common.base.Optional;
+import com.google.common.reflect.Invokable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.jclouds.Fallback;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.rest.InvocationContext;
+import org.jclouds.rest.config.InvocationConfig;
+import org.jclouds.rest.config.ReadAnnotationsAndProperties;
+
+/**
+ * jclouds' own InvocationConfig, with what it reads off each method's
+ * annotations and the `jclouds.timeouts.*` properties remembered per method
+ * rather than looked up again on every call. The command name in particular
+ * is asked for several times per request by the exchange interceptors.
+ *
+ * <p>Fallbacks are only remembered when they are stateless, i.e. do not
+ * implement InvocationContext, which holds for every BitbucketFallbacks one.
+ */
+@Singleton
+public class CachingInvocationConfig implements InvocationConfig {
+
+    private final ReadAnnotationsAndProperties delegate;
+    private final ConcurrentMap<Invokable<?, ?>, String> commandNames = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Invokable<?, ?>, Optional<Long>> timeouts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Invokable<?, ?>, Fallback<?>> fallbacks = new ConcurrentHashMap<>();
+
+    @Inject
+    CachingInvocationConfig(final ReadAnnotationsAndProperties delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<Long> getTimeoutNanos(final Invocation invocation) {
+        final Invokable<?, ?> invokable = invocation.getInvokable();
+        final Optional<Long> cached = timeouts.get(invokable);
+        if (cached != null) {
+            return cached;
+        }
+        final Optional<Long> timeout = delegate.getTimeoutNanos(invocation);
+        timeouts.putIfAbsent(invokable, timeout);
+        return timeout;
+    }
+
+    @Override
+    public String getCommandName(final Invocation invocation) {
+        final Invokable<?, ?> invokable = invocation.getInvokable();
+        final String cached = commandNames.get(invokable);
+        if (cached != null) {
+            return cached;
+        }
+        final String commandName = delegate.getCommandName(invocation);
+        commandNames.putIfAbsent(invokable, commandName);
+        return commandName;
+    }
+
+    @Override
+    public Fallback<?> getFallback(final Invocation invocation) {
+        final Invokable<?, ?> invokable = invocation.getInvokable();
+        final Fallback<?> cached = fallbacks.get(invokable);
+        if (cached != null) {
+            return cached;
+        }
+        final Fallback<?> fallback = delegate.getFallback(invocation);
+        if (!(fallback instanceof InvocationContext)) {
+            fallbacks.putIfAbsent(invokable, fallback);
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.domain.file;
+
+import com.cdancy.bitbucket.rest.domain.pullrequest.Path;
+import com.google.auto.value.AutoValue;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.json.SerializedNames;
+
+@AutoValue
+public abstract class Child {
+
+    public static final String DIRECTORY = "DIRECTORY";
+    public static final String SUBMODULE = "SUBMODULE";
+
+    @Nullable
+    public abstract Path path();
+
+    @Nullable
+    public abstract String contentId();
+
+    @Nullable
+    public abstract String type();
+
+    @Nullable
+    public abstract Long size();
+
+    Child() {
+    }
+
+    public boolean isDirectory() {
+        return DIRECTORY.equals(type());
+    }
+
+    public boolean isSubmodule() {
+        return SUBMODULE.equals(type());
+    }
+
+    @SerializedNames({ "path", "contentId", "type", "size" })
+    public static Child create(final Path path,
+            final String contentId,
+            final String type,
+            final Long size) {
+        return new AutoValue_Child(path, contentId, type, size);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.domain.file;
+
+import com.cdancy.bitbucket.rest.BitbucketUtils;
+import com.cdancy.bitbucket.rest.domain.common.Error;
+import com.cdancy.bitbucket.rest.domain.common.ErrorsHolder;
+import com.cdancy.bitbucket.rest.domain.pullrequest.Path;
+import com.google.auto.value.AutoValue;
+import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.json.SerializedNames;
+
+import java.util.List;
+
+@AutoValue
+public abstract class Directory implements ErrorsHolder {
+
+    @Nullable
+    public abstract Path path();
+
+    @Nullable
+    public abstract String revision();
+
+    /**
+     * The page of entries directly within this directory. When the
+     * directory could not be browsed it carries the same errors.
+     *
+     * @return page of entries.
+     */
+    public abstract ChildPage children();
+
+    Directory() {
+    }
+
+    @SerializedNames({ "path", "revision", "children", "errors" })
+    public static Directory create(@Nullable final Path path,
+            @Nullable final String revision,
+            @Nullable final ChildPage children,
+            @Nullable final List<Error> errors) {
+        final List<Error> checkedErrors = BitbucketUtils.nullToEmpty(errors);
+        return new AutoValue_Directory(checkedErrors,
+                path,
+                revision,
+                children != null ? children : ChildPage.create(-1, -1, -1, -1, true, null, checkedErrors));
+    }
+}
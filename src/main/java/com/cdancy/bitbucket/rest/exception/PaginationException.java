@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.exception;
+
+import com.cdancy.bitbucket.rest.BitbucketUtils;
+import com.cdancy.bitbucket.rest.domain.common.Error;
+
+import java.util.List;
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Thrown when a page could not be retrieved while walking a paginated endpoint.
+ */
+public class PaginationException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int start;
+    private final transient List<Error> errors;
+
+    public PaginationException(final String message, final int start, @Nullable final List<Error> errors) {
+        super(message);
+        this.start = start;
+        this.errors = BitbucketUtils.nullToEmpty(errors);
+    }
+
+    /**
+     * The offset of the page which failed.
+     *
+     * @return page offset.
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * The errors handed back for the failing page.
+     *
+     * @return List of Error's or empty list if none were found.
+     */
+    public List<Error> errors() {
+        return errors;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.exception;
+
+import com.cdancy.bitbucket.rest.domain.common.Error;
+
+import java.util.List;
+
+/**
+ * Carries the status code and the `errors` Bitbucket answered a failed
+ * request with, decoded once by the BitbucketErrorHandler. It is attached as
+ * the cause of the exception the handler raises (e.g. a
+ * ResourceNotFoundException) so fallbacks can hand the errors back without
+ * parsing the response body again. As it only ever travels as a cause it
+ * does not capture a stack trace.
+ */
+public class ResponseErrorsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final transient List<Error> errors;
+
+    public ResponseErrorsException(final int statusCode, final List<Error> errors) {
+        super("HTTP " + statusCode + " with " + errors.size() + " error(s)", null, false, false);
+        this.statusCode = statusCode;
+        this.errors = errors;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    public List<Error> errors() {
+        return errors;
+    }
+}
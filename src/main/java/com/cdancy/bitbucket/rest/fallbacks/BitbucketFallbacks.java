@@ -35,6 +35,7 @@ import com.cdancy.bitbucket.rest.domain.common.Error;
 import com.cdancy.bitbucket.rest.domain.common.RequestStatus;
 import com.cdancy.bitbucket.rest.domain.common.Veto;
 import com.cdancy.bitbucket.rest.domain.defaultreviewers.Condition;
+import com.cdancy.bitbucket.rest.domain.file.Directory;
 import com.cdancy.bitbucket.rest.domain.file.FilesPage;
 import com.cdancy.bitbucket.rest.domain.file.LastModified;
 import com.cdancy.bitbucket.rest.domain.file.LinePage;
@@ -73,13 +74,21 @@ import com.cdancy.bitbucket.rest.domain.sync.SyncState;
 import com.cdancy.bitbucket.rest.domain.sync.SyncStatus;
 import com.cdancy.bitbucket.rest.domain.tags.Tag;
 import com.cdancy.bitbucket.rest.domain.tags.TagPage;
+import com.cdancy.bitbucket.rest.exception.ResponseErrorsException;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
 import com.google.common.collect.Lists;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.jclouds.Fallback;
+import org.jclouds.javax.annotation.Nullable;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.Iterator;
 import java.util.List;
 
@@ -101,7 +110,7 @@ public final class BitbucketFallbacks {
                 if (obj != null) {
                     return Branch.create(null, null, null, null, null, false, null, null);
                 } else {
-                    return createBranchFromErrors(getErrors(throwable.getMessage()));
+                    return createBranchFromErrors(getErrors(throwable));
                 }
             }
             throw propagate(throwable);
@@ -112,7 +121,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createBranchModelFromErrors(getErrors(throwable.getMessage()));
+                return createBranchModelFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -122,7 +131,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createBranchModelConfigurationFromErrors(getErrors(throwable.getMessage()));
+                return createBranchModelConfigurationFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -132,7 +141,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createBranchPageFromErrors(getErrors(throwable.getMessage()));
+                return createBranchPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -142,7 +151,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createLikePageFromErrors(getErrors(throwable.getMessage()));
+                return createLikePageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -152,7 +161,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createUserPageFromErrors(getErrors(throwable.getMessage()));
+                return createUserPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -162,7 +171,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createUserFromErrors(getErrors(throwable.getMessage()));
+                return createUserFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -172,7 +181,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createConditionFromErrors(getErrors(throwable.getMessage()));
+                return createConditionFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -182,7 +191,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createStatusPageFromErrors(getErrors(throwable.getMessage()));
+                return createStatusPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -192,7 +201,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createBranchPermissionPageFromErrors(getErrors(throwable.getMessage()));
+                return createBranchPermissionPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -202,7 +211,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createChangePageFromErrors(getErrors(throwable.getMessage()));
+                return createChangePageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -212,7 +221,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createCommentsFromErrors(getErrors(throwable.getMessage()));
+                return createCommentsFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -222,7 +231,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createCommentPageFromErrors(getErrors(throwable.getMessage()));
+                return createCommentPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -232,7 +241,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createCommitPageFromErrors(getErrors(throwable.getMessage()));
+                return createCommitPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -242,7 +251,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createCommitFromErrors(getErrors(throwable.getMessage()));
+                return createCommitFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -252,7 +261,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createTagFromErrors(getErrors(throwable.getMessage()));
+                return createTagFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -262,7 +271,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createTaskFromErrors(getErrors(throwable.getMessage()));
+                return createTaskFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -272,7 +281,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createRepositoryFromErrors(getErrors(throwable.getMessage()));
+                return createRepositoryFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -282,7 +291,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createRepositoryPageFromErrors(getErrors(throwable.getMessage()));
+                return createRepositoryPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -292,7 +301,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createPermissionsPageFromErrors(getErrors(throwable.getMessage()));
+                return createPermissionsPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -302,7 +311,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createHookPageFromErrors(getErrors(throwable.getMessage()));
+                return createHookPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -312,7 +321,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createHookFromErrors(getErrors(throwable.getMessage()));
+                return createHookFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -322,7 +331,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createHookSettingsFromErrors(getErrors(throwable.getMessage()));
+                return createHookSettingsFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -332,7 +341,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createAnnotationsResponseFromErrors(getErrors(throwable.getMessage()));
+                return createAnnotationsResponseFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -342,7 +351,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createInsightReportFromErrors(getErrors(throwable.getMessage()));
+                return createInsightReportFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -352,7 +361,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createInsightReportPageFromErrors(getErrors(throwable.getMessage()));
+                return createInsightReportPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -362,7 +371,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createProjectFromErrors(getErrors(throwable.getMessage()));
+                return createProjectFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -372,7 +381,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createProjectPermissionsPageFromErrors(getErrors(throwable.getMessage()));
+                return createProjectPermissionsPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -382,7 +391,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createPullRequestSettingsFromErrors(getErrors(throwable.getMessage()));
+                return createPullRequestSettingsFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -392,7 +401,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createProjectPageFromErrors(getErrors(throwable.getMessage()));
+                return createProjectPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -402,7 +411,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createPullRequestFromErrors(getErrors(throwable.getMessage()));
+                return createPullRequestFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -415,7 +424,7 @@ public final class BitbucketFallbacks {
                 // if the repo sync is disabled a 204 is returned with 'null' as the content
                 final Boolean is204 = returnValueOnCodeOrNull(throwable, true, equalTo(204));
                 final boolean isAvailable = is204 != null;
-                final List<Error> errors = getErrors(throwable.getMessage());
+                final List<Error> errors = getErrors(throwable);
                 if (errors.size() > 0
                         && errors.get(0).context() != null
                         && errors.get(0).context().startsWith("Error parsing input: Cannot invoke \"org.jclouds.io.Payload.openStream()\" because the return value of \"org.jclouds.http.HttpResponse.getPayload()\" is null")) {
@@ -436,7 +445,7 @@ public final class BitbucketFallbacks {
                 if (is204 != null && is204.booleanValue()) {
                     return SyncState.create(null, null, "SYNCED", null, null);
                 } else {
-                    return createSyncStateFromErrors(getErrors(throwable.getMessage()));
+                    return createSyncStateFromErrors(getErrors(throwable));
                 }
             }
             throw propagate(throwable);
@@ -447,7 +456,17 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createActivitiesPageFromErrors(getErrors(throwable.getMessage()));
+                return createActivitiesPageFromErrors(getErrors(throwable));
+            }
+            throw propagate(throwable);
+        }
+    }
+
+    public static final class StreamingPageOnError implements Fallback<Object> {
+        @Override
+        public Object createOrPropagate(final Throwable throwable) throws Exception {
+            if (checkNotNull(throwable, "throwable") != null) {
+                return createStreamingPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -457,7 +476,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createParticipantsPageFromErrors(getErrors(throwable.getMessage()));
+                return createParticipantsPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -467,7 +486,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createParticipantsFromErrors(getErrors(throwable.getMessage()));
+                return createParticipantsFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -477,7 +496,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createPullRequestPageFromErrors(getErrors(throwable.getMessage()));
+                return createPullRequestPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -487,7 +506,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createTagPageFromErrors(getErrors(throwable.getMessage()));
+                return createTagPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -497,7 +516,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createMergeStatusFromErrors(getErrors(throwable.getMessage()));
+                return createMergeStatusFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -507,7 +526,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createLinePageFromErrors(getErrors(throwable.getMessage()));
+                return createLinePageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -516,7 +535,16 @@ public final class BitbucketFallbacks {
     public static final class FilesPageOnError implements Fallback<Object> {
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createFilesPageFromErrors(getErrors(throwable.getMessage()));
+                return createFilesPageFromErrors(getErrors(throwable));
+            }
+            throw propagate(throwable);
+        }
+    }
+
+    public static final class DirectoryOnError implements Fallback<Object> {
+        public Object createOrPropagate(final Throwable throwable) throws Exception {
+            if (checkNotNull(throwable, "throwable") != null) {
+                return createDirectoryFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -525,7 +553,7 @@ public final class BitbucketFallbacks {
     public static final class LastModifiedOnError implements Fallback<Object> {
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createLastModifiedFromErrors(getErrors(throwable.getMessage()));
+                return createLastModifiedFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -548,7 +576,7 @@ public final class BitbucketFallbacks {
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
                 try {
-                    return createRequestStatusFromErrors(getErrors(throwable.getMessage()));
+                    return createRequestStatusFromErrors(getErrors(throwable));
                 } catch (JsonSyntaxException e) {
                     final Error error = Error.create(null, throwable.getMessage(),
                             throwable.getClass().getName(), false, null);
@@ -564,7 +592,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createWebHookPageFromErrors(getErrors(throwable.getMessage()));
+                return createWebHookPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -574,7 +602,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createWebHookFromErrors(getErrors(throwable.getMessage()));
+                return createWebHookFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -584,7 +612,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createPostWebHookFromErrors(getErrors(throwable.getMessage()));
+                return createPostWebHookFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -594,7 +622,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createPostWebHookListFromErrors(getErrors(throwable.getMessage()));
+                return createPostWebHookListFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -605,7 +633,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createAccessKeyFromErrors(getErrors(throwable.getMessage()));
+                return createAccessKeyFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -615,7 +643,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createAccessKeyPageFromErrors(getErrors(throwable.getMessage()));
+                return createAccessKeyPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -625,7 +653,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createLabelsPageFromErrors(getErrors(throwable.getMessage()));
+                return createLabelsPageFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -635,7 +663,7 @@ public final class BitbucketFallbacks {
         @Override
         public Object createOrPropagate(final Throwable throwable) throws Exception {
             if (checkNotNull(throwable, "throwable") != null) {
-                return createLabelByNameFromErrors(getErrors(throwable.getMessage()));
+                return createLabelByNameFromErrors(getErrors(throwable));
             }
             throw propagate(throwable);
         }
@@ -657,6 +685,10 @@ public final class BitbucketFallbacks {
         return FilesPage.create(-1, -1, -1, -1, true, null, errors);
     }
 
+    public static Directory createDirectoryFromErrors(final List<Error> errors) {
+        return Directory.create(null, null, null, errors);
+    }
+
     public static LastModified createLastModifiedFromErrors(final List<Error> errors) {
         return LastModified.create(null, null, errors);
     }
@@ -800,6 +832,10 @@ public final class BitbucketFallbacks {
         return ActivitiesPage.create(-1, -1, -1, -1, true, null, errors);
     }
 
+    public static StreamingPage<Object> createStreamingPageFromErrors(final List<Error> errors) {
+        return StreamingPage.fromErrors(errors);
+    }
+
     public static ParticipantsPage createParticipantsPageFromErrors(final List<Error> errors) {
         return ParticipantsPage.create(-1, -1, -1, -1, true, null, errors);
     }
@@ -855,6 +891,150 @@ public final class BitbucketFallbacks {
         return Label.create("", errors);
     }
 
+    /**
+     * Get the list of Error's a failed call was answered with. Errors already
+     * decoded by the BitbucketErrorHandler are reused as is, otherwise they
+     * are parsed from the message of the passed Throwable.
+     *
+     * @param throwable the Throwable handed to a fallback.
+     * @return List of Error's
+     */
+    public static List<Error> getErrors(final Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof ResponseErrorsException) {
+                return ((ResponseErrorsException) current).errors();
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return getErrors(throwable.getMessage());
+    }
+
+    /**
+     * Decode the list of Error's from a Bitbucket error payload in a single,
+     * streaming, pass. Yields the same Error's as `getErrors(String)` for any
+     * payload it recognizes.
+     *
+     * @param output json containing errors hash
+     * @return List of Error's or null if output is not a Bitbucket error payload.
+     */
+    @Nullable
+    public static List<Error> readErrors(@Nullable final String output) {
+        if (output == null || !output.trim().startsWith("{")) {
+            return null;
+        }
+        try (final JsonReader reader = new JsonReader(new StringReader(output))) {
+            reader.setStrictness(Strictness.LENIENT);
+            final ErrorReader root = new ErrorReader();
+            root.read(reader, true);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                return null;
+            }
+
+            // in most cases Bitbucket will hand us back a list of `Error` objects
+            // but in other cases we will simply be handed back the singular
+            // `Error` object (i.e. not as a list).
+            if (root.errors != null) {
+                return root.errors;
+            } else if (root.hasContext) {
+                return Lists.newArrayList(root.toError());
+            } else {
+                return null;
+            }
+        } catch (final IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Streaming counterpart of `getErrorFromJsonObject`.
+     */
+    private static final class ErrorReader {
+
+        private String context;
+        private String message;
+        private String exceptionName;
+        private boolean conflicted;
+        private boolean hasContext;
+        private final List<Veto> vetoes = Lists.newArrayList();
+        private List<Error> errors;
+
+        void read(final JsonReader reader, final boolean root) throws IOException {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                if (root && "errors".equals(name)) {
+                    errors = Lists.newArrayList();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        final ErrorReader error = new ErrorReader();
+                        error.read(reader, false);
+                        errors.add(error.toError());
+                    }
+                    reader.endArray();
+                } else if (reader.peek() == JsonToken.NULL) {
+                    hasContext |= "context".equals(name);
+                    reader.nextNull();
+                } else {
+                    readField(reader, name);
+                }
+            }
+            reader.endObject();
+        }
+
+        private void readField(final JsonReader reader, final String name) throws IOException {
+            switch (name) {
+                case "context":
+                    hasContext = true;
+                    context = reader.nextString();
+                    break;
+                case "message":
+                    message = reader.nextString();
+                    break;
+                case "exceptionName":
+                    exceptionName = reader.nextString();
+                    break;
+                case "conflicted":
+                    conflicted = reader.nextBoolean();
+                    break;
+                case "vetoes":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        vetoes.add(readVeto(reader));
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        private static Veto readVeto(final JsonReader reader) throws IOException {
+            String summary = null;
+            String detailed = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                } else if ("summaryMessage".equals(name)) {
+                    summary = reader.nextString();
+                } else if ("detailedMessage".equals(name)) {
+                    detailed = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return Veto.create(summary, detailed);
+        }
+
+        Error toError() {
+            return Error.create(context, message, exceptionName, conflicted, vetoes);
+        }
+    }
+
     /**
      * Parse list of Error's from output.
      *
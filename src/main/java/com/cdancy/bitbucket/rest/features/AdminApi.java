@@ -23,7 +23,10 @@ import com.cdancy.bitbucket.rest.domain.common.RequestStatus;
 import com.cdancy.bitbucket.rest.domain.pullrequest.User;
 import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
 import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
 import com.cdancy.bitbucket.rest.parsers.RequestStatusParser;
+import com.cdancy.bitbucket.rest.parsers.StreamingPageParser;
+import com.google.gson.JsonElement;
 import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.rest.annotations.Fallback;
 import org.jclouds.rest.annotations.RequestFilters;
@@ -66,6 +69,17 @@ public interface AdminApi {
                        @Nullable @QueryParam("start") Integer start,
                        @Nullable @QueryParam("limit") Integer limit);
 
+    @Named("admin:list-users-raw")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45588158982432"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/users")
+    @Fallback(BitbucketFallbacks.StreamingPageOnError.class)
+    @ResponseParser(StreamingPageParser.class)
+    @GET
+    StreamingPage<JsonElement> listUsersRaw(@Nullable @QueryParam("filter") String filter,
+                       @Nullable @QueryParam("start") Integer start,
+                       @Nullable @QueryParam("limit") Integer limit);
+
     @Named("admin:create-user")
     @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm46358291368432"})
     @Consumes(MediaType.APPLICATION_JSON)
@@ -29,8 +29,11 @@ import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
 import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
 import com.cdancy.bitbucket.rest.options.CreateBranch;
 import com.cdancy.bitbucket.rest.options.CreateBranchModelConfiguration;
+import com.cdancy.bitbucket.rest.parsers.CachedJsonParser;
+import com.cdancy.bitbucket.rest.parsers.OkStatusParser;
 import com.cdancy.bitbucket.rest.parsers.RequestStatusParser;
 import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.Fallbacks;
 import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.Fallback;
 import org.jclouds.rest.annotations.Payload;
@@ -40,6 +43,7 @@ import org.jclouds.rest.binders.BindToJsonPayload;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HEAD;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
@@ -112,10 +116,21 @@ public interface BranchApi {
     @Consumes(MediaType.APPLICATION_JSON)
     @Path("/api/{jclouds.api-version}/projects/{project}/repos/{repo}/branches/default")
     @Fallback(BitbucketFallbacks.BranchOnError.class)
+    @ResponseParser(CachedJsonParser.class)
     @GET
     Branch getDefault(@PathParam("project") String project,
                       @PathParam("repo") String repo);
 
+    @Named("branch:default-exists")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45295356984528"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/api/{jclouds.api-version}/projects/{project}/repos/{repo}/branches/default")
+    @Fallback(Fallbacks.FalseOnNotFoundOr404.class)
+    @ResponseParser(OkStatusParser.class)
+    @HEAD
+    boolean defaultExists(@PathParam("project") String project,
+                          @PathParam("repo") String repo);
+
     @Named("branch:model")
     @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/4.10.0/bitbucket-branch-rest.html#idp27168"})
     @Consumes(MediaType.APPLICATION_JSON)
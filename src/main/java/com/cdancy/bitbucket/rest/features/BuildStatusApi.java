@@ -24,6 +24,7 @@ import com.cdancy.bitbucket.rest.domain.common.RequestStatus;
 import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
 import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
 import com.cdancy.bitbucket.rest.options.CreateBuildStatus;
+import com.cdancy.bitbucket.rest.parsers.CachedJsonParser;
 import com.cdancy.bitbucket.rest.parsers.RequestStatusParser;
 import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.rest.annotations.Fallback;
@@ -53,6 +54,7 @@ public interface BuildStatusApi {
     @Consumes(MediaType.APPLICATION_JSON)
     @Path("/commits/{commitId}")
     @Fallback(BitbucketFallbacks.StatusPageOnError.class)
+    @ResponseParser(CachedJsonParser.class)
     @GET
     StatusPage status(@PathParam("commitId") String commitId,
                       @Nullable @QueryParam("start") Integer start,
@@ -17,14 +17,19 @@
 
 package com.cdancy.bitbucket.rest.features;
 
+import com.cdancy.bitbucket.rest.annotations.CommitId;
 import com.cdancy.bitbucket.rest.annotations.Documentation;
 import com.cdancy.bitbucket.rest.domain.commit.Commit;
 import com.cdancy.bitbucket.rest.domain.commit.CommitPage;
 import com.cdancy.bitbucket.rest.domain.pullrequest.ChangePage;
 import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
 import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
+import com.cdancy.bitbucket.rest.parsers.CachedJsonParser;
+import com.cdancy.bitbucket.rest.parsers.StreamingPageParser;
 import org.jclouds.rest.annotations.Fallback;
 import org.jclouds.rest.annotations.RequestFilters;
+import org.jclouds.rest.annotations.ResponseParser;
 
 import jakarta.inject.Named;
 import jakarta.ws.rs.Consumes;
@@ -48,10 +53,11 @@ public interface CommitsApi {
     @Consumes(MediaType.APPLICATION_JSON)
     @Path("/{project}/repos/{repo}/commits/{commitId}")
     @Fallback(BitbucketFallbacks.CommitOnError.class)
+    @ResponseParser(CachedJsonParser.class)
     @GET
     Commit get(@PathParam("project") String project,
             @PathParam("repo") String repo,
-            @PathParam("commitId") String commitId,
+            @CommitId @PathParam("commitId") String commitId,
             @Nullable @QueryParam("path") String path);
 
     @Named("commits:list-changes")
@@ -59,10 +65,11 @@ public interface CommitsApi {
     @Consumes(MediaType.APPLICATION_JSON)
     @Path("/{project}/repos/{repo}/commits/{commitId}/changes")
     @Fallback(BitbucketFallbacks.ChangePageOnError.class)
+    @ResponseParser(CachedJsonParser.class)
     @GET
     ChangePage listChanges(@PathParam("project") String project,
                            @PathParam("repo") String repo,
-                           @PathParam("commitId") String commitId,
+                           @CommitId @PathParam("commitId") String commitId,
                            @Nullable @QueryParam("limit") Integer limit,
                            @Nullable @QueryParam("start") Integer start);
     
@@ -83,4 +90,23 @@ public interface CommitsApi {
                     @Nullable @QueryParam("until") String until,
                     @Nullable @QueryParam("limit") Integer limit,
                     @Nullable @QueryParam("start") Integer start);
+
+    @Named("commits:list-streaming")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm140236729804608"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/{project}/repos/{repo}/commits")
+    @Fallback(BitbucketFallbacks.StreamingPageOnError.class)
+    @ResponseParser(StreamingPageParser.class)
+    @GET
+    StreamingPage<Commit> listStreaming(@PathParam("project") String project,
+                    @PathParam("repo") String repo,
+                    @Nullable @QueryParam("withCounts") Boolean withCounts,
+                    @Nullable @QueryParam("followRenames") Boolean followRenames,
+                    @Nullable @QueryParam("ignoreMissing") Boolean ignoreMissing,
+                    @Nullable @QueryParam("merges") String merges,
+                    @Nullable @QueryParam("path") String path,
+                    @Nullable @QueryParam("since") String since,
+                    @Nullable @QueryParam("until") String until,
+                    @Nullable @QueryParam("limit") Integer limit,
+                    @Nullable @QueryParam("start") Integer start);
 }
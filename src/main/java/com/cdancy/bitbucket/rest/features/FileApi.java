@@ -17,8 +17,10 @@
 
 package com.cdancy.bitbucket.rest.features;
 
+import com.cdancy.bitbucket.rest.annotations.CommitId;
 import com.cdancy.bitbucket.rest.annotations.Documentation;
 import com.cdancy.bitbucket.rest.domain.commit.Commit;
+import com.cdancy.bitbucket.rest.domain.file.Directory;
 import com.cdancy.bitbucket.rest.domain.file.FilesPage;
 import com.cdancy.bitbucket.rest.domain.file.LastModified;
 import com.cdancy.bitbucket.rest.domain.file.LinePage;
@@ -26,6 +28,8 @@ import com.cdancy.bitbucket.rest.domain.file.RawContent;
 import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
 import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
 import com.cdancy.bitbucket.rest.filters.ScrubNullFromPathFilter;
+import com.cdancy.bitbucket.rest.parsers.CachedJsonParser;
+import com.cdancy.bitbucket.rest.parsers.PathParser;
 import com.cdancy.bitbucket.rest.parsers.RawContentParser;
 import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.rest.annotations.Fallback;
@@ -42,6 +46,7 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
+import java.io.InputStream;
 import org.jclouds.rest.annotations.ResponseParser;
 
 @RequestFilters(BitbucketAuthenticationFilter.class)
@@ -57,21 +62,57 @@ public interface FileApi {
     @ResponseParser(RawContentParser.class)
     @GET
     RawContent raw(@PathParam("project") String project,
+                @PathParam("repo") String repo,
+                @PathParam("filePath") String filePath,
+                @Nullable @CommitId @QueryParam("at") String branchOrTag);
+
+    /**
+     * Open the raw bytes of a file. The returned stream must be closed by
+     * the caller. Unlike `raw` the content is never buffered into a String,
+     * making this suitable for large and binary files. Errors are propagated
+     * as exceptions (e.g. ResourceNotFoundException).
+     */
+    @Named("file:raw-stream")
+    @Documentation({"https://jira.atlassian.com/browse/BSERV-4036"})
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.WILDCARD)
+    @Path("/projects/{project}/repos/{repo}/raw/{filePath}")
+    @GET
+    InputStream rawStream(@PathParam("project") String project,
                 @PathParam("repo") String repo,
                 @PathParam("filePath") String filePath,
                 @Nullable @QueryParam("at") String branchOrTag);
 
+    /**
+     * Download the raw bytes of a file into `target`, which is created or
+     * truncated, through NIO channels. Errors are propagated as exceptions
+     * (e.g. ResourceNotFoundException).
+     */
+    @Named("file:raw-to-path")
+    @Documentation({"https://jira.atlassian.com/browse/BSERV-4036"})
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.WILDCARD)
+    @Path("/projects/{project}/repos/{repo}/raw/{filePath}")
+    @ResponseParser(PathParser.class)
+    @GET
+    java.nio.file.Path rawToPath(@PathParam("project") String project,
+                @PathParam("repo") String repo,
+                @PathParam("filePath") String filePath,
+                @Nullable @QueryParam("at") String branchOrTag,
+                java.nio.file.Path target);
+
     @Named("file:list-lines")
     @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/5.1.0/bitbucket-rest.html#idm45588158357840"})
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
     @Path("/rest/api/{jclouds.api-version}/projects/{project}/repos/{repo}/browse/{filePath}")
     @Fallback(BitbucketFallbacks.LinePageOnError.class)
+    @ResponseParser(CachedJsonParser.class)
     @GET
     LinePage listLines(@PathParam("project") String project,
                            @PathParam("repo") String repo,
                            @PathParam("filePath") String filePath,
-                           @Nullable @QueryParam("at") String branchOrTag,
+                           @Nullable @CommitId @QueryParam("at") String branchOrTag,
                            @Nullable @QueryParam("type") Boolean type,
                            @Nullable @QueryParam("blame") Boolean blame,
                            @Nullable @QueryParam("noContent") Boolean noContent,
@@ -108,6 +149,26 @@ public interface FileApi {
                            @Nullable @QueryParam("start") Integer start,
                            @Nullable @QueryParam("limit") Integer limit);
 
+    /**
+     * List the entries directly within a directory, each typed as a FILE,
+     * DIRECTORY or SUBMODULE. Unlike `listFiles` the listing is not
+     * recursive. A null `path` lists the root of the repository.
+     */
+    @Named("file:list-children")
+    @RequestFilters(ScrubNullFromPathFilter.class)
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/5.1.0/bitbucket-rest.html#idm45588158357840"})
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/rest/api/{jclouds.api-version}/projects/{project}/repos/{repo}/browse/{path}")
+    @Fallback(BitbucketFallbacks.DirectoryOnError.class)
+    @GET
+    Directory listChildren(@PathParam("project") String project,
+                           @PathParam("repo") String repo,
+                           @Nullable @PathParam("path") String path,
+                           @Nullable @CommitId @QueryParam("at") String branchOrTag,
+                           @Nullable @QueryParam("start") Integer start,
+                           @Nullable @QueryParam("limit") Integer limit);
+
     @Named("file:last-modified")
     @RequestFilters(ScrubNullFromPathFilter.class)
     @Documentation({"https://docs.atlassian.com/bitbucket-server/rest/6.0.0/bitbucket-rest.html#idp233"})
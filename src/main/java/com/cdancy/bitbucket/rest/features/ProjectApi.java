@@ -23,6 +23,7 @@ import jakarta.inject.Named;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HEAD;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
@@ -33,6 +34,7 @@ import jakarta.ws.rs.core.MediaType;
 
 import com.cdancy.bitbucket.rest.domain.project.ProjectPermissionsPage;
 import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.Fallbacks;
 import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.Fallback;
 import org.jclouds.rest.annotations.RequestFilters;
@@ -43,7 +45,10 @@ import com.cdancy.bitbucket.rest.domain.project.ProjectPage;
 import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
 import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
 import com.cdancy.bitbucket.rest.options.CreateProject;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
 import com.cdancy.bitbucket.rest.parsers.RequestStatusParser;
+import com.cdancy.bitbucket.rest.parsers.StreamingPageParser;
+import com.google.gson.JsonElement;
 import org.jclouds.rest.annotations.ResponseParser;
 
 @Produces(MediaType.APPLICATION_JSON)
@@ -68,6 +73,14 @@ public interface ProjectApi {
     @GET
     Project get(@PathParam("project") String project);
 
+    @Named("project:exists")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45888277922400"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/api/{jclouds.api-version}/projects/{project}")
+    @Fallback(Fallbacks.FalseOnNotFoundOr404.class)
+    @HEAD
+    boolean exists(@PathParam("project") String project);
+
     @Named("project:delete")
     @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45888277932528"})
     @Consumes(MediaType.APPLICATION_JSON)
@@ -119,6 +132,17 @@ public interface ProjectApi {
                                                  @Nullable @QueryParam("start") Integer start,
                                                  @Nullable @QueryParam("limit") Integer limit);
 
+    @Named("project:list-permissions-by-user-raw")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/5.0.0/bitbucket-rest.html#idm45659054938032"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/api/{jclouds.api-version}/projects/{project}/permissions/users")
+    @Fallback(BitbucketFallbacks.StreamingPageOnError.class)
+    @ResponseParser(StreamingPageParser.class)
+    @GET
+    StreamingPage<JsonElement> listPermissionsByUserRaw(@PathParam("project") String project,
+                                                 @Nullable @QueryParam("start") Integer start,
+                                                 @Nullable @QueryParam("limit") Integer limit);
+
     @Named("project:create-permissions-by-group")
     @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/5.0.0/bitbucket-rest.html#idm45659054969200"})
     @Consumes(MediaType.APPLICATION_JSON)
@@ -149,4 +173,15 @@ public interface ProjectApi {
     ProjectPermissionsPage listPermissionsByGroup(@PathParam("project") String project,
                                                   @Nullable @QueryParam("start") Integer start,
                                                   @Nullable @QueryParam("limit") Integer limit);
+
+    @Named("project:list-permissions-by-group-raw")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/5.0.0/bitbucket-rest.html#idm45659054969200"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/api/{jclouds.api-version}/projects/{project}/permissions/groups")
+    @Fallback(BitbucketFallbacks.StreamingPageOnError.class)
+    @ResponseParser(StreamingPageParser.class)
+    @GET
+    StreamingPage<JsonElement> listPermissionsByGroupRaw(@PathParam("project") String project,
+                                                  @Nullable @QueryParam("start") Integer start,
+                                                  @Nullable @QueryParam("limit") Integer limit);
 }
@@ -31,6 +31,7 @@ import jakarta.ws.rs.core.MediaType;
 
 import com.cdancy.bitbucket.rest.domain.participants.Participants;
 import com.cdancy.bitbucket.rest.domain.participants.ParticipantsPage;
+import com.cdancy.bitbucket.rest.domain.activities.Activities;
 import com.cdancy.bitbucket.rest.domain.activities.ActivitiesPage;
 import com.cdancy.bitbucket.rest.domain.pullrequest.ChangePage;
 import com.cdancy.bitbucket.rest.domain.pullrequest.MergeStatus;
@@ -58,9 +59,13 @@ import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks.ParticipantsOnErro
 import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks.ParticipantsPageOnError;
 import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks.PullRequestOnError;
 import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks.PullRequestPageOnError;
+import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks.StreamingPageOnError;
 import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
 import com.cdancy.bitbucket.rest.options.CreatePullRequest;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
+import com.cdancy.bitbucket.rest.parsers.CachedJsonParser;
 import com.cdancy.bitbucket.rest.parsers.RequestStatusParser;
+import com.cdancy.bitbucket.rest.parsers.StreamingPageParser;
 import org.jclouds.rest.annotations.ResponseParser;
 
 @Produces(MediaType.APPLICATION_JSON)
@@ -74,6 +79,7 @@ public interface PullRequestApi {
     @Consumes(MediaType.APPLICATION_JSON)
     @Path("/{project}/repos/{repo}/pull-requests/{pullRequestId}")
     @Fallback(PullRequestOnError.class)
+    @ResponseParser(CachedJsonParser.class)
     @GET
     PullRequest get(@PathParam("project") String project,
                     @PathParam("repo") String repo,
@@ -96,6 +102,24 @@ public interface PullRequestApi {
                     @Nullable @QueryParam("start") Integer start,
                     @Nullable @QueryParam("limit") Integer limit);
 
+    @Named("pull-request:list-streaming")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45888278244864"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/{project}/repos/{repo}/pull-requests")
+    @Fallback(StreamingPageOnError.class)
+    @ResponseParser(StreamingPageParser.class)
+    @GET
+    StreamingPage<PullRequest> listStreaming(@PathParam("project") String project,
+                    @PathParam("repo") String repo,
+                    @Nullable @QueryParam("direction") String direction,
+                    @Nullable @QueryParam("at") String branchOrTag,
+                    @Nullable @QueryParam("state") String state,
+                    @Nullable @QueryParam("order") String order,
+                    @Nullable @QueryParam("withAttributes") Boolean withAttributes,
+                    @Nullable @QueryParam("withProperties") Boolean withProperties,
+                    @Nullable @QueryParam("start") Integer start,
+                    @Nullable @QueryParam("limit") Integer limit);
+
     @Named("pull-request:create")
     @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45888278226704"})
     @Consumes(MediaType.APPLICATION_JSON)
@@ -211,6 +235,19 @@ public interface PullRequestApi {
                               @Nullable @QueryParam("limit") Integer limit,
                               @Nullable @QueryParam("start") Integer start);
 
+    @Named("pull-request:list-activities-streaming")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45888278197104"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/{project}/repos/{repo}/pull-requests/{pullRequestId}/activities")
+    @Fallback(StreamingPageOnError.class)
+    @ResponseParser(StreamingPageParser.class)
+    @GET
+    StreamingPage<Activities> listActivitiesStreaming(@PathParam("project") String project,
+                              @PathParam("repo") String repo,
+                              @PathParam("pullRequestId") long pullRequestId,
+                              @Nullable @QueryParam("limit") Integer limit,
+                              @Nullable @QueryParam("start") Integer start);
+
     @Named("pull-request:list-participants")
     @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45627978405632"})
     @Consumes(MediaType.APPLICATION_JSON)
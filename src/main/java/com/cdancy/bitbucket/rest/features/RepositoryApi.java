@@ -28,10 +28,15 @@ import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
 import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
 import com.cdancy.bitbucket.rest.options.CreatePullRequestSettings;
 import com.cdancy.bitbucket.rest.options.CreateRepository;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
+import com.cdancy.bitbucket.rest.parsers.CachedJsonParser;
 import com.cdancy.bitbucket.rest.parsers.DeleteRepositoryParser;
 import com.cdancy.bitbucket.rest.parsers.RequestStatusParser;
-import com.google.inject.name.Named;
+import com.cdancy.bitbucket.rest.parsers.StreamingPageParser;
+import com.google.gson.JsonElement;
+import jakarta.inject.Named;
 import org.jclouds.javax.annotation.Nullable;
+import org.jclouds.Fallbacks;
 import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.Fallback;
 import org.jclouds.rest.annotations.Payload;
@@ -41,6 +46,7 @@ import org.jclouds.rest.binders.BindToJsonPayload;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HEAD;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
@@ -70,10 +76,20 @@ public interface RepositoryApi {
     @Consumes(MediaType.APPLICATION_JSON)
     @Path("/api/{jclouds.api-version}/projects/{project}/repos/{repo}")
     @Fallback(BitbucketFallbacks.RepositoryOnError.class)
+    @ResponseParser(CachedJsonParser.class)
     @GET
     Repository get(@PathParam("project") String project,
                    @PathParam("repo") String repo);
 
+    @Named("repository:exists")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45888277593152"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/api/{jclouds.api-version}/projects/{project}/repos/{repo}")
+    @Fallback(Fallbacks.FalseOnNotFoundOr404.class)
+    @HEAD
+    boolean exists(@PathParam("project") String project,
+                   @PathParam("repo") String repo);
+
     @Named("repository:fork")
     @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45888277587248"})
     @Consumes(MediaType.APPLICATION_JSON)
@@ -106,6 +122,17 @@ public interface RepositoryApi {
                         @Nullable @QueryParam("start") Integer start,
                         @Nullable @QueryParam("limit") Integer limit);
 
+    @Named("repository:list-streaming")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45888277593152"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/api/{jclouds.api-version}/projects/{project}/repos")
+    @Fallback(BitbucketFallbacks.StreamingPageOnError.class)
+    @ResponseParser(StreamingPageParser.class)
+    @GET
+    StreamingPage<Repository> listStreaming(@PathParam("project") String project,
+                        @Nullable @QueryParam("start") Integer start,
+                        @Nullable @QueryParam("limit") Integer limit);
+
     @Named("repository:list-all")
     @Documentation({"https://docs.atlassian.com/bitbucket-server/rest/5.0.0/bitbucket-rest.html#idm45659055274784"})
     @Consumes(MediaType.APPLICATION_JSON)
@@ -172,6 +199,18 @@ public interface RepositoryApi {
                                           @Nullable @QueryParam("start") Integer start,
                                           @Nullable @QueryParam("limit") Integer limit);
 
+    @Named("repository:list-permissions-by-user-raw")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/5.0.0/bitbucket-rest.html#idm45659054938032"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/api/{jclouds.api-version}/projects/{project}/repos/{repo}/permissions/users")
+    @Fallback(BitbucketFallbacks.StreamingPageOnError.class)
+    @ResponseParser(StreamingPageParser.class)
+    @GET
+    StreamingPage<JsonElement> listPermissionsByUserRaw(@PathParam("project") String project,
+                                          @PathParam("repo") String repo,
+                                          @Nullable @QueryParam("start") Integer start,
+                                          @Nullable @QueryParam("limit") Integer limit);
+
     @Named("repository:create-permissions-by-group")
     @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/5.0.0/bitbucket-rest.html#idm45659054969200"})
     @Consumes(MediaType.APPLICATION_JSON)
@@ -206,6 +245,18 @@ public interface RepositoryApi {
                                          @Nullable @QueryParam("start") Integer start,
                                          @Nullable @QueryParam("limit") Integer limit);
 
+    @Named("repository:list-permissions-by-group-raw")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/5.0.0/bitbucket-rest.html#idm45659054969200"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/api/{jclouds.api-version}/projects/{project}/repos/{repo}/permissions/groups")
+    @Fallback(BitbucketFallbacks.StreamingPageOnError.class)
+    @ResponseParser(StreamingPageParser.class)
+    @GET
+    StreamingPage<JsonElement> listPermissionsByGroupRaw(@PathParam("project") String project,
+                                         @PathParam("repo") String repo,
+                                         @Nullable @QueryParam("start") Integer start,
+                                         @Nullable @QueryParam("limit") Integer limit);
+
     @Named("repository:getLabels")
     @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idp273"})
     @Consumes(MediaType.APPLICATION_JSON)
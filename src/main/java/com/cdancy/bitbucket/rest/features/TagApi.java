@@ -25,6 +25,7 @@ import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
 import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
 import com.cdancy.bitbucket.rest.options.CreateTag;
 import com.cdancy.bitbucket.rest.parsers.RequestStatusParser;
+import org.jclouds.Fallbacks;
 import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.Fallback;
 import org.jclouds.rest.annotations.RequestFilters;
@@ -34,6 +35,7 @@ import jakarta.inject.Named;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HEAD;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
@@ -70,6 +72,16 @@ public interface TagApi {
             @PathParam("repo") String repo,
             @PathParam("tag") String tag);
 
+    @Named("tag:exists")
+    @Documentation({"https://developer.atlassian.com/static/rest/bitbucket-server/latest/bitbucket-rest.html#idm45888278800832"})
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Path("/api/{jclouds.api-version}/projects/{project}/repos/{repo}/tags/{tag}")
+    @Fallback(Fallbacks.FalseOnNotFoundOr404.class)
+    @HEAD
+    boolean exists(@PathParam("project") String project,
+                   @PathParam("repo") String repo,
+                   @PathParam("tag") String tag);
+
     @Named("tag:list")
     @Documentation({"https://docs.atlassian.com/bitbucket-server/rest/5.7.0/bitbucket-rest.html#idm45568367769888"})
     @Consumes(MediaType.APPLICATION_JSON)
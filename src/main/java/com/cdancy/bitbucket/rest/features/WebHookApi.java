@@ -25,7 +25,7 @@ import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
 import com.cdancy.bitbucket.rest.filters.BitbucketAuthenticationFilter;
 import com.cdancy.bitbucket.rest.options.CreateWebHook;
 import com.cdancy.bitbucket.rest.parsers.RequestStatusParser;
-import com.google.inject.name.Named;
+import jakarta.inject.Named;
 import org.jclouds.javax.annotation.Nullable;
 import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.Fallback;
@@ -17,32 +17,36 @@
 
 package com.cdancy.bitbucket.rest.filters;
 
-import jakarta.inject.Inject;
-import jakarta.inject.Singleton;
-
 import com.cdancy.bitbucket.rest.BitbucketAuthentication;
-import com.cdancy.bitbucket.rest.auth.AuthenticationType;
+
+import java.util.Objects;
+import java.util.function.Supplier;
 
 import org.jclouds.http.HttpException;
 import org.jclouds.http.HttpRequest;
 import org.jclouds.http.HttpRequestFilter;
 import com.google.common.net.HttpHeaders;
 
-@Singleton
+/**
+ * Adds the Authorization header for whatever credentials the given Supplier
+ * holds when the request is sent. One instance exists per set of credentials:
+ * BitbucketAuthenticationModule picks the one bound by an AuthenticationScope,
+ * if any, while jclouds builds the request on the calling thread, so the
+ * choice travels with the request to whichever thread applies the filters.
+ */
 public class BitbucketAuthenticationFilter implements HttpRequestFilter {
-    private final BitbucketAuthentication creds;
+    private final Supplier<BitbucketAuthentication> creds;
 
-    @Inject
-    BitbucketAuthenticationFilter(final BitbucketAuthentication creds) {
-        this.creds = creds;
+    public BitbucketAuthenticationFilter(final Supplier<BitbucketAuthentication> creds) {
+        this.creds = Objects.requireNonNull(creds, "creds cannot be null");
     }
 
     @Override
     public HttpRequest filter(final HttpRequest request) throws HttpException {
-        if (creds.authType() == AuthenticationType.Anonymous) {
+        final String authHeader = creds.get().authorizationHeader();
+        if (authHeader == null) {
             return request;
         } else {
-            final String authHeader = creds.authType() + " " + creds.authValue();
             return request.toBuilder().addHeader(HttpHeaders.AUTHORIZATION, authHeader).build();
         }
     }
@@ -23,23 +23,80 @@ import org.jclouds.http.HttpRequestFilter;
 
 import jakarta.inject.Singleton;
 
+/**
+ * Remove the `{param}` placeholders jclouds leaves in the path when an
+ * optional path parameter is null, collapse the repeated slashes this leaves
+ * behind and drop any trailing slash.
+ *
+ * <p>Done in a single pass without regular expressions. Requests whose path
+ * is already clean are handed back as is.
+ */
 @Singleton
 public class ScrubNullFromPathFilter implements HttpRequestFilter {
 
-    private static final String SCRUB_NULL_PARAM = "%7B.+?%7D";
-    private static final String FORWARD_SLASH = "/";
-    private static final String DOUBLE_FORWARD_SLASH = "\\" + FORWARD_SLASH + "\\" + FORWARD_SLASH;
-    private static final String EMPTY_STRING = "";
+    // an unexpanded path param (i.e. `{param}`) once url encoded
+    private static final String PARAM_START = "%7B";
+    private static final String PARAM_END = "%7D";
     private static final char FORWARD_SLASH_CHAR = '/';
 
     @Override
     public HttpRequest filter(final HttpRequest request) throws HttpException {
-        String requestPath = request.getEndpoint().getRawPath()
-                .replaceAll(SCRUB_NULL_PARAM, EMPTY_STRING)
-                .replaceAll(DOUBLE_FORWARD_SLASH, FORWARD_SLASH);
-        if (requestPath.charAt(requestPath.length() - 1) == FORWARD_SLASH_CHAR) {
-            requestPath = requestPath.substring(0, requestPath.length() - 1);
+        final String requestPath = request.getEndpoint().getRawPath();
+        final String scrubbedPath = scrub(requestPath);
+
+        // scrub hands back the very same instance when nothing changed
+        if (scrubbedPath == requestPath) {
+            return request;
+        }
+        return request.toBuilder().replacePath(scrubbedPath).build();
+    }
+
+    /**
+     * Scrub the passed raw path.
+     *
+     * @param path the raw, url encoded, path.
+     * @return the scrubbed path, or the passed instance itself if it was clean.
+     */
+    static String scrub(final String path) {
+        final int length = path.length();
+
+        // only allocated once the first change is found
+        StringBuilder scrubbed = null;
+        char previous = 0;
+        int index = 0;
+        while (index < length) {
+            final char current = path.charAt(index);
+            if (current == '%' && path.startsWith(PARAM_START, index)) {
+
+                // the param name holds at least one character
+                final int end = path.indexOf(PARAM_END, index + PARAM_START.length() + 1);
+                if (end != -1) {
+                    if (scrubbed == null) {
+                        scrubbed = new StringBuilder(length).append(path, 0, index);
+                    }
+                    index = end + PARAM_END.length();
+                    continue;
+                }
+            } else if (current == FORWARD_SLASH_CHAR && previous == FORWARD_SLASH_CHAR) {
+                if (scrubbed == null) {
+                    scrubbed = new StringBuilder(length).append(path, 0, index);
+                }
+                index++;
+                continue;
+            }
+            if (scrubbed != null) {
+                scrubbed.append(current);
+            }
+            previous = current;
+            index++;
+        }
+
+        if (previous == FORWARD_SLASH_CHAR) {
+            if (scrubbed == null) {
+                return path.substring(0, length - 1);
+            }
+            scrubbed.setLength(scrubbed.length() - 1);
         }
-        return request.toBuilder().replacePath(requestPath).build();
+        return scrubbed != null ? scrubbed.toString() : path;
     }
 }
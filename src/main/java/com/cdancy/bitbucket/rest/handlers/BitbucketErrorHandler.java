@@ -17,9 +17,13 @@
 
 package com.cdancy.bitbucket.rest.handlers;
 
+import com.cdancy.bitbucket.rest.domain.common.Error;
 import com.cdancy.bitbucket.rest.exception.ForbiddenException;
 import com.cdancy.bitbucket.rest.exception.MethodNotAllowedException;
+import com.cdancy.bitbucket.rest.exception.RateLimitExceededException;
+import com.cdancy.bitbucket.rest.exception.ResponseErrorsException;
 import com.cdancy.bitbucket.rest.exception.UnsupportedMediaTypeException;
+import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
 import com.google.common.base.Throwables;
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpErrorHandler;
@@ -31,11 +35,14 @@ import org.jclouds.rest.ResourceAlreadyExistsException;
 import org.jclouds.rest.ResourceNotFoundException;
 import org.jclouds.util.Strings2;
 import java.io.IOException;
+import java.util.List;
 
 import static org.jclouds.util.Closeables2.closeQuietly;
 
 /**
- * Handle errors and propagate exception.
+ * Handle errors and propagate exception. The `errors` of a Bitbucket error
+ * payload are decoded here, once, and travel as a ResponseErrorsException
+ * cause for the fallbacks to reuse.
  */
 public class BitbucketErrorHandler implements HttpErrorHandler {
     protected Logger logger = Logger.NULL;
@@ -46,27 +53,31 @@ public class BitbucketErrorHandler implements HttpErrorHandler {
         Exception exception = null;
         try {
             final String message = parseMessage(command, response);
-            switch (response.getStatusCode()) {
+            final int statusCode = response.getStatusCode();
+            switch (statusCode) {
                 case 400:
-                    exception = new IllegalArgumentException(message);
+                    exception = new IllegalArgumentException(message, decodeErrors(statusCode, message));
                     break;
                 case 401:
-                    exception = new AuthorizationException(message);
+                    exception = new AuthorizationException(message, decodeErrors(statusCode, message));
                     break;
                 case 403:
-                    exception = new ForbiddenException(message);
+                    exception = new ForbiddenException(message, decodeErrors(statusCode, message));
                     break;
                 case 404:
-                    exception = new ResourceNotFoundException(message);
+                    exception = new ResourceNotFoundException(message, decodeErrors(statusCode, message));
                     break;
                 case 405:
-                    exception = new MethodNotAllowedException(message);
+                    exception = new MethodNotAllowedException(message, decodeErrors(statusCode, message));
                     break;
                 case 409:
-                    exception = new ResourceAlreadyExistsException(message);
+                    exception = new ResourceAlreadyExistsException(message, decodeErrors(statusCode, message));
                     break;
                 case 415:
-                    exception = new UnsupportedMediaTypeException(message);
+                    exception = new UnsupportedMediaTypeException(message, decodeErrors(statusCode, message));
+                    break;
+                case 429:
+                    exception = new RateLimitExceededException(message, decodeErrors(statusCode, message));
                     break;
                 default:
                     exception = new HttpResponseException(command, response);
@@ -79,6 +90,13 @@ public class BitbucketErrorHandler implements HttpErrorHandler {
         }
     }
 
+    private static ResponseErrorsException decodeErrors(final int statusCode, final String message) {
+        final List<Error> errors = BitbucketFallbacks.readErrors(message);
+        return errors != null
+                ? new ResponseErrorsException(statusCode, errors)
+                : null;
+    }
+
     private String parseMessage(final HttpCommand command, final HttpResponse response) {
         if (response.getPayload() != null) {
             try {
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.handlers;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.Resource;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpRetryHandler;
+import org.jclouds.logging.Logger;
+
+import com.cdancy.bitbucket.rest.http.RateLimitHeaders;
+import com.google.inject.Inject;
+
+import static com.cdancy.bitbucket.rest.BitbucketConstants.RATE_LIMIT_BACKOFF_MAX;
+import static com.cdancy.bitbucket.rest.BitbucketConstants.RATE_LIMIT_BACKOFF_START;
+import static org.jclouds.util.Closeables2.closeQuietly;
+
+/**
+ * Retry requests rejected with HTTP 429 (Too Many Requests).
+ *
+ * <p>The wait honours `Retry-After` when the server sends it, with a little
+ * jitter on top so callers released at the same moment do not collide again.
+ * Otherwise it backs off exponentially from `jclouds.bitbucket.rate-limit.backoff-start`
+ * milliseconds with equal jitter, but never for less than it takes the server
+ * to hand out a token according to its `X-RateLimit-*` headers. Requests are
+ * retried up to `jclouds.max-retries` times; a `Retry-After` longer than
+ * `jclouds.bitbucket.rate-limit.backoff-max` milliseconds gives up straight
+ * away and leaves the 429 to BitbucketErrorHandler. Other client errors are
+ * never retried, as before.
+ */
+@Singleton
+public class RateLimitRetryHandler implements HttpRetryHandler {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    @Resource
+    protected Logger logger = Logger.NULL;
+
+    @Inject(optional = true)
+    @Named(Constants.PROPERTY_MAX_RETRIES)
+    private int maxRetries = 5;
+
+    private final long backoffStartMillis;
+    private final long backoffMaxMillis;
+
+    @Inject
+    RateLimitRetryHandler(@Named(RATE_LIMIT_BACKOFF_START) final long backoffStartMillis,
+                          @Named(RATE_LIMIT_BACKOFF_MAX) final long backoffMaxMillis) {
+        this.backoffStartMillis = Math.max(1, backoffStartMillis);
+        this.backoffMaxMillis = Math.max(this.backoffStartMillis, backoffMaxMillis);
+    }
+
+    @Override
+    public boolean shouldRetryRequest(final HttpCommand command, final HttpResponse response) {
+        if (response.getStatusCode() != TOO_MANY_REQUESTS) {
+            return false;
+        }
+
+        final int attempt = command.incrementFailureCount();
+        if (attempt > maxRetries) {
+            logger.debug("Giving up on %s after %d rate limited attempts", command, attempt);
+            return false;
+        }
+        if (!command.isReplayable()) {
+            logger.debug("Cannot retry rate limited %s, its payload is not replayable", command);
+            return false;
+        }
+
+        final long delay = delayMillis(attempt, response);
+        if (delay < 0) {
+            logger.debug("Server asked to retry %s later than %d ms, giving up", command, backoffMaxMillis);
+            return false;
+        }
+
+        closeQuietly(response.getPayload());
+        logger.debug("Rate limited on %s, retry %d of %d in %d ms", command, attempt, maxRetries, delay);
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * How long to wait before the given attempt.
+     *
+     * @param attempt 1 for the first retry.
+     * @param response the 429 response.
+     * @return milliseconds to wait, or -1 if the server wants us to wait
+     *     longer than we are willing to.
+     */
+    long delayMillis(final int attempt, final HttpResponse response) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long retryAfter = RateLimitHeaders.retryAfterMillis(response, System.currentTimeMillis());
+        if (retryAfter >= 0) {
+            return retryAfter > backoffMaxMillis
+                    ? -1
+                    : retryAfter + random.nextLong(backoffStartMillis / 2 + 1);
+        }
+
+        final long exponential = Math.min(backoffMaxMillis, backoffStartMillis << Math.min(attempt - 1, 30));
+        final long jittered = exponential / 2 + random.nextLong(exponential / 2 + 1);
+
+        final double serverRate = RateLimitHeaders.permitsPerSecond(response);
+        final long perToken = serverRate > 0
+                ? (long) Math.ceil(TimeUnit.SECONDS.toMillis(1) / serverRate)
+                : 0;
+        return Math.min(backoffMaxMillis, Math.max(jittered, perToken));
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.HttpHeaders;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import javax.net.ssl.SSLContext;
+
+import org.jclouds.Constants;
+import org.jclouds.Fallback;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.http.HttpUtils;
+import org.jclouds.http.handlers.DelegatingErrorHandler;
+import org.jclouds.io.ContentMetadataCodec;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.rest.InvocationContext;
+import org.jclouds.rest.config.InvocationConfig;
+import org.jclouds.rest.internal.RestAnnotationProcessor;
+import org.jclouds.rest.internal.TransformerForRequest;
+
+/**
+ * Invoke a feature API method without blocking on the exchange. The request
+ * is built by jclouds exactly as for a blocking call, `@Named` identifier,
+ * filters and binders included, then sent through a `java.net.http`
+ * HttpClient whose responses complete on the jclouds user executor, where
+ * they are parsed, or handed to the method's `@Fallback`, as InvokeHttpMethod
+ * would. No thread waits on the network while a request is in flight.
+ *
+ * <p>Such exchanges bypass the {@link BitbucketHttpCommandExecutorService}:
+ * neither its {@link HttpExchangeInterceptor}s nor the jclouds retry handlers
+ * run, and responses are read fully into memory before being parsed.
+ */
+@Singleton
+public class AsyncHttpInvoker {
+
+    // HttpClient computes or refuses these itself
+    private static final ImmutableSet<String> RESTRICTED_HEADERS = ImmutableSet.of(
+            "connection", "content-length", "date", "expect", "from", "host", "upgrade", "via", "warning");
+
+    private final RestAnnotationProcessor annotationProcessor;
+    private final TransformerForRequest transformerForRequest;
+    private final InvocationConfig config;
+    private final DelegatingErrorHandler errorHandler;
+    private final ContentMetadataCodec contentMetadataCodec;
+    private final String userAgent;
+    private final int soTimeout;
+    private final Supplier<HttpClient> client;
+
+    @Inject
+    AsyncHttpInvoker(final RestAnnotationProcessor annotationProcessor,
+            final TransformerForRequest transformerForRequest,
+            final InvocationConfig config,
+            final DelegatingErrorHandler errorHandler,
+            final ContentMetadataCodec contentMetadataCodec,
+            final Function<URI, Proxy> proxyForURI,
+            @Named("untrusted") final Supplier<SSLContext> untrustedSSLContext,
+            final HttpUtils utils,
+            @Named(Constants.PROPERTY_USER_AGENT) final String userAgent,
+            @Named(Constants.PROPERTY_USER_THREADS) final ListeningExecutorService userExecutor) {
+        this.annotationProcessor = annotationProcessor;
+        this.transformerForRequest = transformerForRequest;
+        this.config = config;
+        this.errorHandler = errorHandler;
+        this.contentMetadataCodec = contentMetadataCodec;
+        this.userAgent = userAgent;
+        this.soTimeout = utils.getSocketOpenTimeout();
+        final int connectionTimeout = utils.getConnectionTimeout();
+        final boolean trustAllCerts = utils.trustAllCerts();
+        // built on first use as it starts a selector thread
+        this.client = Suppliers.memoize(() -> {
+            final HttpClient.Builder builder = HttpClient.newBuilder()
+                    .executor(userExecutor)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .proxy(new JcloudsProxySelector(proxyForURI));
+            if (connectionTimeout > 0) {
+                builder.connectTimeout(Duration.ofMillis(connectionTimeout));
+            }
+            if (trustAllCerts) {
+                builder.sslContext(untrustedSSLContext.get());
+            }
+            return builder.build();
+        });
+    }
+
+    /**
+     * Build, filter and send the request for the given invocation. Building
+     * happens on the calling thread, so whatever it binds for the filters
+     * (e.g. an AuthenticationScope) applies.
+     *
+     * @param <R> the type returned by the invoked method.
+     * @param invocation a feature API method and its arguments.
+     * @return CompletableFuture holding what the blocking call would have
+     *     returned, or failed with what it would have thrown.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> CompletableFuture<R> invoke(final Invocation invocation) {
+        final HttpCommand command;
+        final Function<HttpResponse, ?> transformer;
+        final Fallback<?> fallback;
+        final java.net.http.HttpRequest request;
+        try {
+            command = new HttpCommand(annotationProcessor.apply(invocation));
+            transformer = transformerForRequest.apply(command.getCurrentRequest());
+            fallback = fallback(invocation, command.getCurrentRequest());
+            HttpRequest filtered = command.getCurrentRequest();
+            for (final HttpRequestFilter filter : filtered.getFilters()) {
+                filtered = filter.filter(filtered);
+            }
+            command.setCurrentRequest(filtered);
+            request = convert(filtered);
+        } catch (final RuntimeException e) {
+            final CompletableFuture<R> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        return client.get()
+                .sendAsync(request, java.net.http.HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, failure) -> {
+                    try {
+                        if (failure != null) {
+                            // as the blocking transport reports an exchange that never got a response
+                            final Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                                    ? failure.getCause()
+                                    : failure;
+                            throw new HttpResponseException(cause.getMessage() + " connecting to "
+                                    + command.getCurrentRequest().getRequestLine(), command, null, cause);
+                        }
+                        return (R) transformer.apply(handle(command, convert(response)));
+                    } catch (final Exception e) {
+                        try {
+                            return (R) fallback.createOrPropagate(e);
+                        } catch (final Exception propagated) {
+                            Throwables.throwIfUnchecked(propagated);
+                            throw new IllegalStateException(propagated);
+                        }
+                    }
+                });
+    }
+
+    private Fallback<?> fallback(final Invocation invocation, final HttpRequest request) {
+        final Fallback<?> fallback = config.getFallback(invocation);
+        if (fallback instanceof InvocationContext) {
+            ((InvocationContext<?>) fallback).setContext(request);
+        }
+        return fallback;
+    }
+
+    /**
+     * Hand error responses to the jclouds error handler, as the blocking
+     * transport does once retries are exhausted.
+     */
+    private HttpResponse handle(final HttpCommand command, final HttpResponse response) {
+        if (response.getStatusCode() >= 300) {
+            errorHandler.handleError(command, response);
+            final Exception exception = command.getException();
+            if (exception != null) {
+                Throwables.throwIfUnchecked(exception);
+                throw new IllegalStateException(exception);
+            }
+        }
+        return response;
+    }
+
+    private java.net.http.HttpRequest convert(final HttpRequest request) {
+        final java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest.newBuilder(request.getEndpoint());
+        if (soTimeout > 0) {
+            builder.timeout(Duration.ofMillis(soTimeout));
+        }
+        for (final Map.Entry<String, String> header : request.getHeaders().entries()) {
+            setHeader(builder, header.getKey(), header.getValue());
+        }
+        builder.setHeader(HttpHeaders.USER_AGENT, userAgent);
+
+        final Payload payload = request.getPayload();
+        if (payload == null) {
+            return builder.method(request.getMethod(), java.net.http.HttpRequest.BodyPublishers.noBody()).build();
+        }
+        for (final Map.Entry<String, String> header : contentMetadataCodec.toHeaders(payload.getContentMetadata()).entries()) {
+            setHeader(builder, header.getKey(), header.getValue());
+        }
+        try (InputStream in = payload.openStream()) {
+            return builder.method(request.getMethod(),
+                    java.net.http.HttpRequest.BodyPublishers.ofByteArray(ByteStreams.toByteArray(in))).build();
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not read payload of " + request.getRequestLine(), e);
+        }
+    }
+
+    private static void setHeader(final java.net.http.HttpRequest.Builder builder, final String name, final String value) {
+        if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ENGLISH))) {
+            builder.setHeader(name, value);
+        }
+    }
+
+    private HttpResponse convert(final java.net.http.HttpResponse<byte[]> response) {
+        final Multimap<String, String> headers = LinkedHashMultimap.create();
+        for (final Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            // HTTP/2 pseudo headers, e.g. :status
+            if (!header.getKey().startsWith(":")) {
+                headers.putAll(header.getKey(), header.getValue());
+            }
+        }
+        final HttpResponse.Builder<?> builder = HttpResponse.builder()
+                .statusCode(response.statusCode())
+                .headers(HttpUtils.filterOutContentHeaders(headers));
+        final byte[] body = response.body();
+        if (body != null && body.length > 0) {
+            final Payload payload = Payloads.newByteArrayPayload(body);
+            contentMetadataCodec.fromHeaders(payload.getContentMetadata(), headers);
+            builder.payload(payload);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Route requests the way the jclouds `proxyForURI` Function does for the
+     * blocking transport.
+     */
+    private static final class JcloudsProxySelector extends ProxySelector {
+
+        private final Function<URI, Proxy> proxyForURI;
+
+        JcloudsProxySelector(final Function<URI, Proxy> proxyForURI) {
+            this.proxyForURI = proxyForURI;
+        }
+
+        @Override
+        public List<Proxy> select(final URI uri) {
+            return Collections.singletonList(proxyForURI.apply(uri));
+        }
+
+        @Override
+        public void connectFailed(final URI uri, final SocketAddress address, final IOException e) {
+            // nothing to fall back to
+        }
+    }
+}
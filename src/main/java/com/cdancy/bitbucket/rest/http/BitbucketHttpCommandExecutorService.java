@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import org.jclouds.Constants;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpUtils;
+import org.jclouds.http.IOExceptionRetryHandler;
+import org.jclouds.http.handlers.DelegatingErrorHandler;
+import org.jclouds.http.handlers.DelegatingRetryHandler;
+import org.jclouds.http.internal.HttpWire;
+import org.jclouds.http.internal.JavaUrlHttpCommandExecutorService;
+import org.jclouds.io.ContentMetadataCodec;
+
+/**
+ * The default jclouds `HttpURLConnection` transport with a chain of
+ * {@link HttpExchangeInterceptor}s wrapped around each exchange. Interceptors
+ * qualified with {@link Network} run last, closest to the network. Retries,
+ * redirects and error handling still happen in jclouds, after the
+ * interceptors have had their say on the response.
+ */
+public class BitbucketHttpCommandExecutorService extends JavaUrlHttpCommandExecutorService {
+
+    private final List<HttpExchangeInterceptor> interceptors;
+
+    @Inject
+    BitbucketHttpCommandExecutorService(final HttpUtils utils,
+            final ContentMetadataCodec contentMetadataCodec,
+            final DelegatingRetryHandler retryHandler,
+            final IOExceptionRetryHandler ioRetryHandler,
+            final DelegatingErrorHandler errorHandler,
+            final HttpWire wire,
+            @Named("untrusted") final HostnameVerifier verifier,
+            @Named("untrusted") final Supplier<SSLContext> untrustedSSLContextProvider,
+            final Function<URI, Proxy> proxyForURI,
+            @Named(Constants.PROPERTY_IDEMPOTENT_METHODS) final String idempotentMethods,
+            @Named(Constants.PROPERTY_OUTPUT_SOCKET_BUFFER_SIZE) final int outputSocketBufferSize,
+            @Named(Constants.PROPERTY_USER_AGENT) final String userAgent,
+            final Set<HttpExchangeInterceptor> interceptors,
+            @Network final Set<HttpExchangeInterceptor> networkInterceptors) {
+        super(utils, contentMetadataCodec, retryHandler, ioRetryHandler, errorHandler, wire, verifier,
+                untrustedSSLContextProvider, proxyForURI, idempotentMethods, outputSocketBufferSize, userAgent);
+        this.interceptors = ImmutableList.<HttpExchangeInterceptor>builder()
+                .addAll(interceptors)
+                .addAll(networkInterceptors)
+                .build();
+    }
+
+    /**
+     * Defer opening the real connection until the interceptors have run by
+     * handing jclouds a placeholder which carries the request along and,
+     * once opened, the real connection so that `cleanup` can release it.
+     */
+    @Override
+    protected HttpURLConnection convert(final HttpRequest request) throws IOException, InterruptedException {
+        return new PendingExchange(request);
+    }
+
+    @Override
+    protected HttpResponse invoke(final HttpURLConnection connection) throws IOException, InterruptedException {
+        final PendingExchange exchange = (PendingExchange) connection;
+        return proceed(0, exchange, exchange.request);
+    }
+
+    private HttpResponse proceed(final int index, final PendingExchange exchange, final HttpRequest request)
+            throws IOException, InterruptedException {
+        if (index == interceptors.size()) {
+            return transmit(exchange, request);
+        }
+        return interceptors.get(index).intercept(request, next -> proceed(index + 1, exchange, next));
+    }
+
+    /**
+     * Send the request over a real connection. A connection whose exchange
+     * failed is disconnected straight away as interceptors may retry, and
+     * so open further connections, before jclouds gets to clean up.
+     */
+    private HttpResponse transmit(final PendingExchange exchange, final HttpRequest request)
+            throws IOException, InterruptedException {
+        final HttpURLConnection connection = super.convert(request);
+        exchange.connection = connection;
+        try {
+            return super.invoke(connection);
+        } catch (final IOException | InterruptedException | RuntimeException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * Stand-in for the connection jclouds would otherwise open before the
+     * interceptors ran. Disconnecting it disconnects the real connection
+     * most recently opened for the exchange, if any.
+     */
+    private static final class PendingExchange extends HttpURLConnection {
+
+        private final HttpRequest request;
+
+        // only ever touched by the thread running the exchange
+        private HttpURLConnection connection;
+
+        PendingExchange(final HttpRequest request) throws IOException {
+            super(request.getEndpoint().toURL());
+            this.request = request;
+        }
+
+        @Override
+        public void connect() throws IOException {
+            if (connection != null) {
+                connection.connect();
+            }
+        }
+
+        @Override
+        public void disconnect() {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return connection != null && connection.usingProxy();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import com.google.common.io.ByteSource;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.jclouds.io.ContentMetadata;
+import org.jclouds.io.payloads.BaseMutableContentMetadata;
+import org.jclouds.io.payloads.ByteSourcePayload;
+
+/**
+ * A response body replayed from memory rather than read off the wire. Each
+ * replay of the same cached response shares the values previously decoded
+ * from it, so parsers can skip decoding the body again.
+ */
+public class CachedPayload extends ByteSourcePayload {
+
+    private final ConcurrentMap<Type, Object> decoded;
+
+    CachedPayload(final byte[] body,
+            final ContentMetadata contentMetadata,
+            final ConcurrentMap<Type, Object> decoded) {
+        super(ByteSource.wrap(body));
+        this.decoded = decoded;
+        final BaseMutableContentMetadata metadata = BaseMutableContentMetadata.fromContentMetadata(contentMetadata);
+        metadata.setContentLength((long) body.length);
+        setContentMetadata(metadata);
+    }
+
+    /**
+     * Return the value previously decoded from this body as `type`, or
+     * decode and remember it.
+     *
+     * @param type the type the body is decoded into.
+     * @param decoder decodes this payload into `type`.
+     * @return the decoded value.
+     */
+    public Object decoded(final Type type, final Function<? super CachedPayload, ?> decoder) {
+        return decoded.computeIfAbsent(type, key -> decoder.apply(this));
+    }
+}
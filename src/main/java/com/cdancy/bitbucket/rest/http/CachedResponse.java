@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.HttpHeaders;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jclouds.http.HttpMessage;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.ContentMetadata;
+
+/**
+ * A successful response whose body has been read into memory so that it can
+ * be replayed any number of times.
+ */
+final class CachedResponse {
+
+    private final String etag;
+    private final String lastModified;
+    private final String message;
+    private final Multimap<String, String> headers;
+    private final ContentMetadata contentMetadata;
+    private final byte[] body;
+    private final ConcurrentMap<Type, Object> decoded = new ConcurrentHashMap<>();
+
+    private CachedResponse(final HttpResponse response, final byte[] body) {
+        this.etag = header(response, HttpHeaders.ETAG);
+        this.lastModified = header(response, HttpHeaders.LAST_MODIFIED);
+        this.message = response.getMessage();
+        this.headers = ImmutableMultimap.copyOf(response.getHeaders());
+        this.contentMetadata = response.getPayload().getContentMetadata();
+        this.body = body;
+    }
+
+    /**
+     * Read the body of `response` into memory, releasing the response.
+     *
+     * @param response the response to read.
+     * @return CachedResponse holding the response.
+     * @throws IOException if the body could not be read.
+     */
+    static CachedResponse from(final HttpResponse response) throws IOException {
+        try (InputStream in = response.getPayload().openStream()) {
+            return new CachedResponse(response, ByteStreams.toByteArray(in));
+        } finally {
+            release(response);
+        }
+    }
+
+    /**
+     * Size of the body held in memory.
+     *
+     * @return number of bytes.
+     */
+    int weight() {
+        return body.length;
+    }
+
+    /**
+     * Turn `request` into a conditional request against this response.
+     *
+     * @param request the request to revalidate this response with.
+     * @return the request carrying `If-None-Match` and/or `If-Modified-Since`.
+     */
+    HttpRequest revalidate(final HttpRequest request) {
+        final HttpRequest.Builder<?> builder = request.toBuilder();
+        if (etag != null) {
+            builder.replaceHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        if (lastModified != null) {
+            builder.replaceHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Build a fresh `200` response out of this one.
+     *
+     * @return the replayed response.
+     */
+    HttpResponse replay() {
+        return HttpResponse.builder()
+                .statusCode(200)
+                .message(message)
+                .headers(headers)
+                .payload(new CachedPayload(body, contentMetadata, decoded))
+                .build();
+    }
+
+    /**
+     * Key a request by everything that can change the response of a `GET`,
+     * including who is asking.
+     *
+     * @param request the request to key.
+     * @return the key.
+     */
+    static String key(final HttpRequest request) {
+        return request.getEndpoint()
+                + "\n" + header(request, HttpHeaders.ACCEPT)
+                + "\n" + header(request, HttpHeaders.AUTHORIZATION);
+    }
+
+    static String header(final HttpMessage message, final String name) {
+        for (final Map.Entry<String, String> entry : message.getHeaders().entries()) {
+            if (name.equalsIgnoreCase(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    static void release(final HttpResponse response) {
+        if (response.getPayload() != null) {
+            response.getPayload().release();
+        }
+    }
+}
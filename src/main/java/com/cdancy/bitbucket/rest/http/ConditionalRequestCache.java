@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import com.cdancy.bitbucket.rest.BitbucketConstants;
+import com.cdancy.bitbucket.rest.parsers.PathParser;
+import com.cdancy.bitbucket.rest.parsers.StreamingPageParser;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.net.HttpHeaders;
+import com.google.common.reflect.Invokable;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.Payload;
+import org.jclouds.rest.annotations.ResponseParser;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+import static com.cdancy.bitbucket.rest.http.CachedResponse.header;
+import static com.cdancy.bitbucket.rest.http.CachedResponse.key;
+import static com.cdancy.bitbucket.rest.http.CachedResponse.release;
+
+/**
+ * Remember `GET` responses carrying an `ETag` and/or `Last-Modified` header
+ * and revalidate them with `If-None-Match`/`If-Modified-Since` on the next
+ * request to the same URL. A `304 Not Modified` is answered with the
+ * remembered response, whose {@link CachedPayload} also keeps the domain
+ * objects already parsed from it.
+ *
+ * <p>Disabled unless {@link BitbucketConstants#CONDITIONAL_CACHE_MAX_ENTRIES}
+ * is set to a positive number. Only JSON responses are kept and entries are
+ * keyed by URL, `Accept` and `Authorization` so that users never share them.
+ * Endpoints parsing their response as a stream, with {@link StreamingPageParser}
+ * or {@link PathParser}, are never cached as that would buffer them.
+ *
+ * <p>Entries are evicted least recently used first once either
+ * CONDITIONAL_CACHE_MAX_ENTRIES or
+ * {@link BitbucketConstants#CONDITIONAL_CACHE_MAX_BYTES} is exceeded.
+ * Responses larger than the byte bound are never kept.
+ */
+@Singleton
+public class ConditionalRequestCache implements HttpExchangeInterceptor {
+
+    private static final String GET_METHOD = "GET";
+    private static final String JSON_MEDIA_TYPE = "application/json";
+    private static final Set<Class<?>> STREAMING_PARSERS = ImmutableSet.<Class<?>>of(StreamingPageParser.class, PathParser.class);
+
+    private final long maxEntries;
+    private final long maxBytes;
+    private final ConcurrentMap<Invokable<?, ?>, Boolean> streaming = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    @Inject
+    ConditionalRequestCache(@Named(BitbucketConstants.CONDITIONAL_CACHE_MAX_ENTRIES) final long maxEntries,
+            @Named(BitbucketConstants.CONDITIONAL_CACHE_MAX_BYTES) final long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public HttpResponse intercept(final HttpRequest request, final Chain chain) throws IOException, InterruptedException {
+        if (maxEntries <= 0 || !GET_METHOD.equals(request.getMethod()) || isStreaming(request)) {
+            return chain.proceed(request);
+        }
+
+        final String key = key(request);
+        final CachedResponse cached = get(key);
+        final HttpResponse response = chain.proceed(cached != null ? cached.revalidate(request) : request);
+
+        if (cached != null && response.getStatusCode() == 304) {
+            release(response);
+            return cached.replay();
+        }
+
+        if (response.getStatusCode() != 200 || !isCacheable(response)) {
+            if (cached != null) {
+                invalidate(key);
+            }
+            return response;
+        }
+
+        final CachedResponse fresh = CachedResponse.from(response);
+        put(key, fresh);
+        return fresh.replay();
+    }
+
+    /**
+     * Number of responses currently held.
+     *
+     * @return number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Number of body bytes currently held.
+     *
+     * @return total weight of all entries.
+     */
+    public synchronized long weight() {
+        return bytes;
+    }
+
+    /**
+     * Drop every remembered response.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    private synchronized CachedResponse get(final String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void invalidate(final String key) {
+        final CachedResponse previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.weight();
+        }
+    }
+
+    private synchronized void put(final String key, final CachedResponse response) {
+        if (response.weight() > maxBytes) {
+            invalidate(key);
+            return;
+        }
+        final CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            bytes -= previous.weight();
+        }
+        bytes += response.weight();
+
+        final Iterator<CachedResponse> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            bytes -= eldest.next().weight();
+            eldest.remove();
+        }
+    }
+
+    private boolean isStreaming(final HttpRequest request) {
+        if (!(request instanceof GeneratedHttpRequest)) {
+            return false;
+        }
+        return streaming.computeIfAbsent(((GeneratedHttpRequest) request).getInvocation().getInvokable(), invokable -> {
+            final ResponseParser parser = invokable.getAnnotation(ResponseParser.class);
+            return parser != null && STREAMING_PARSERS.contains(parser.value());
+        });
+    }
+
+    private boolean isCacheable(final HttpResponse response) {
+        if (header(response, HttpHeaders.ETAG) == null && header(response, HttpHeaders.LAST_MODIFIED) == null) {
+            return false;
+        }
+        final Payload payload = response.getPayload();
+        if (payload == null) {
+            return false;
+        }
+        final Long contentLength = payload.getContentMetadata().getContentLength();
+        if (contentLength != null && contentLength > maxBytes) {
+            return false;
+        }
+        final String contentType = payload.getContentMetadata().getContentType();
+        return contentType != null && contentType.startsWith(JSON_MEDIA_TYPE);
+    }
+}
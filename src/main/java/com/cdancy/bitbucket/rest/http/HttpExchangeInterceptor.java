@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import java.io.IOException;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+
+/**
+ * Hook into every request/response exchange made by the
+ * {@link BitbucketHttpCommandExecutorService}. Interceptors see the request
+ * after all `HttpRequestFilter`s have run, and the raw response before any
+ * retry or error handling takes place. They may rewrite the request, replace
+ * the response or skip the network entirely by not calling `proceed`.
+ *
+ * <p>Interceptors are registered through a Guice `Multibinder` and run in
+ * binding order, followed by those registered with the {@link Network}
+ * qualifier, which only see exchanges that reach the network.
+ */
+public interface HttpExchangeInterceptor {
+
+    /**
+     * Intercept a single exchange.
+     *
+     * @param request the filtered request about to be sent.
+     * @param chain the remainder of the interceptor chain.
+     * @return the response to hand back to jclouds.
+     * @throws IOException if the exchange failed.
+     * @throws InterruptedException if interrupted while waiting on the exchange.
+     */
+    HttpResponse intercept(HttpRequest request, Chain chain) throws IOException, InterruptedException;
+
+    /**
+     * The remainder of an interceptor chain, ending in the actual HTTP call.
+     */
+    interface Chain {
+
+        /**
+         * Pass the request on to the next interceptor, or the network.
+         *
+         * @param request the request to send.
+         * @return the response received.
+         * @throws IOException if the exchange failed.
+         * @throws InterruptedException if interrupted while waiting on the exchange.
+         */
+        HttpResponse proceed(HttpRequest request) throws IOException, InterruptedException;
+    }
+}
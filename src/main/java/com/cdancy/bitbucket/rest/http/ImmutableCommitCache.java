@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import com.cdancy.bitbucket.rest.BitbucketConstants;
+import com.cdancy.bitbucket.rest.annotations.CommitId;
+import com.google.common.primitives.Ints;
+import com.google.common.reflect.Invokable;
+import com.google.common.reflect.Parameter;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+import static com.cdancy.bitbucket.rest.http.CachedResponse.key;
+
+/**
+ * Serve responses addressed by a full commit hash from memory. Whatever is
+ * stored at a given commit can never change, so once such a response has
+ * been seen no further request is made for it.
+ *
+ * <p>Only endpoints marking their commit parameters with {@link CommitId} are
+ * considered, and only when all of those are passed a full 40 character
+ * hash. Abbreviated hashes, branches and tags are always fetched.
+ *
+ * <p>Entries are evicted least recently used first once either
+ * {@link BitbucketConstants#COMMIT_CACHE_MAX_ENTRIES} or
+ * {@link BitbucketConstants#COMMIT_CACHE_MAX_BYTES} is exceeded. Responses
+ * larger than the byte bound are never kept. Disabled unless
+ * COMMIT_CACHE_MAX_ENTRIES is set to a positive number.
+ */
+@Singleton
+public class ImmutableCommitCache implements HttpExchangeInterceptor {
+
+    private static final String GET_METHOD = "GET";
+    private static final int COMMIT_HASH_LENGTH = 40;
+    private static final int[] NO_PARAMETERS = new int[0];
+
+    private final long maxEntries;
+    private final long maxBytes;
+    private final ConcurrentMap<Invokable<?, ?>, int[]> commitIdParameters = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    @Inject
+    ImmutableCommitCache(@Named(BitbucketConstants.COMMIT_CACHE_MAX_ENTRIES) final long maxEntries,
+            @Named(BitbucketConstants.COMMIT_CACHE_MAX_BYTES) final long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public HttpResponse intercept(final HttpRequest request, final Chain chain) throws IOException, InterruptedException {
+        if (maxEntries <= 0
+                || !GET_METHOD.equals(request.getMethod())
+                || !(request instanceof GeneratedHttpRequest)
+                || !isAddressedByCommit(((GeneratedHttpRequest) request).getInvocation())) {
+            return chain.proceed(request);
+        }
+
+        final String key = key(request);
+        final CachedResponse cached = get(key);
+        if (cached != null) {
+            return cached.replay();
+        }
+
+        final HttpResponse response = chain.proceed(request);
+        if (response.getStatusCode() != 200 || response.getPayload() == null) {
+            return response;
+        }
+        final Long contentLength = response.getPayload().getContentMetadata().getContentLength();
+        if (contentLength != null && contentLength > maxBytes) {
+            return response;
+        }
+
+        final CachedResponse fresh = CachedResponse.from(response);
+        put(key, fresh);
+        return fresh.replay();
+    }
+
+    /**
+     * Number of responses currently held.
+     *
+     * @return number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Number of body bytes currently held.
+     *
+     * @return total weight of all entries.
+     */
+    public synchronized long weight() {
+        return bytes;
+    }
+
+    /**
+     * Drop every remembered response.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    private synchronized CachedResponse get(final String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(final String key, final CachedResponse response) {
+        if (response.weight() > maxBytes) {
+            return;
+        }
+        final CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            bytes -= previous.weight();
+        }
+        bytes += response.weight();
+
+        final Iterator<CachedResponse> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            bytes -= eldest.next().weight();
+            eldest.remove();
+        }
+    }
+
+    private boolean isAddressedByCommit(final Invocation invocation) {
+        final int[] indexes = commitIdParameters.computeIfAbsent(invocation.getInvokable(), ImmutableCommitCache::commitIdParameters);
+        if (indexes.length == 0) {
+            return false;
+        }
+        final List<Object> args = invocation.getArgs();
+        for (final int index : indexes) {
+            final Object arg = args.get(index);
+            if (!(arg instanceof String) || !isCommitHash((String) arg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] commitIdParameters(final Invokable<?, ?> invokable) {
+        final List<Integer> indexes = new ArrayList<>();
+        final List<Parameter> parameters = invokable.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (parameters.get(i).isAnnotationPresent(CommitId.class)) {
+                indexes.add(i);
+            }
+        }
+        return indexes.isEmpty() ? NO_PARAMETERS : Ints.toArray(indexes);
+    }
+
+    /**
+     * Whether the passed value is a full, 40 character, commit hash.
+     *
+     * @param value branch, tag or commit hash.
+     * @return true if the value can only address a single commit.
+     */
+    public static boolean isCommitHash(final String value) {
+        if (value.length() != COMMIT_HASH_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < COMMIT_HASH_LENGTH; i++) {
+            final char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.jclouds.http.HttpResponse;
+
+/**
+ * Reads the rate limiting hints Bitbucket Data Center attaches to its
+ * responses: the standard `Retry-After` header and the `X-RateLimit-*`
+ * headers describing the token bucket the server applies to each user.
+ */
+public final class RateLimitHeaders {
+
+    public static final String RETRY_AFTER = "Retry-After";
+    public static final String LIMIT = "X-RateLimit-Limit";
+    public static final String FILL_RATE = "X-RateLimit-FillRate";
+    public static final String INTERVAL_SECONDS = "X-RateLimit-Interval-Seconds";
+
+    private RateLimitHeaders() {
+        throw new UnsupportedOperationException("Purposefully not implemented");
+    }
+
+    /**
+     * Time the server asked us to wait, given either as delta-seconds or as
+     * an HTTP-date.
+     *
+     * @param response the response to inspect.
+     * @param nowMillis current time in epoch milliseconds.
+     * @return milliseconds to wait, or -1 if absent or unparseable.
+     */
+    public static long retryAfterMillis(final HttpResponse response, final long nowMillis) {
+        final String value = CachedResponse.header(response, RETRY_AFTER);
+        if (value == null) {
+            return -1;
+        }
+        final String trimmed = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(trimmed) * 1000);
+        } catch (final NumberFormatException e) {
+            try {
+                final long at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                return Math.max(0, at - nowMillis);
+            } catch (final DateTimeParseException ignored) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Sustained rate the server allows, derived from `X-RateLimit-FillRate`
+     * tokens every `X-RateLimit-Interval-Seconds`.
+     *
+     * @param response the response to inspect.
+     * @return permits per second, or 0 if the headers are absent.
+     */
+    public static double permitsPerSecond(final HttpResponse response) {
+        final double fillRate = number(response, FILL_RATE);
+        final double interval = number(response, INTERVAL_SECONDS);
+        return fillRate > 0 && interval > 0
+                ? fillRate / interval
+                : 0;
+    }
+
+    /**
+     * Size of the server side bucket, from `X-RateLimit-Limit`.
+     *
+     * @param response the response to inspect.
+     * @return bucket size, or 0 if the header is absent.
+     */
+    public static double limit(final HttpResponse response) {
+        return number(response, LIMIT);
+    }
+
+    private static double number(final HttpResponse response, final String name) {
+        final String value = CachedResponse.header(response, name);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            final double parsed = Double.parseDouble(value.trim());
+            return parsed > 0 && !Double.isInfinite(parsed) ? parsed : 0;
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket handing out permits at a fixed rate with a bounded burst.
+ * Callers reserve a permit up front and are told how long to wait for it,
+ * so concurrent callers queue up behind each other instead of all waking
+ * at once. A rate of 0 means unlimited, in which case only explicit
+ * pauses (e.g. from `Retry-After`) hold callers back.
+ */
+final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private double permitsPerNano;
+    private double capacity;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(final double permitsPerSecond, final double capacity, final long now) {
+        this.permitsPerNano = permitsPerSecond / NANOS_PER_SECOND;
+        this.capacity = Math.max(1, capacity);
+        this.tokens = this.capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * Take a permit.
+     *
+     * @param now current System.nanoTime().
+     * @return nanoseconds the caller has to wait before using the permit.
+     */
+    synchronized long reserve(final long now) {
+        refill(now);
+        final long paused = Math.max(0, refilledAt - now);
+        if (permitsPerNano <= 0) {
+            return paused;
+        }
+        tokens -= 1;
+        return tokens >= 0
+                ? paused
+                : paused + (long) Math.ceil(-tokens / permitsPerNano);
+    }
+
+    /**
+     * Stop handing out permits until the given time and start again from
+     * an empty bucket.
+     *
+     * @param until System.nanoTime() at which permits become available.
+     */
+    synchronized void pauseUntil(final long until) {
+        if (until >= refilledAt) {
+            tokens = Math.min(tokens, 0);
+            refilledAt = until;
+        }
+    }
+
+    /**
+     * Lower the rate to what the server reported, never raising it above
+     * what was configured.
+     *
+     * @param permitsPerSecond the new sustained rate.
+     * @param newCapacity the new burst size.
+     * @param now current System.nanoTime().
+     */
+    synchronized void throttle(final double permitsPerSecond, final double newCapacity, final long now) {
+        final double perNano = permitsPerSecond / NANOS_PER_SECOND;
+        if (perNano <= 0 || permitsPerNano > 0 && perNano >= permitsPerNano) {
+            return;
+        }
+        refill(now);
+        permitsPerNano = perNano;
+        capacity = Math.max(1, newCapacity);
+        tokens = Math.min(tokens, capacity);
+    }
+
+    synchronized double permitsPerSecond() {
+        return permitsPerNano * NANOS_PER_SECOND;
+    }
+
+    private void refill(final long now) {
+        if (now <= refilledAt) {
+            return;
+        }
+        tokens = permitsPerNano > 0
+                ? Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano)
+                : capacity;
+        refilledAt = now;
+    }
+}
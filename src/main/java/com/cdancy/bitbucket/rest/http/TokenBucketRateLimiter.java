@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.rest.config.InvocationConfig;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+
+import static com.cdancy.bitbucket.rest.BitbucketConstants.RATE_LIMIT_GROUPS;
+import static com.cdancy.bitbucket.rest.BitbucketConstants.RATE_LIMIT_PERMITS_PER_SECOND;
+
+/**
+ * Client side rate limiter keeping each group of operations below a given
+ * number of requests per second.
+ *
+ * <p>Operations are grouped by the prefix of their `@Named` identifier, so
+ * `repository:create-permissions-by-user` belongs to the `repository` group.
+ * Every group is limited to `jclouds.bitbucket.rate-limit.permits-per-second`
+ * (0, the default, meaning unlimited) unless `jclouds.bitbucket.rate-limit.groups`
+ * overrides it, e.g. `repository=5,pull-request:merge=1`, keyed by either a
+ * group or a full operation name. Bursts of up to one second's worth of
+ * permits are allowed.
+ *
+ * <p>The limiter also adapts to what the server reports: a `Retry-After`
+ * on a 429 holds back every caller of that group until it has passed, and
+ * the `X-RateLimit-*` headers lower the group's rate to just below the
+ * server's fill rate so throughput settles under the limit.
+ */
+@Singleton
+public class TokenBucketRateLimiter implements HttpExchangeInterceptor {
+
+    /**
+     * Fraction of the server's advertised fill rate we allow ourselves.
+     */
+    static final double SERVER_RATE_HEADROOM = 0.9;
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final InvocationConfig config;
+    private final double defaultPermitsPerSecond;
+    private final Map<String, Double> permitsPerSecondByKey;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Inject
+    TokenBucketRateLimiter(final InvocationConfig config,
+                           @Named(RATE_LIMIT_PERMITS_PER_SECOND) final double defaultPermitsPerSecond,
+                           @Named(RATE_LIMIT_GROUPS) final String groups) {
+        this.config = config;
+        this.defaultPermitsPerSecond = Math.max(0, defaultPermitsPerSecond);
+        this.permitsPerSecondByKey = parseGroups(groups);
+    }
+
+    @Override
+    public HttpResponse intercept(final HttpRequest request, final Chain chain) throws IOException, InterruptedException {
+        if (!(request instanceof GeneratedHttpRequest)) {
+            return chain.proceed(request);
+        }
+
+        final TokenBucket bucket = bucket(config.getCommandName(((GeneratedHttpRequest) request).getInvocation()));
+        final long wait = bucket.reserve(System.nanoTime());
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+
+        final HttpResponse response = chain.proceed(request);
+        adapt(bucket, response);
+        return response;
+    }
+
+    /**
+     * Current rate, in permits per second, applied to the given operation.
+     *
+     * @param operation `@Named` identifier of the operation.
+     * @return permits per second, 0 meaning unlimited.
+     */
+    public double permitsPerSecond(final String operation) {
+        return bucket(operation).permitsPerSecond();
+    }
+
+    private TokenBucket bucket(final String operation) {
+        final String key = permitsPerSecondByKey.containsKey(operation)
+                ? operation
+                : group(operation);
+        final TokenBucket existing = buckets.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        return buckets.computeIfAbsent(key, k -> {
+            final Double configured = permitsPerSecondByKey.get(k);
+            final double permitsPerSecond = configured != null ? configured : defaultPermitsPerSecond;
+            return new TokenBucket(permitsPerSecond, permitsPerSecond, System.nanoTime());
+        });
+    }
+
+    private static void adapt(final TokenBucket bucket, final HttpResponse response) {
+        final double serverRate = RateLimitHeaders.permitsPerSecond(response);
+        final long now = System.nanoTime();
+        if (serverRate > 0) {
+            final double permitsPerSecond = serverRate * SERVER_RATE_HEADROOM;
+            final double limit = RateLimitHeaders.limit(response);
+            bucket.throttle(permitsPerSecond, limit > 0 ? limit * SERVER_RATE_HEADROOM : permitsPerSecond, now);
+        }
+        if (response.getStatusCode() == TOO_MANY_REQUESTS) {
+            final long retryAfter = RateLimitHeaders.retryAfterMillis(response, System.currentTimeMillis());
+            bucket.pauseUntil(now + TimeUnit.MILLISECONDS.toNanos(Math.max(0, retryAfter)));
+        }
+    }
+
+    private static String group(final String operation) {
+        final int separator = operation.indexOf(':');
+        return separator > 0 ? operation.substring(0, separator) : operation;
+    }
+
+    private static Map<String, Double> parseGroups(final String groups) {
+        final ImmutableMap.Builder<String, Double> builder = ImmutableMap.builder();
+        final Map<String, String> split = Splitter.on(',').trimResults().omitEmptyStrings()
+                .withKeyValueSeparator(Splitter.on('=').trimResults())
+                .split(groups);
+        for (final Map.Entry<String, String> entry : split.entrySet()) {
+            final double permitsPerSecond;
+            try {
+                permitsPerSecond = Double.parseDouble(entry.getValue());
+            } catch (final NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid rate for '" + entry.getKey() + "' in " + RATE_LIMIT_GROUPS + ": " + groups, e);
+            }
+            builder.put(entry.getKey(), Math.max(0, permitsPerSecond));
+        }
+        return builder.build();
+    }
+}
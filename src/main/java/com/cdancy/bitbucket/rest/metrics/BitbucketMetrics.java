@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.metrics;
+
+/**
+ * Receives measurements about the calls made to Bitbucket. Every measurement
+ * is keyed by the operation name of the invoked feature method, which is the
+ * value of its `@Named` annotation (e.g. `pull-request:list`).
+ *
+ * <p>Implementations are called from every thread making requests and must be
+ * thread safe and cheap. {@link InMemoryBitbucketMetrics} is the default.
+ */
+public interface BitbucketMetrics {
+
+    /**
+     * Record a single request/response exchange with Bitbucket.
+     *
+     * @param operation the operation name.
+     * @param statusCode HTTP status code of the response.
+     * @param latencyNanos time taken until the response headers were received.
+     * @param requestBytes size of the request body, 0 if there was none.
+     */
+    void recordExchange(String operation, int statusCode, long latencyNanos, long requestBytes);
+
+    /**
+     * Record an exchange which failed before any response was received
+     * (e.g. connection refused, timeout).
+     *
+     * @param operation the operation name.
+     * @param latencyNanos time taken until the failure.
+     * @param failure the cause of the failure.
+     */
+    void recordFailure(String operation, long latencyNanos, Throwable failure);
+
+    /**
+     * Record the number of response body bytes read. Called once the body has
+     * been consumed and closed.
+     *
+     * @param operation the operation name.
+     * @param bytes number of bytes read.
+     */
+    void recordResponseBytes(String operation, long bytes);
+
+    /**
+     * Record that an operation's `@Fallback` turned a failure into a value
+     * (e.g. a domain object carrying `errors()`) instead of an exception.
+     *
+     * @param operation the operation name.
+     */
+    void recordFallback(String operation);
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.metrics;
+
+import com.google.common.collect.ImmutableSortedMap;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default {@link BitbucketMetrics} which keeps counters and a latency
+ * histogram per operation in memory. Use {@link #snapshot()} to find out
+ * which operations dominate the time spent talking to Bitbucket.
+ */
+public class InMemoryBitbucketMetrics implements BitbucketMetrics {
+
+    private final ConcurrentMap<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordExchange(final String operation, final int statusCode, final long latencyNanos, final long requestBytes) {
+        final Recorder recorder = recorder(operation);
+        recorder.calls.increment();
+        recorder.latencies.record(latencyNanos);
+        recorder.requestBytes.add(requestBytes);
+        if (statusCode >= 400) {
+            recorder.errors.increment();
+            recorder.errorsByStatus.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        }
+    }
+
+    @Override
+    public void recordFailure(final String operation, final long latencyNanos, final Throwable failure) {
+        final Recorder recorder = recorder(operation);
+        recorder.calls.increment();
+        recorder.errors.increment();
+        recorder.latencies.record(latencyNanos);
+    }
+
+    @Override
+    public void recordResponseBytes(final String operation, final long bytes) {
+        recorder(operation).responseBytes.add(bytes);
+    }
+
+    @Override
+    public void recordFallback(final String operation) {
+        recorder(operation).fallbacks.increment();
+    }
+
+    /**
+     * Measurements of a single operation.
+     *
+     * @param operation the operation name (e.g. `pull-request:list`).
+     * @return OperationMetrics or null if nothing was recorded for the operation.
+     */
+    public OperationMetrics snapshot(final String operation) {
+        final Recorder recorder = recorders.get(operation);
+        return recorder != null ? recorder.snapshot(operation) : null;
+    }
+
+    /**
+     * Measurements of every operation recorded so far.
+     *
+     * @return OperationMetrics keyed, and sorted, by operation name.
+     */
+    public SortedMap<String, OperationMetrics> snapshot() {
+        final ImmutableSortedMap.Builder<String, OperationMetrics> snapshot = ImmutableSortedMap.naturalOrder();
+        for (final Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().snapshot(entry.getKey()));
+        }
+        return snapshot.build();
+    }
+
+    /**
+     * Forget everything recorded so far.
+     */
+    public void reset() {
+        recorders.clear();
+    }
+
+    private Recorder recorder(final String operation) {
+        return recorders.computeIfAbsent(operation, key -> new Recorder());
+    }
+
+    private static final class Recorder {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final ConcurrentMap<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+        private final LongAdder fallbacks = new LongAdder();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final LatencyHistogram latencies = new LatencyHistogram();
+
+        OperationMetrics snapshot(final String operation) {
+            final Map<Integer, Long> byStatus = new TreeMap<>();
+            for (final Map.Entry<Integer, LongAdder> entry : errorsByStatus.entrySet()) {
+                byStatus.put(entry.getKey(), entry.getValue().sum());
+            }
+            return OperationMetrics.create(operation,
+                    calls.sum(),
+                    errors.sum(),
+                    byStatus,
+                    fallbacks.sum(),
+                    requestBytes.sum(),
+                    responseBytes.sum(),
+                    latencies.percentileMicros(50),
+                    latencies.percentileMicros(95),
+                    latencies.percentileMicros(99));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.metrics;
+
+import com.google.common.base.Optional;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import com.cdancy.bitbucket.rest.config.CachingInvocationConfig;
+
+import org.jclouds.Fallback;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.reflect.Invocation;
+import org.jclouds.rest.InvocationContext;
+import org.jclouds.rest.config.InvocationConfig;
+
+/**
+ * The CachingInvocationConfig, with each `@Fallback` wrapped so that
+ * failures it turns into a value are reported to {@link BitbucketMetrics}.
+ */
+@Singleton
+public class MeteredInvocationConfig implements InvocationConfig {
+
+    private final CachingInvocationConfig delegate;
+    private final BitbucketMetrics metrics;
+
+    @Inject
+    MeteredInvocationConfig(final CachingInvocationConfig delegate, final BitbucketMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Optional<Long> getTimeoutNanos(final Invocation invocation) {
+        return delegate.getTimeoutNanos(invocation);
+    }
+
+    @Override
+    public String getCommandName(final Invocation invocation) {
+        return delegate.getCommandName(invocation);
+    }
+
+    @Override
+    public Fallback<?> getFallback(final Invocation invocation) {
+        return new MeteredFallback(delegate.getFallback(invocation), getCommandName(invocation));
+    }
+
+    private final class MeteredFallback implements Fallback<Object>, InvocationContext<MeteredFallback> {
+
+        private final Fallback<?> fallback;
+        private final String operation;
+
+        MeteredFallback(final Fallback<?> fallback, final String operation) {
+            this.fallback = fallback;
+            this.operation = operation;
+        }
+
+        @Override
+        public Object createOrPropagate(final Throwable throwable) throws Exception {
+            final Object value = fallback.createOrPropagate(throwable);
+            metrics.recordFallback(operation);
+            return value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public MeteredFallback setContext(final HttpRequest request) {
+            if (fallback instanceof InvocationContext) {
+                ((InvocationContext<?>) fallback).setContext(request);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.metrics;
+
+import com.cdancy.bitbucket.rest.http.HttpExchangeInterceptor;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.Payload;
+import org.jclouds.io.payloads.InputStreamPayload;
+import org.jclouds.rest.config.InvocationConfig;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+/**
+ * Time every exchange with Bitbucket and count the bytes going each way,
+ * reporting them to {@link BitbucketMetrics} under the invoked operation's
+ * name.
+ */
+@Singleton
+public class MetricsInterceptor implements HttpExchangeInterceptor {
+
+    private final BitbucketMetrics metrics;
+    private final InvocationConfig config;
+
+    @Inject
+    MetricsInterceptor(final BitbucketMetrics metrics, final InvocationConfig config) {
+        this.metrics = metrics;
+        this.config = config;
+    }
+
+    @Override
+    public HttpResponse intercept(final HttpRequest request, final Chain chain) throws IOException, InterruptedException {
+        if (!(request instanceof GeneratedHttpRequest)) {
+            return chain.proceed(request);
+        }
+
+        final String operation = config.getCommandName(((GeneratedHttpRequest) request).getInvocation());
+        final long start = System.nanoTime();
+        final HttpResponse response;
+        try {
+            response = chain.proceed(request);
+        } catch (final IOException | RuntimeException e) {
+            metrics.recordFailure(operation, System.nanoTime() - start, e);
+            throw e;
+        }
+        metrics.recordExchange(operation, response.getStatusCode(), System.nanoTime() - start, requestBytes(request));
+
+        final Payload payload = response.getPayload();
+        if (payload == null) {
+            metrics.recordResponseBytes(operation, 0);
+            return response;
+        }
+        final InputStreamPayload counted = new InputStreamPayload(new MeteredInputStream(payload.openStream(), operation));
+        counted.setContentMetadata(payload.getContentMetadata());
+        return response.toBuilder().payload(counted).build();
+    }
+
+    private static long requestBytes(final HttpRequest request) {
+        final Payload payload = request.getPayload();
+        final Long length = payload != null
+                ? payload.getContentMetadata().getContentLength()
+                : null;
+        return length != null ? length : 0;
+    }
+
+    private final class MeteredInputStream extends FilterInputStream {
+
+        private final String operation;
+        private long count;
+        private boolean closed;
+
+        MeteredInputStream(final InputStream in, final String operation) {
+            super(in);
+            this.operation = operation;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read != -1) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            if (read != -1) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long length) throws IOException {
+            final long skipped = super.skip(length);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    metrics.recordResponseBytes(operation, count);
+                }
+            }
+        }
+    }
+}
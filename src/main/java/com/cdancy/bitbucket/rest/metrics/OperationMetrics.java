@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.metrics;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+
+/**
+ * Point in time view of the measurements recorded for a single operation.
+ */
+@AutoValue
+public abstract class OperationMetrics {
+
+    /**
+     * The operation name, i.e. the `@Named` value of the feature method.
+     *
+     * @return operation name.
+     */
+    public abstract String operation();
+
+    /**
+     * Number of exchanges made, including failed ones.
+     *
+     * @return number of exchanges.
+     */
+    public abstract long calls();
+
+    /**
+     * Number of exchanges answered with a status of 400 or above, or which
+     * failed without a response.
+     *
+     * @return number of errors.
+     */
+    public abstract long errors();
+
+    /**
+     * Number of error responses per HTTP status code.
+     *
+     * @return errors keyed by status code.
+     */
+    public abstract Map<Integer, Long> errorsByStatus();
+
+    /**
+     * Number of failures turned into a value by the operation's `@Fallback`.
+     *
+     * @return number of fallbacks.
+     */
+    public abstract long fallbacks();
+
+    public abstract long requestBytes();
+
+    public abstract long responseBytes();
+
+    public abstract long p50Micros();
+
+    public abstract long p95Micros();
+
+    public abstract long p99Micros();
+
+    OperationMetrics() {
+    }
+
+    public static OperationMetrics create(final String operation,
+            final long calls,
+            final long errors,
+            final Map<Integer, Long> errorsByStatus,
+            final long fallbacks,
+            final long requestBytes,
+            final long responseBytes,
+            final long p50Micros,
+            final long p95Micros,
+            final long p99Micros) {
+
+        return new AutoValue_OperationMetrics(operation,
+                calls,
+                errors,
+                ImmutableMap.copyOf(errorsByStatus),
+                fallbacks,
+                requestBytes,
+                responseBytes,
+                p50Micros,
+                p95Micros,
+                p99Micros);
+    }
+}
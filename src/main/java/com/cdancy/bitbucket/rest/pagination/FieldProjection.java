@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.pagination;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The fields, given as dotted paths (e.g. `fromRef.latestCommit`), to decode
+ * from each value of a {@link StreamingPage} into a {@link ProjectedValue}.
+ * Values are read straight off the response: every field not on one of the
+ * paths is skipped with `JsonReader.skipValue()`, so unrequested subtrees
+ * (e.g. `description`, `reviewers` or `links`) are never materialized.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * FieldProjection projection = FieldProjection.of("id", "state", "fromRef.latestCommit", "updatedDate");
+ * try (StreamingPage&lt;ProjectedValue&gt; page = api.pullRequestApi()
+ *         .listStreaming("PRJ", "repo", null, null, null, null, null, null, 0, 100)
+ *         .project(projection)) {
+ *     page.forEachRemaining(pr -&gt; process(pr.getLong("id"), pr.getString("fromRef.latestCommit")));
+ * }
+ * </pre>
+ *
+ * <p>A FieldProjection is immutable and can be shared across pages and threads.
+ */
+public final class FieldProjection {
+
+    private static final Splitter DOT = Splitter.on('.');
+
+    private final List<String> paths;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final Node root = new Node();
+
+    private FieldProjection(final List<String> paths) {
+        this.paths = paths;
+        for (int i = 0; i < paths.size(); i++) {
+            final String path = paths.get(i);
+            if (indexes.put(path, i) != null) {
+                throw new IllegalArgumentException("Duplicate path: " + path);
+            }
+            Node node = root;
+            for (final String name : DOT.split(path)) {
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Invalid path: " + path);
+                }
+                if (node.index >= 0) {
+                    throw new IllegalArgumentException("Path " + path + " is nested within requested path " + paths.get(node.index));
+                }
+                node = node.children.computeIfAbsent(name, key -> new Node());
+            }
+            if (!node.children.isEmpty()) {
+                throw new IllegalArgumentException("Path " + path + " holds other requested paths");
+            }
+            node.index = i;
+        }
+    }
+
+    /**
+     * Create a FieldProjection.
+     *
+     * @param paths the dotted paths of the fields to decode.
+     * @return FieldProjection instance.
+     */
+    public static FieldProjection of(final String... paths) {
+        Objects.requireNonNull(paths, "paths cannot be null");
+        if (paths.length == 0) {
+            throw new IllegalArgumentException("paths cannot be empty");
+        }
+        return new FieldProjection(ImmutableList.copyOf(paths));
+    }
+
+    /**
+     * The dotted paths this projection decodes.
+     *
+     * @return List of paths in the order they were given.
+     */
+    public List<String> paths() {
+        return paths;
+    }
+
+    int indexOf(final String path) {
+        final Integer index = indexes.get(path);
+        if (index == null) {
+            throw new IllegalArgumentException("Path " + path + " is not part of this projection " + paths);
+        }
+        return index;
+    }
+
+    /**
+     * Decode the requested fields of the value the reader is positioned at.
+     */
+    ProjectedValue read(final JsonReader reader) throws IOException {
+        final Object[] values = new Object[paths.size()];
+        readObject(reader, root, values);
+        return new ProjectedValue(this, values);
+    }
+
+    private static void readObject(final JsonReader reader, final Node node, final Object[] values) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final Node child = node.children.get(reader.nextName());
+            if (child == null) {
+                reader.skipValue();
+            } else if (child.index >= 0) {
+                values[child.index] = readLeaf(reader);
+            } else {
+                readObject(reader, child, values);
+            }
+        }
+        reader.endObject();
+    }
+
+    private static Object readLeaf(final JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NULL:
+                reader.nextNull();
+                return null;
+            default:
+                return JsonParser.parseReader(reader);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FieldProjection" + paths;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private int index = -1;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.pagination;
+
+import com.cdancy.bitbucket.rest.domain.common.Error;
+import com.cdancy.bitbucket.rest.domain.common.ErrorsHolder;
+import com.cdancy.bitbucket.rest.domain.common.Page;
+import com.cdancy.bitbucket.rest.exception.PaginationException;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily walks any paginated endpoint returning a {@link Page}. Pages are
+ * only requested as the consumer pulls values, so short-circuiting
+ * operations (e.g. `findFirst`, `limit`) stop issuing requests immediately
+ * and only a single page is held in memory at a time.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * Paginator.stream(start -&gt; api.repositoryApi().listAll(null, null, null, null, start, 100))
+ *         .filter(repo -&gt; repo.forkable())
+ *         .findFirst();
+ * </pre>
+ *
+ * <p>If a fetched page carries errors (i.e. the endpoints fallback kicked in)
+ * a {@link PaginationException} is thrown instead of silently ending the walk.
+ *
+ * @param <T> the type of values held by each page.
+ */
+public final class Paginator<T> implements Iterable<T> {
+
+    private final int start;
+    private final IntFunction<? extends Page<T>> fetcher;
+
+    private Paginator(final int start, final IntFunction<? extends Page<T>> fetcher) {
+        this.start = start;
+        this.fetcher = Objects.requireNonNull(fetcher, "fetcher cannot be null");
+    }
+
+    /**
+     * Create a Paginator starting at the first page.
+     *
+     * @param <T> the type of values held by each page.
+     * @param fetcher function fetching the page found at the passed `start`.
+     * @return Paginator instance.
+     */
+    public static <T> Paginator<T> of(final IntFunction<? extends Page<T>> fetcher) {
+        return new Paginator<>(0, fetcher);
+    }
+
+    /**
+     * Create a Paginator starting at an arbitrary offset.
+     *
+     * @param <T> the type of values held by each page.
+     * @param start the offset of the first page to fetch.
+     * @param fetcher function fetching the page found at the passed `start`.
+     * @return Paginator instance.
+     */
+    public static <T> Paginator<T> of(final int start, final IntFunction<? extends Page<T>> fetcher) {
+        return new Paginator<>(start, fetcher);
+    }
+
+    /**
+     * Convenience for `Paginator.of(fetcher).stream()`.
+     *
+     * @param <T> the type of values held by each page.
+     * @param fetcher function fetching the page found at the passed `start`.
+     * @return lazily populated Stream of values.
+     */
+    public static <T> Stream<T> stream(final IntFunction<? extends Page<T>> fetcher) {
+        return of(fetcher).stream();
+    }
+
+    /**
+     * Iterate over the pages themselves rather than their values.
+     *
+     * @return lazily populated Iterator of pages.
+     */
+    public Iterator<Page<T>> pages() {
+        return new PageIterator<>(start, fetcher);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new ValueIterator<>(pages());
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Check the passed page for errors and throw if any are found.
+     *
+     * @param page the page to check.
+     * @param start the offset the page was requested at.
+     */
+    static void checkForErrors(final Page<?> page, final int start) {
+        if (page == null) {
+            throw new PaginationException("Null page returned at start=" + start, start, null);
+        }
+        if (page instanceof ErrorsHolder) {
+            final List<Error> errors = ((ErrorsHolder) page).errors();
+            if (errors != null && !errors.isEmpty()) {
+                throw new PaginationException("Failed to retrieve page at start=" + start + ": " + errors, start, errors);
+            }
+        }
+    }
+
+    /**
+     * Whether another page should be requested after the passed page.
+     *
+     * @param page the most recently fetched page.
+     * @param start the offset the page was requested at.
+     * @return true if there is a next page.
+     */
+    static boolean hasNextPage(final Page<?> page, final int start) {
+        return hasNextPage(page.isLastPage(), page.nextPageStart(), start);
+    }
+
+    /**
+     * Whether another page should be requested after a page, such as a
+     * StreamingPage, described by its paging fields.
+     *
+     * @param isLastPage whether the page claims to be the last one.
+     * @param nextPageStart the offset the page points to next.
+     * @param start the offset the page was requested at.
+     * @return true if there is a next page.
+     */
+    public static boolean hasNextPage(final boolean isLastPage, final int nextPageStart, final int start) {
+
+        // guard against servers handing back a non-advancing cursor
+        // which would otherwise have us loop forever.
+        return !isLastPage && nextPageStart > start;
+    }
+
+    private static final class PageIterator<T> implements Iterator<Page<T>> {
+
+        private final IntFunction<? extends Page<T>> fetcher;
+        private int nextStart;
+        private boolean exhausted;
+
+        PageIterator(final int start, final IntFunction<? extends Page<T>> fetcher) {
+            this.nextStart = start;
+            this.fetcher = fetcher;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !exhausted;
+        }
+
+        @Override
+        public Page<T> next() {
+            if (exhausted) {
+                throw new NoSuchElementException();
+            }
+            final int requestedStart = nextStart;
+            final Page<T> page = fetcher.apply(requestedStart);
+            checkForErrors(page, requestedStart);
+            if (hasNextPage(page, requestedStart)) {
+                nextStart = page.nextPageStart();
+            } else {
+                exhausted = true;
+            }
+            return page;
+        }
+    }
+
+    private static final class ValueIterator<T> implements Iterator<T> {
+
+        private final Iterator<Page<T>> pages;
+        private Iterator<T> current;
+
+        ValueIterator(final Iterator<Page<T>> pages) {
+            this.pages = pages;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (!pages.hasNext()) {
+                    return false;
+                }
+                current = pages.next().values().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+}
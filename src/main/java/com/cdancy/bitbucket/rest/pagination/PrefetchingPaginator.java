@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.pagination;
+
+import com.cdancy.bitbucket.rest.domain.common.Page;
+import com.google.common.base.Throwables;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Variant of {@link Paginator} which reads ahead. As soon as a page arrives,
+ * and its `nextPageStart` is known, the following page is requested on the
+ * passed Executor while the consumer is still processing the current one.
+ * At most `prefetchDepth` fetched, but not yet consumed, pages are buffered
+ * which keeps memory bounded no matter how large the listing is.
+ *
+ * <p>Iterators and Streams should be closed (e.g. try-with-resources) when
+ * abandoned early so that the background fetch is stopped.
+ *
+ * @param <T> the type of values held by each page.
+ */
+public final class PrefetchingPaginator<T> {
+
+    public static final int DEFAULT_PREFETCH_DEPTH = 2;
+
+    private final int start;
+    private final IntFunction<? extends Page<T>> fetcher;
+    private final Executor executor;
+    private final int prefetchDepth;
+
+    private PrefetchingPaginator(final int start,
+            final IntFunction<? extends Page<T>> fetcher,
+            final Executor executor,
+            final int prefetchDepth) {
+        if (prefetchDepth < 1) {
+            throw new IllegalArgumentException("prefetchDepth must be >= 1: " + prefetchDepth);
+        }
+        this.start = start;
+        this.fetcher = Objects.requireNonNull(fetcher, "fetcher cannot be null");
+        this.executor = Objects.requireNonNull(executor, "executor cannot be null");
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    /**
+     * Create a PrefetchingPaginator starting at the first page and using
+     * the default prefetch depth.
+     *
+     * @param <T> the type of values held by each page.
+     * @param fetcher function fetching the page found at the passed `start`.
+     * @param executor Executor pages are fetched on.
+     * @return PrefetchingPaginator instance.
+     */
+    public static <T> PrefetchingPaginator<T> of(final IntFunction<? extends Page<T>> fetcher,
+            final Executor executor) {
+        return new PrefetchingPaginator<>(0, fetcher, executor, DEFAULT_PREFETCH_DEPTH);
+    }
+
+    /**
+     * Create a PrefetchingPaginator.
+     *
+     * @param <T> the type of values held by each page.
+     * @param start the offset of the first page to fetch.
+     * @param fetcher function fetching the page found at the passed `start`.
+     * @param executor Executor pages are fetched on.
+     * @param prefetchDepth maximum number of pages to buffer ahead of the consumer.
+     * @return PrefetchingPaginator instance.
+     */
+    public static <T> PrefetchingPaginator<T> of(final int start,
+            final IntFunction<? extends Page<T>> fetcher,
+            final Executor executor,
+            final int prefetchDepth) {
+        return new PrefetchingPaginator<>(start, fetcher, executor, prefetchDepth);
+    }
+
+    /**
+     * Start fetching pages in the background and iterate over their values.
+     *
+     * @return closeable Iterator of values.
+     */
+    public PrefetchingIterator<T> iterator() {
+        final PrefetchingIterator<T> iterator = new PrefetchingIterator<>(prefetchDepth);
+        CompletableFuture.runAsync(() -> iterator.produce(start, fetcher), executor);
+        return iterator;
+    }
+
+    /**
+     * Start fetching pages in the background and stream their values. Closing
+     * the Stream stops any further fetching.
+     *
+     * @return lazily populated Stream of values.
+     */
+    public Stream<T> stream() {
+        final PrefetchingIterator<T> iterator = iterator();
+        final Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+    }
+
+    /**
+     * Iterator fed by a background producer through a bounded buffer.
+     *
+     * @param <T> the type of values held by each page.
+     */
+    public static final class PrefetchingIterator<T> implements Iterator<T>, Closeable {
+
+        private final BlockingQueue<Signal<T>> buffer;
+        private final Signal<T> endOfPages = new Signal<>(null, null);
+        private volatile boolean closed;
+        private Iterator<T> current;
+        private boolean exhausted;
+
+        PrefetchingIterator(final int prefetchDepth) {
+            this.buffer = new ArrayBlockingQueue<>(prefetchDepth);
+        }
+
+        void produce(final int firstStart, final IntFunction<? extends Page<T>> fetcher) {
+            int start = firstStart;
+            try {
+                while (!closed) {
+                    final Page<T> page = fetcher.apply(start);
+                    Paginator.checkForErrors(page, start);
+                    final boolean hasNextPage = Paginator.hasNextPage(page, start);
+                    publish(new Signal<>(page, null));
+                    if (!hasNextPage) {
+                        break;
+                    }
+                    start = page.nextPageStart();
+                }
+                publish(endOfPages);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (final Throwable e) {
+
+                // Errors too: the consumer would otherwise wait forever.
+                try {
+                    publish(new Signal<>(null, e));
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void publish(final Signal<T> signal) throws InterruptedException {
+
+            // once closed nobody is reading so never block.
+            if (closed) {
+                buffer.offer(signal);
+            } else {
+                buffer.put(signal);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (exhausted) {
+                    return false;
+                }
+                final Signal<T> next = take();
+                if (next == endOfPages) {
+                    exhausted = true;
+                    return false;
+                } else if (next.failure != null) {
+                    exhausted = true;
+                    Throwables.throwIfUnchecked(next.failure);
+                    throw new RuntimeException(next.failure);
+                }
+                current = next.page.values().iterator();
+            }
+            return true;
+        }
+
+        private Signal<T> take() {
+            try {
+                return buffer.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw Throwables.propagate(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        /**
+         * Stop fetching pages and release any buffered ones.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            exhausted = true;
+            buffer.clear();
+        }
+
+        /**
+         * A fetched page, a failure, or, when both are null, the end of pages.
+         */
+        private static final class Signal<T> {
+
+            private final Page<T> page;
+            private final Throwable failure;
+
+            Signal(final Page<T> page, final Throwable failure) {
+                this.page = page;
+                this.failure = failure;
+            }
+        }
+    }
+}
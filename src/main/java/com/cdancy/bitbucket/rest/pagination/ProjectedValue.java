@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.pagination;
+
+import com.google.common.base.MoreObjects;
+import com.google.gson.JsonElement;
+
+import org.jclouds.javax.annotation.Nullable;
+
+/**
+ * Lightweight view over the fields a {@link FieldProjection} decoded from a
+ * single value. Fields are looked up by the same dotted path they were
+ * requested with and are null when absent from, or null in, the response.
+ * Scalars are kept as read off the wire and only converted on access.
+ */
+public final class ProjectedValue {
+
+    private final FieldProjection projection;
+    private final Object[] values;
+
+    ProjectedValue(final FieldProjection projection, final Object[] values) {
+        this.projection = projection;
+        this.values = values;
+    }
+
+    /**
+     * Whether the field at the given path was present, and not null, in the response.
+     *
+     * @param path dotted path of a field of the projection.
+     * @return true if the field has a value.
+     */
+    public boolean has(final String path) {
+        return get(path) != null;
+    }
+
+    /**
+     * The raw value of a field: a String for strings and numbers, a Boolean
+     * for booleans and a JsonElement for objects and arrays.
+     *
+     * @param path dotted path of a field of the projection.
+     * @return the value or null.
+     */
+    @Nullable
+    public Object get(final String path) {
+        return values[projection.indexOf(path)];
+    }
+
+    @Nullable
+    public String getString(final String path) {
+        final Object value = get(path);
+        return value != null ? value.toString() : null;
+    }
+
+    @Nullable
+    public Long getLong(final String path) {
+        final String value = getString(path);
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    @Nullable
+    public Integer getInteger(final String path) {
+        final String value = getString(path);
+        return value != null ? Integer.valueOf(value) : null;
+    }
+
+    @Nullable
+    public Boolean getBoolean(final String path) {
+        final Object value = get(path);
+        if (value == null || value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return Boolean.valueOf(value.toString());
+    }
+
+    @Nullable
+    public JsonElement getJson(final String path) {
+        final Object value = get(path);
+        if (value != null && !(value instanceof JsonElement)) {
+            throw new IllegalStateException("Field " + path + " is not an object or array");
+        }
+        return (JsonElement) value;
+    }
+
+    @Override
+    public String toString() {
+        final MoreObjects.ToStringHelper helper = MoreObjects.toStringHelper(this);
+        for (final String path : projection.paths()) {
+            helper.add(path, get(path));
+        }
+        return helper.toString();
+    }
+}
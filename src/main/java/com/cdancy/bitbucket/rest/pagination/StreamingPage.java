@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.pagination;
+
+import com.cdancy.bitbucket.rest.BitbucketUtils;
+import com.cdancy.bitbucket.rest.domain.common.Error;
+import com.cdancy.bitbucket.rest.domain.common.ErrorsHolder;
+import com.google.common.base.Throwables;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import org.jclouds.javax.annotation.Nullable;
+
+import static org.jclouds.util.Closeables2.closeQuietly;
+
+/**
+ * A single page whose `values` are decoded one element at a time, straight
+ * off the response body, as the consumer iterates. Unlike the regular
+ * {@link com.cdancy.bitbucket.rest.domain.common.Page} objects the values are
+ * never materialized into a List, so peak heap is bounded by the size of
+ * a single element rather than that of the whole page.
+ *
+ * <p>The page fields (i.e. `start`, `limit`, `size`, `nextPageStart` and
+ * `isLastPage`) are read within the same pass. As Bitbucket may serialize them
+ * after `values` they are only guaranteed to be available once iteration has
+ * finished (i.e. `hasNext()` returned false).
+ *
+ * <p>The underlying response is closed once all values have been consumed,
+ * or when `close()` is called, whichever comes first.
+ *
+ * <p>Calling `project(FieldProjection)` before consuming any value decodes
+ * only the requested fields of each value into a {@link ProjectedValue}
+ * instead, skipping everything else.
+ *
+ * @param <T> the type of values held by this page.
+ */
+public final class StreamingPage<T> implements Iterator<T>, Closeable, ErrorsHolder {
+
+    private static final String VALUES = "values";
+    private static final Type ERRORS_TYPE = new TypeToken<List<Error>>() { }.getType();
+
+    private final JsonReader reader;
+    private final Gson gson;
+    private final Type valueType;
+    private final FieldProjection projection;
+    private List<Error> errors;
+
+    private Integer start;
+    private Integer limit;
+    private Integer size;
+    private Integer nextPageStart;
+    private Boolean isLastPage;
+
+    private boolean opened;
+    private boolean inValues;
+    private boolean finished;
+    private boolean detached;
+
+    private StreamingPage(@Nullable final JsonReader reader,
+            @Nullable final Gson gson,
+            @Nullable final Type valueType,
+            @Nullable final FieldProjection projection,
+            @Nullable final List<Error> errors) {
+        this.reader = reader;
+        this.gson = gson;
+        this.valueType = valueType;
+        this.projection = projection;
+        this.errors = BitbucketUtils.nullToEmpty(errors);
+        this.finished = reader == null;
+    }
+
+    /**
+     * Create a StreamingPage reading from the passed Reader.
+     *
+     * @param <T> the type of values held by this page.
+     * @param json Reader positioned at the start of a page response.
+     * @param gson Gson instance used to decode each value.
+     * @param valueType the type of each value.
+     * @return StreamingPage instance.
+     */
+    public static <T> StreamingPage<T> create(final Reader json, final Gson gson, final Type valueType) {
+        return new StreamingPage<>(new JsonReader(Objects.requireNonNull(json, "json cannot be null")),
+                Objects.requireNonNull(gson, "gson cannot be null"),
+                Objects.requireNonNull(valueType, "valueType cannot be null"),
+                null,
+                null);
+    }
+
+    /**
+     * Create an empty StreamingPage holding the passed errors.
+     *
+     * @param <T> the type of values held by this page.
+     * @param errors the errors to hold.
+     * @return StreamingPage instance.
+     */
+    public static <T> StreamingPage<T> fromErrors(final List<Error> errors) {
+        return new StreamingPage<>(null, null, null, null, errors);
+    }
+
+    /**
+     * Decode only the fields of the given projection from each value. This
+     * page hands its response over to the returned one and must not be used
+     * afterwards.
+     *
+     * @param projection the fields to decode.
+     * @return StreamingPage of ProjectedValue's reading from the same response.
+     * @throws IllegalStateException if values have already been consumed.
+     */
+    public StreamingPage<ProjectedValue> project(final FieldProjection projection) {
+        Objects.requireNonNull(projection, "projection cannot be null");
+        if (reader == null) {
+            return fromErrors(errors);
+        }
+        if (opened || finished) {
+            throw new IllegalStateException("Values already consumed: project before iterating");
+        }
+        finished = true;
+        detached = true;
+        return new StreamingPage<>(reader, gson, null, projection, null);
+    }
+
+    /**
+     * Errors handed back either through a fallback or within the page body. As
+     * with the other page fields the latter are only known once all values have
+     * been consumed.
+     *
+     * @return List of Error's or empty list if none were found.
+     */
+    @Override
+    public List<Error> errors() {
+        return errors;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        try {
+            return advance();
+        } catch (final IOException | RuntimeException e) {
+            close();
+            throw Throwables.propagate(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return projection == null
+                    ? gson.<T>fromJson(reader, valueType)
+                    : (T) projection.read(reader);
+        } catch (final IOException | RuntimeException e) {
+            close();
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * Move the reader onto the next value, reading any page fields found on
+     * the way, and return whether a value is available.
+     */
+    private boolean advance() throws IOException {
+        if (!opened) {
+            reader.beginObject();
+            opened = true;
+        }
+        if (inValues) {
+            if (reader.hasNext()) {
+                return true;
+            }
+            reader.endArray();
+            inValues = false;
+        }
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case VALUES:
+                    reader.beginArray();
+                    if (reader.hasNext()) {
+                        inValues = true;
+                        return true;
+                    }
+                    reader.endArray();
+                    break;
+                case "start":
+                    start = reader.nextInt();
+                    break;
+                case "limit":
+                    limit = reader.nextInt();
+                    break;
+                case "size":
+                    size = reader.nextInt();
+                    break;
+                case "nextPageStart":
+                    nextPageStart = reader.nextInt();
+                    break;
+                case "isLastPage":
+                    isLastPage = reader.nextBoolean();
+                    break;
+                case "errors":
+                    errors = BitbucketUtils.nullToEmpty(gson.<List<Error>>fromJson(reader, ERRORS_TYPE));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        close();
+        return false;
+    }
+
+    public int start() {
+        return field(start);
+    }
+
+    public int limit() {
+        return field(limit);
+    }
+
+    public int size() {
+        return field(size);
+    }
+
+    public int nextPageStart() {
+        return field(nextPageStart);
+    }
+
+    public boolean isLastPage() {
+        if (isLastPage == null) {
+            checkFinished();
+
+            // no body (e.g. a fallback) means there is nothing left to page through.
+            return reader == null;
+        }
+        return isLastPage;
+    }
+
+    private int field(final Integer value) {
+        if (value == null) {
+            checkFinished();
+            return 0;
+        }
+        return value;
+    }
+
+    private void checkFinished() {
+        if (!finished) {
+            throw new IllegalStateException("Page field not yet read: consume all values first");
+        }
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        inValues = false;
+        if (reader != null && !detached) {
+            closeQuietly(reader);
+        }
+    }
+}
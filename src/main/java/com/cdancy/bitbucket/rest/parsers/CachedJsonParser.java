@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.parsers;
+
+import com.cdancy.bitbucket.rest.http.CachedPayload;
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.gson.Gson;
+
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.io.Payload;
+import org.jclouds.rest.InvocationContext;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Parse a JSON response into the return type of the invoked method. When the
+ * response was replayed by the ConditionalRequestCache the object parsed the
+ * first time around is handed back instead of decoding the body again.
+ */
+public class CachedJsonParser implements Function<HttpResponse, Object>, InvocationContext<CachedJsonParser> {
+
+    private final Gson gson;
+    private Type returnType;
+
+    @Inject
+    CachedJsonParser(final Gson gson) {
+        this.gson = gson;
+    }
+
+    @Override
+    public CachedJsonParser setContext(final HttpRequest request) {
+        this.returnType = ((GeneratedHttpRequest) request).getInvocation().getInvokable().getReturnType().getType();
+        return this;
+    }
+
+    /**
+     * Failures are surfaced the same way jclouds' own ParseJson does, as an
+     * HttpResponseException carrying the response, so that fallbacks keep
+     * seeing the status code (e.g. the 204 of an empty repository).
+     */
+    @Override
+    public Object apply(final HttpResponse input) {
+        try {
+            final Payload payload = input.getPayload();
+            return payload instanceof CachedPayload
+                    ? ((CachedPayload) payload).decoded(returnType, this::parse)
+                    : parse(payload);
+        } catch (final RuntimeException e) {
+            throw new HttpResponseException("Error parsing input: " + e.getMessage(), null, input, e);
+        }
+    }
+
+    private Object parse(final Payload payload) {
+        checkNotNull(payload, "response has no payload");
+        try (Reader reader = new InputStreamReader(payload.openStream(), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, returnType);
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        } finally {
+            payload.release();
+        }
+    }
+}
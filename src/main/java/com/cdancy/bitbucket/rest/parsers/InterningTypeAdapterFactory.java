@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.parsers;
+
+import com.cdancy.bitbucket.rest.BitbucketConstants;
+import com.cdancy.bitbucket.rest.domain.common.Reference;
+import com.cdancy.bitbucket.rest.domain.project.Project;
+import com.cdancy.bitbucket.rest.domain.pullrequest.MinimalRepository;
+import com.cdancy.bitbucket.rest.domain.pullrequest.Person;
+import com.cdancy.bitbucket.rest.domain.pullrequest.User;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Opt-in Gson TypeAdapterFactory making equal instances of the domain objects
+ * repeated across responses (Person, User, Project, MinimalRepository and
+ * Reference) share a single instance, e.g. the author of every pull request
+ * of a page or the target branch of every pull request of a repository.
+ *
+ * <p>Instances are interned on their full value, which includes their id or
+ * slug, so two objects are only ever merged if they are equal in every
+ * field. Interned instances are weakly referenced and vanish once nothing
+ * else holds on to them. Enabled through
+ * {@link BitbucketConstants#INTERNING}.
+ */
+@Singleton
+public class InterningTypeAdapterFactory implements TypeAdapterFactory {
+
+    private final Map<Class<?>, Interner<Object>> interners;
+
+    @Inject
+    InterningTypeAdapterFactory(@Named(BitbucketConstants.INTERNING) final boolean enabled) {
+        this.interners = enabled
+                ? ImmutableMap.<Class<?>, Interner<Object>> builder()
+                        .put(Person.class, Interners.newWeakInterner())
+                        .put(User.class, Interners.newWeakInterner())
+                        .put(Project.class, Interners.newWeakInterner())
+                        .put(MinimalRepository.class, Interners.newWeakInterner())
+                        .put(Reference.class, Interners.newWeakInterner())
+                        .build()
+                : ImmutableMap.of();
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+        final Interner<Object> interner = interners.get(type.getRawType());
+        if (interner == null) {
+            return null;
+        }
+        return new InterningTypeAdapter<>(gson.getDelegateAdapter(this, type), interner);
+    }
+
+    private static final class InterningTypeAdapter<T> extends TypeAdapter<T> {
+
+        private final TypeAdapter<T> delegate;
+        private final Interner<Object> interner;
+
+        InterningTypeAdapter(final TypeAdapter<T> delegate, final Interner<Object> interner) {
+            this.delegate = delegate;
+            this.interner = interner;
+        }
+
+        @Override
+        public void write(final JsonWriter out, final T value) throws IOException {
+            delegate.write(out, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T read(final JsonReader in) throws IOException {
+            final T value = delegate.read(in);
+            return value != null
+                    ? (T) interner.intern(value)
+                    : null;
+        }
+    }
+}
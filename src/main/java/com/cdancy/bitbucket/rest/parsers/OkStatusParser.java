@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.parsers;
+
+import static org.jclouds.http.HttpUtils.releasePayload;
+
+import com.google.common.base.Function;
+import jakarta.inject.Singleton;
+import org.jclouds.http.HttpResponse;
+
+/**
+ * Turn a successful response into true only if it was a 200 (OK), e.g. to
+ * tell a 204 (No Content) apart, without ever reading its body.
+ */
+@Singleton
+public class OkStatusParser implements Function<HttpResponse, Boolean> {
+
+    @Override
+    public Boolean apply(final HttpResponse input) {
+        releasePayload(input);
+        return input.getStatusCode() == 200;
+    }
+}
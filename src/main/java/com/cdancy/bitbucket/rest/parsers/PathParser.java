@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.parsers;
+
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.rest.InvocationContext;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+/**
+ * Copy the body of a response, byte for byte, into the `Path` passed along
+ * to the invoked method. The body is transferred through NIO channels and is
+ * never decoded into a String which makes this safe for large and/or binary
+ * files. It is first written to a temporary file next to the target, moved
+ * into place once complete and as long as announced by `Content-Length`, so
+ * that a failed transfer never leaves a truncated file behind nor clobbers
+ * an existing one.
+ */
+public class PathParser implements Function<HttpResponse, Path>, InvocationContext<PathParser> {
+
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private Path target;
+
+    @Override
+    public PathParser setContext(final HttpRequest request) {
+        for (final Object arg : ((GeneratedHttpRequest) request).getInvocation().getArgs()) {
+            if (arg instanceof Path) {
+                this.target = (Path) arg;
+            }
+        }
+        if (this.target == null) {
+            throw new IllegalArgumentException("No target Path passed to " + request.getRequestLine());
+        }
+        return this;
+    }
+
+    @Override
+    public Path apply(final HttpResponse input) {
+        Path partial = null;
+        try {
+            partial = Files.createTempFile(target.toAbsolutePath().getParent(),
+                    "." + target.getFileName(), PARTIAL_SUFFIX);
+            try (final FileChannel out = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                if (input.getPayload() != null) {
+                    try (final InputStream inputStream = input.getPayload().openStream();
+                            final ReadableByteChannel in = Channels.newChannel(inputStream)) {
+                        long position = 0;
+                        long transferred;
+                        while ((transferred = out.transferFrom(in, position, Long.MAX_VALUE)) > 0) {
+                            position += transferred;
+                        }
+                        // HttpURLConnection reports a connection closed early as a mere end of stream
+                        final Long contentLength = input.getPayload().getContentMetadata().getContentLength();
+                        if (contentLength != null && contentLength != position) {
+                            throw new IOException("Expected " + contentLength + " bytes but received " + position
+                                    + " for " + target);
+                        }
+                    }
+                }
+            }
+            move(partial, target);
+            partial = null;
+            return target;
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        } finally {
+            if (partial != null) {
+                try {
+                    Files.deleteIfExists(partial);
+                } catch (final IOException ignore) {
+                    // nothing more can be done, the transfer failure is what matters
+                }
+            }
+        }
+    }
+
+    private static void move(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.parsers;
+
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.reflect.TypeToken;
+import com.google.gson.Gson;
+
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.rest.InvocationContext;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+/**
+ * Hand back the body of a page response as a {@link StreamingPage} whose values
+ * are decoded lazily. The value type is resolved from the generic return type
+ * of the invoked method (e.g. `StreamingPage&lt;Commit&gt;`).
+ */
+public class StreamingPageParser implements Function<HttpResponse, StreamingPage<?>>, InvocationContext<StreamingPageParser> {
+
+    private final Gson gson;
+    private Type valueType;
+
+    @Inject
+    StreamingPageParser(final Gson gson) {
+        this.gson = gson;
+    }
+
+    @Override
+    public StreamingPageParser setContext(final HttpRequest request) {
+        final TypeToken<?> returnType = ((GeneratedHttpRequest) request).getInvocation().getInvokable().getReturnType();
+        this.valueType = returnType.resolveType(StreamingPage.class.getTypeParameters()[0]).getType();
+        return this;
+    }
+
+    @Override
+    public StreamingPage<?> apply(final HttpResponse input) {
+        if (input.getPayload() == null) {
+            return StreamingPage.fromErrors(Collections.emptyList());
+        }
+        try {
+            return StreamingPage.create(new InputStreamReader(input.getPayload().openStream(), StandardCharsets.UTF_8),
+                    gson,
+                    valueType);
+        } catch (final IOException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+}
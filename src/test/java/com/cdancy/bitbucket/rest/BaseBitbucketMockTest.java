@@ -79,6 +79,21 @@ public class BaseBitbucketMockTest {
                 .buildApi(BitbucketApi.class);
     }
 
+    /**
+     * Create client from passed URL.
+     *
+     * @param url endpoint of instance.
+     * @return instance of BitbucketClient.
+     */
+    public BitbucketClient client(final URL url) {
+        return BitbucketClient.builder()
+                .endPoint(url.toString())
+                .credentials("hello:world")
+                .overrides(setupProperties())
+                .modules(new SLF4JLoggingModule())
+                .build();
+    }
+
     protected Properties setupProperties() {
         final Properties properties = new Properties();
         properties.setProperty(Constants.PROPERTY_MAX_RETRIES, "0");
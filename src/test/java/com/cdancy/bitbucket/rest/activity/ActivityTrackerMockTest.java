@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.activity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketApi;
+import com.cdancy.bitbucket.rest.domain.activities.Activities;
+import com.google.common.collect.ImmutableMap;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link ActivityTracker} class.
+ */
+@Test(groups = "unit", testName = "ActivityTrackerMockTest")
+public class ActivityTrackerMockTest extends BaseBitbucketMockTest {
+
+    private final String projectKey = "PRJ";
+    private final String repoKey = "my-repo";
+    private final long pullRequestId = 42;
+
+    public void testOnlyPagesUntilKnownActivity() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        // first sync: whole history over two pages
+        server.enqueue(new MockResponse().setBody(page(false, 2, 104, 103)).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(page(true, 0, 102, 101)).setResponseCode(200));
+        // second sync: two new activities, the third one is already known
+        server.enqueue(new MockResponse().setBody(page(false, 3, 106, 105, 104)).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final InMemoryCheckpointStore store = new InMemoryCheckpointStore();
+            final ActivityTracker tracker = ActivityTracker.builder(baseApi.pullRequestApi(), store).pageSize(2).build();
+
+            final List<Long> seen = new ArrayList<>();
+            ActivitySyncResult result = tracker.sync(projectKey, repoKey, pullRequestId, activity -> seen.add(activity.id()));
+            assertThat(result.errors()).isEmpty();
+            assertThat(result.pages()).isEqualTo(2);
+            assertThat(result.activities()).isEqualTo(4);
+            assertThat(seen).containsExactly(104L, 103L, 102L, 101L);
+            assertThat(store.load(projectKey, repoKey, pullRequestId).activityId()).isEqualTo(104);
+
+            seen.clear();
+            result = tracker.sync(projectKey, repoKey, pullRequestId, activity -> seen.add(activity.id()));
+            assertThat(result.pages()).isEqualTo(1);
+            assertThat(seen).containsExactly(106L, 105L);
+            assertThat(result.checkpoint().activityId()).isEqualTo(106);
+            assertThat(result.checkpoint().createdDate()).isEqualTo(createdDate(106));
+            assertThat(store.load(projectKey, repoKey, pullRequestId)).isEqualTo(result.checkpoint());
+
+            assertThat(server.getRequestCount()).isEqualTo(3);
+            final String path = "/rest/api/1.0/projects/" + projectKey + "/repos/" + repoKey
+                    + "/pull-requests/" + pullRequestId + "/activities";
+            assertSent(server, "GET", path, ImmutableMap.of("limit", 2, "start", 0));
+            assertSent(server, "GET", path, ImmutableMap.of("limit", 2, "start", 2));
+            assertSent(server, "GET", path, ImmutableMap.of("limit", 2, "start", 0));
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testSkipsActivityShiftedOntoLaterPage() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(page(false, 2, 104, 103)).setResponseCode(200));
+        // activity 105 was created in between, pushing 103 onto this page
+        server.enqueue(new MockResponse().setBody(page(true, 0, 103, 102)).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final ActivityTracker tracker = ActivityTracker.builder(baseApi.pullRequestApi(), new InMemoryCheckpointStore())
+                    .pageSize(2)
+                    .build();
+
+            final List<Long> seen = new ArrayList<>();
+            final ActivitySyncResult result = tracker.sync(projectKey, repoKey, pullRequestId, activity -> seen.add(activity.id()));
+            assertThat(seen).containsExactly(104L, 103L, 102L);
+            assertThat(result.activities()).isEqualTo(3);
+            assertThat(result.checkpoint().activityId()).isEqualTo(104);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testStopsOnNonAdvancingCursor() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        // not the last page, yet no cursor to the next one
+        server.enqueue(new MockResponse().setBody(page(false, 0, 104, 103)).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(page(false, 0, 104, 103)).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final ActivityTracker tracker = ActivityTracker.builder(baseApi.pullRequestApi(), new InMemoryCheckpointStore())
+                    .pageSize(2)
+                    .build();
+
+            final List<Long> seen = new ArrayList<>();
+            final ActivitySyncResult result = tracker.sync(projectKey, repoKey, pullRequestId, activity -> seen.add(activity.id()));
+            assertThat(seen).containsExactly(104L, 103L);
+            assertThat(result.pages()).isEqualTo(1);
+            assertThat(server.getRequestCount()).isEqualTo(1);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testFailedSyncKeepsCheckpoint() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(page(false, 2, 104, 103)).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/pull-request-activities-error.json")).setResponseCode(404));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final InMemoryCheckpointStore store = new InMemoryCheckpointStore();
+            final ActivityCheckpoint checkpoint = ActivityCheckpoint.create(projectKey, repoKey, pullRequestId, 100, createdDate(100));
+            store.save(checkpoint);
+            final ActivityTracker tracker = ActivityTracker.builder(baseApi.pullRequestApi(), store).pageSize(2).build();
+
+            final ActivitySyncResult result = tracker.sync(projectKey, repoKey, pullRequestId, activity -> { });
+            assertThat(result.errors()).isNotEmpty();
+            assertThat(result.activities()).isEqualTo(2);
+            assertThat(result.checkpoint()).isEqualTo(checkpoint);
+            assertThat(store.load(projectKey, repoKey, pullRequestId)).isEqualTo(checkpoint);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testFileCheckpointStoreSurvivesReload() throws Exception {
+        final Path dir = Files.createTempDirectory("checkpoints");
+        final Path file = dir.resolve("activity.properties");
+        try {
+            final FileCheckpointStore store = new FileCheckpointStore(file);
+            assertThat(store.load(projectKey, repoKey, pullRequestId)).isNull();
+
+            final ActivityCheckpoint first = ActivityCheckpoint.create(projectKey, repoKey, pullRequestId, 104, createdDate(104));
+            final ActivityCheckpoint second = ActivityCheckpoint.create(projectKey, "other-repo", 7, 12, createdDate(12));
+            store.save(first);
+            store.save(second);
+            store.remove(projectKey, "other-repo", 7);
+
+            final FileCheckpointStore reloaded = new FileCheckpointStore(file);
+            assertThat(reloaded.load(projectKey, repoKey, pullRequestId)).isEqualTo(first);
+            assertThat(reloaded.load(projectKey, "other-repo", 7)).isNull();
+            assertThat(dir.toFile().list()).containsExactly("activity.properties");
+        } finally {
+            for (final File child : dir.toFile().listFiles()) {
+                Files.delete(child.toPath());
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static long createdDate(final long id) {
+        return 1489604183807L + id * 1000;
+    }
+
+    private static String page(final boolean isLastPage, final int nextPageStart, final long... ids) {
+        final StringBuilder json = new StringBuilder("{\"values\":[");
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(ids[i])
+                    .append(",\"createdDate\":").append(createdDate(ids[i]))
+                    .append(",\"action\":\"").append(Activities.ActivitiesType.COMMENTED)
+                    .append("\",\"user\":{\"name\":\"test123\",\"emailAddress\":\"test123@asdf.com\",\"id\":45,"
+                            + "\"displayName\":\"test123\",\"active\":true,\"slug\":\"test123\",\"type\":\"NORMAL\"}}");
+        }
+        json.append("],\"size\":").append(ids.length).append(",\"isLastPage\":").append(isLastPage);
+        if (!isLastPage) {
+            json.append(",\"nextPageStart\":").append(nextPageStart);
+        }
+        return json.append('}').toString();
+    }
+}
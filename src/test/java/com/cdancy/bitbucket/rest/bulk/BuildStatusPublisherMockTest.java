@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketApi;
+import com.cdancy.bitbucket.rest.features.BuildStatusApi;
+import com.cdancy.bitbucket.rest.options.CreateBuildStatus;
+import com.google.common.reflect.Reflection;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link BuildStatusPublisher} class.
+ */
+@Test(groups = "unit", testName = "BuildStatusPublisherMockTest")
+public class BuildStatusPublisherMockTest extends BaseBitbucketMockTest {
+
+    private final String commitHash = "306bcf274566f2e89f75ae6f7faf10beff383820";
+    private final String otherCommitHash = "d3f1e16b1e2c3a4b5c6d7e8f9a0b1c2d3e4f5a6b";
+    private final String buildUrl = "https://bamboo.example.com/browse/REPO-MASTER-42";
+
+    public void testCoalescesUpdatesForSameCommitAndKey() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(204));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final BuildStatusPublisher publisher = BuildStatusPublisher.builder(baseApi.buildStatusApi())
+                        .linger(Duration.ofHours(1))
+                        .maxConcurrency(1)
+                        .build()) {
+
+            final CompletableFuture<BuildStatusResult> inProgress = publisher.publish(commitHash, status(CreateBuildStatus.STATE.INPROGRESS, "REPO-MASTER"));
+            final CompletableFuture<BuildStatusResult> successful = publisher.publish(commitHash.toUpperCase(), status(CreateBuildStatus.STATE.SUCCESSFUL, "REPO-MASTER"));
+            final CompletableFuture<BuildStatusResult> otherCommit = publisher.publish(otherCommitHash, status(CreateBuildStatus.STATE.FAILED, "REPO-MASTER"));
+            assertThat(publisher.pending()).isEqualTo(2);
+
+            publisher.flush().get(10, TimeUnit.SECONDS);
+            assertThat(server.getRequestCount()).isEqualTo(2);
+            assertThat(server.takeRequest().getBody().readUtf8()).contains("SUCCESSFUL").doesNotContain("INPROGRESS");
+            assertThat(server.takeRequest().getPath()).contains(otherCommitHash);
+
+            assertThat(inProgress.get().superseded()).isTrue();
+            assertThat(inProgress.get().buildStatus().state()).isEqualTo("SUCCESSFUL");
+            assertThat(inProgress.get().success()).isTrue();
+            assertThat(successful.get().superseded()).isFalse();
+            assertThat(successful.get().success()).isTrue();
+            assertThat(otherCommit.get().success()).isTrue();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testReportsPerItemResults() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(204));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/errors.json")).setResponseCode(400));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final BuildStatusPublisher publisher = BuildStatusPublisher.builder(baseApi.buildStatusApi())
+                        .linger(Duration.ofHours(1))
+                        .maxConcurrency(1)
+                        .build()) {
+
+            final CompletableFuture<BuildStatusResult> first = publisher.publish(commitHash, status(CreateBuildStatus.STATE.SUCCESSFUL, "UNIT"));
+            final CompletableFuture<BuildStatusResult> second = publisher.publish(commitHash, status(CreateBuildStatus.STATE.FAILED, "INTEGRATION"));
+            publisher.flush().get(10, TimeUnit.SECONDS);
+
+            assertThat(first.get().success()).isTrue();
+            assertThat(second.get().success()).isFalse();
+            assertThat(second.get().requestStatus().errors()).isNotEmpty();
+            assertThat(second.get().buildStatus().key()).isEqualTo("INTEGRATION");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testFlushesWhenBatchIsFull() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(204));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final BuildStatusPublisher publisher = BuildStatusPublisher.builder(baseApi.buildStatusApi())
+                        .linger(Duration.ofHours(1))
+                        .maxBatchSize(2)
+                        .build()) {
+
+            final CompletableFuture<BuildStatusResult> first = publisher.publish(commitHash, status(CreateBuildStatus.STATE.SUCCESSFUL, "UNIT"));
+            final CompletableFuture<BuildStatusResult> second = publisher.publish(commitHash, status(CreateBuildStatus.STATE.SUCCESSFUL, "INTEGRATION"));
+
+            assertThat(first.get(10, TimeUnit.SECONDS).success()).isTrue();
+            assertThat(second.get(10, TimeUnit.SECONDS).success()).isTrue();
+            assertThat(server.getRequestCount()).isEqualTo(2);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testFlushesAfterLinger() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(204));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final BuildStatusPublisher publisher = BuildStatusPublisher.builder(baseApi.buildStatusApi())
+                        .linger(Duration.ofMillis(50))
+                        .build()) {
+
+            final CompletableFuture<BuildStatusResult> result = publisher.publish(commitHash, status(CreateBuildStatus.STATE.SUCCESSFUL, "UNIT"));
+            assertThat(result.get(10, TimeUnit.SECONDS).success()).isTrue();
+            assertThat(server.getRequestCount()).isEqualTo(1);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testCloseSendsQueuedUpdates() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(204));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final BuildStatusPublisher publisher = BuildStatusPublisher.builder(baseApi.buildStatusApi())
+                    .linger(Duration.ofHours(1))
+                    .build();
+
+            final CompletableFuture<BuildStatusResult> result = publisher.publish(commitHash, status(CreateBuildStatus.STATE.SUCCESSFUL, "UNIT"));
+            publisher.close();
+
+            assertThat(result.isDone()).isTrue();
+            assertThat(result.get().success()).isTrue();
+            assertThatThrownBy(() -> publisher.publish(commitHash, status(CreateBuildStatus.STATE.FAILED, "UNIT")))
+                    .isInstanceOf(IllegalStateException.class);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testErrorCompletesUpdateAndFreesKey() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(204));
+        final AtomicInteger calls = new AtomicInteger();
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final BuildStatusApi api = baseApi.buildStatusApi();
+            // the first update fails with an Error rather than an exception
+            final BuildStatusApi failingOnce = Reflection.newProxy(BuildStatusApi.class, (proxy, method, args) -> {
+                if (calls.getAndIncrement() == 0) {
+                    throw new AssertionError("add failed");
+                }
+                return method.invoke(api, args);
+            });
+            try (final BuildStatusPublisher publisher = BuildStatusPublisher.builder(failingOnce)
+                    .linger(Duration.ofHours(1))
+                    .maxConcurrency(1)
+                    .build()) {
+
+                final CompletableFuture<BuildStatusResult> failed = publisher.publish(commitHash, status(CreateBuildStatus.STATE.INPROGRESS, "UNIT"));
+                publisher.flush().get(10, TimeUnit.SECONDS);
+                assertThat(failed.get(10, TimeUnit.SECONDS).success()).isFalse();
+                assertThat(failed.get().error()).isInstanceOf(AssertionError.class);
+
+                final CompletableFuture<BuildStatusResult> retried = publisher.publish(commitHash, status(CreateBuildStatus.STATE.SUCCESSFUL, "UNIT"));
+                publisher.flush().get(10, TimeUnit.SECONDS);
+                assertThat(retried.get(10, TimeUnit.SECONDS).success()).isTrue();
+                assertThat(server.getRequestCount()).isEqualTo(1);
+            }
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private CreateBuildStatus status(final CreateBuildStatus.STATE state, final String key) {
+        return CreateBuildStatus.create(state, key, key + "-42", buildUrl, null);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketApi;
+import com.cdancy.bitbucket.rest.domain.insights.Annotation;
+import com.cdancy.bitbucket.rest.features.InsightsApi;
+import com.google.common.reflect.Reflection;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link InsightsUploader} class.
+ */
+@Test(groups = "unit", testName = "InsightsUploaderMockTest")
+public class InsightsUploaderMockTest extends BaseBitbucketMockTest {
+
+    private final String projectKey = "PRJ";
+    private final String repoKey = "my-repo";
+    private final String commitHash = "abcdef0123abcdef4567abcdef8987abcdef6543";
+    private final String reportKey = "sonar";
+
+    public void testUploadsChunksInParallelAndReportsFailures() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        final String errors = payloadFromResource("/errors.json");
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(final RecordedRequest request) throws InterruptedException {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(100);
+                    final JsonObject body = JsonParser.parseString(request.getUtf8Body()).getAsJsonObject();
+                    // the short, final, chunk is rejected
+                    return body.getAsJsonArray("annotations").size() < 3
+                            ? new MockResponse().setBody(errors).setResponseCode(400)
+                            : new MockResponse().setResponseCode(204);
+                } finally {
+                    concurrent.decrementAndGet();
+                }
+            }
+        });
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final InsightsUploader uploader = InsightsUploader.builder(baseApi.insightsApi())
+                        .chunkSize(3)
+                        .parallelism(2)
+                        .build()) {
+
+            final AnnotationUploadResult result = uploader.upload(projectKey, repoKey, commitHash, reportKey, annotations(11));
+
+            assertThat(server.getRequestCount()).isEqualTo(4);
+            assertThat(maxConcurrent.get()).isEqualTo(2);
+            assertThat(result.chunks()).hasSize(4);
+            assertThat(result.success()).isFalse();
+            assertThat(result.uploaded()).isEqualTo(9);
+            assertThat(result.failedChunks()).hasSize(1);
+
+            final AnnotationChunkResult failed = result.failedChunks().get(0);
+            assertThat(failed.index()).isEqualTo(3);
+            assertThat(failed.offset()).isEqualTo(9);
+            assertThat(failed.size()).isEqualTo(2);
+            assertThat(failed.requestStatus().errors()).isNotEmpty();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testStreamsAnnotationsAsJson() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(204));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final InsightsUploader uploader = InsightsUploader.builder(baseApi.insightsApi()).build()) {
+
+            final AnnotationUploadResult result = uploader.upload(projectKey, repoKey, commitHash, reportKey, annotations(1));
+            assertThat(result.success()).isTrue();
+            assertThat(result.uploaded()).isEqualTo(1);
+
+            assertSent(server, "POST", "/rest/insights/1.0/projects/" + projectKey
+                    + "/repos/" + repoKey + "/commits/" + commitHash
+                    + "/reports/" + reportKey + "/annotations",
+                    "{\"annotations\":[{\"externalId\":\"finding-0\",\"line\":1,"
+                    + "\"message\":\"Finding 0\",\"path\":\"src/Main.java\",\"severity\":\"HIGH\",\"type\":\"BUG\"}]}");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testEmptyUploadSendsNothing() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final InsightsUploader uploader = InsightsUploader.builder(baseApi.insightsApi()).build()) {
+
+            final AnnotationUploadResult result = uploader.upload(projectKey, repoKey, commitHash, reportKey,
+                    Collections.<Annotation>emptyList());
+            assertThat(result.success()).isTrue();
+            assertThat(result.chunks()).isEmpty();
+            assertThat(server.getRequestCount()).isEqualTo(0);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testErrorIsReportedForItsChunk() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(204));
+        final AtomicInteger calls = new AtomicInteger();
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final InsightsApi api = baseApi.insightsApi();
+            // the first chunk fails with an Error rather than an exception
+            final InsightsApi failingOnce = Reflection.newProxy(InsightsApi.class, (proxy, method, args) -> {
+                if (calls.getAndIncrement() == 0) {
+                    throw new AssertionError("upload failed");
+                }
+                return method.invoke(api, args);
+            });
+            try (final InsightsUploader uploader = InsightsUploader.builder(failingOnce)
+                    .chunkSize(3)
+                    .parallelism(1)
+                    .build()) {
+
+                final AnnotationUploadResult result = uploader.upload(projectKey, repoKey, commitHash, reportKey, annotations(6));
+                assertThat(result.success()).isFalse();
+                assertThat(result.uploaded()).isEqualTo(3);
+                assertThat(result.failedChunks()).hasSize(1);
+                assertThat(result.failedChunks().get(0).index()).isEqualTo(0);
+                assertThat(result.failedChunks().get(0).error()).isInstanceOf(AssertionError.class);
+                assertThat(server.getRequestCount()).isEqualTo(1);
+            }
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testChunkSizeIsBoundedByServerLimit() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            assertThatThrownBy(() -> InsightsUploader.builder(baseApi.insightsApi()).chunkSize(InsightsUploader.MAX_CHUNK_SIZE + 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static List<Annotation> annotations(final int count) {
+        final List<Annotation> annotations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            annotations.add(Annotation.create(null, "finding-" + i, i + 1, null, "Finding " + i,
+                    "src/Main.java", Annotation.AnnotationSeverity.HIGH, Annotation.AnnotationType.BUG));
+        }
+        return annotations;
+    }
+}
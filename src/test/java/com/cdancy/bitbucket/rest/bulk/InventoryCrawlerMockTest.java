@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link InventoryCrawler} class.
+ */
+@Test(groups = "unit", testName = "InventoryCrawlerMockTest")
+public class InventoryCrawlerMockTest extends BaseBitbucketMockTest {
+
+    private final String projectsPath = "/rest/api/1.0/projects";
+
+    public void testCrawlsAllRepositoriesAndResumes() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final Map<String, String> responses = new ConcurrentHashMap<>();
+        responses.put(projectsPath, "/project-page-full.json");
+        responses.put(projectsPath + "/PRJ1/repos", "/repository-page-full.json");
+        responses.put(projectsPath + "/PRJ2/repos", "/repository-page-single.json");
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        server.setDispatcher(new InventoryDispatcher(responses, concurrent, maxConcurrent, true));
+
+        final HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(2);
+        final InMemoryCrawlProgress progress = new InMemoryCrawlProgress();
+        try (final BitbucketClient client = client(server.getUrl("/"));
+                final InventoryCrawler crawler = InventoryCrawler.builder(client)
+                        .parallelism(4)
+                        .limiter(limiter)
+                        .progress(progress)
+                        .build()) {
+
+            final Queue<RepositoryInventory> inventory = new ConcurrentLinkedQueue<>();
+            InventoryCrawlResult result = crawler.crawl(inventory::add);
+            assertThat(result.projects()).isEqualTo(2);
+            assertThat(result.repositories()).isEqualTo(4);
+            assertThat(result.skippedProjects()).isEqualTo(0);
+            assertThat(result.failures()).containsOnlyKeys("PRJ3");
+            assertThat(progress.isCompleted("PRJ1")).isTrue();
+            assertThat(progress.isCompleted("PRJ3")).isFalse();
+            assertThat(maxConcurrent.get()).isLessThanOrEqualTo(2);
+            assertThat(limiter.inFlight(client.endPoint())).isEqualTo(0);
+
+            assertThat(inventory).hasSize(4);
+            for (final RepositoryInventory repository : inventory) {
+                assertThat(repository.errors()).isEmpty();
+                assertThat(repository.defaultBranch().displayId()).isNotNull();
+                assertThat(repository.pullRequestSettings()).isNotNull();
+                assertThat(repository.hooks()).hasSize(3);
+            }
+
+            // PRJ3 now exists: only it is crawled again
+            responses.put(projectsPath + "/PRJ3/repos", "/repository-page-single.json");
+            inventory.clear();
+            result = crawler.crawl(inventory::add);
+            assertThat(result.success()).isTrue();
+            assertThat(result.projects()).isEqualTo(1);
+            assertThat(result.skippedProjects()).isEqualTo(2);
+            assertThat(result.repositories()).isEqualTo(1);
+            assertThat(inventory).hasSize(1);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testReportsMissingParts() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final Map<String, String> responses = new ConcurrentHashMap<>();
+        responses.put(projectsPath, "/project-page-full.json");
+        responses.put(projectsPath + "/PRJ1/repos", "/repository-page-single.json");
+        responses.put(projectsPath + "/PRJ2/repos", "/repository-page-empty.json");
+        responses.put(projectsPath + "/PRJ3/repos", "/repository-page-empty.json");
+        server.setDispatcher(new InventoryDispatcher(responses, new AtomicInteger(), new AtomicInteger(), false));
+
+        try (final BitbucketClient client = client(server.getUrl("/"));
+                final InventoryCrawler crawler = InventoryCrawler.builder(client).build()) {
+
+            final Queue<RepositoryInventory> inventory = new ConcurrentLinkedQueue<>();
+            final InventoryCrawlResult result = crawler.crawl(inventory::add);
+            assertThat(result.success()).isTrue();
+            assertThat(result.projects()).isEqualTo(3);
+            assertThat(inventory).hasSize(1);
+
+            final RepositoryInventory repository = inventory.peek();
+            assertThat(repository.repository().slug()).isEqualTo("my-repo");
+            assertThat(repository.defaultBranch()).isNull();
+            assertThat(repository.errors()).isNotEmpty();
+            assertThat(repository.pullRequestSettings()).isNotNull();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testSinkErrorFailsProject() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final Map<String, String> responses = new ConcurrentHashMap<>();
+        responses.put(projectsPath, "/project-page-full.json");
+        responses.put(projectsPath + "/PRJ1/repos", "/repository-page-single.json");
+        responses.put(projectsPath + "/PRJ2/repos", "/repository-page-empty.json");
+        responses.put(projectsPath + "/PRJ3/repos", "/repository-page-empty.json");
+        server.setDispatcher(new InventoryDispatcher(responses, new AtomicInteger(), new AtomicInteger(), true));
+
+        final InMemoryCrawlProgress progress = new InMemoryCrawlProgress();
+        try (final BitbucketClient client = client(server.getUrl("/"));
+                final InventoryCrawler crawler = InventoryCrawler.builder(client)
+                        .progress(progress)
+                        .build()) {
+
+            final InventoryCrawlResult result = crawler.crawl(repository -> {
+                throw new AssertionError("sink failed");
+            });
+            assertThat(result.success()).isFalse();
+            assertThat(result.projects()).isEqualTo(2);
+            assertThat(result.failures()).containsOnlyKeys("PRJ1");
+            assertThat(result.failures().get("PRJ1")).isInstanceOf(AssertionError.class);
+            assertThat(progress.isCompleted("PRJ1")).isFalse();
+            assertThat(progress.isCompleted("PRJ2")).isTrue();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testFileCrawlProgressSurvivesReload() throws Exception {
+        final Path dir = Files.createTempDirectory("crawl");
+        final Path file = dir.resolve("crawl.progress");
+        try {
+            final FileCrawlProgress progress = new FileCrawlProgress(file);
+            progress.markCompleted("PRJ1");
+            progress.markCompleted("PRJ2");
+            progress.markCompleted("PRJ1");
+
+            final FileCrawlProgress reloaded = new FileCrawlProgress(file);
+            assertThat(reloaded.isCompleted("PRJ1")).isTrue();
+            assertThat(reloaded.isCompleted("PRJ2")).isTrue();
+            assertThat(reloaded.isCompleted("PRJ3")).isFalse();
+            assertThat(Files.readAllLines(file)).containsExactly("PRJ1", "PRJ2");
+        } finally {
+            for (final File child : dir.toFile().listFiles()) {
+                Files.delete(child.toPath());
+            }
+            Files.delete(dir);
+        }
+    }
+
+    /**
+     * Serves fixtures by request path: exact matches first, then the
+     * per-repository endpoints. Anything else answers 404.
+     */
+    private final class InventoryDispatcher extends Dispatcher {
+
+        private final Map<String, String> responses;
+        private final AtomicInteger concurrent;
+        private final AtomicInteger maxConcurrent;
+        private final boolean hasDefaultBranch;
+
+        InventoryDispatcher(final Map<String, String> responses,
+                final AtomicInteger concurrent,
+                final AtomicInteger maxConcurrent,
+                final boolean hasDefaultBranch) {
+            this.responses = responses;
+            this.concurrent = concurrent;
+            this.maxConcurrent = maxConcurrent;
+            this.hasDefaultBranch = hasDefaultBranch;
+        }
+
+        @Override
+        public MockResponse dispatch(final RecordedRequest request) throws InterruptedException {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(10);
+                final String path = request.getPath().contains("?")
+                        ? request.getPath().substring(0, request.getPath().indexOf('?'))
+                        : request.getPath();
+                if (responses.containsKey(path)) {
+                    return ok(responses.get(path));
+                }
+                if (path.endsWith("/branches/default")) {
+                    return hasDefaultBranch
+                            ? ok("/branch-default.json")
+                            : notFound("/branch-list-error.json");
+                }
+                if (path.endsWith("/settings/pull-requests")) {
+                    return ok("/pull-request-settings.json");
+                }
+                if (path.endsWith("/settings/hooks")) {
+                    return ok("/repository-hooks.json");
+                }
+                return notFound("/repository-not-exist.json");
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        }
+
+        private MockResponse ok(final String resource) {
+            return new MockResponse().setBody(payloadFromResource(resource)).setResponseCode(200);
+        }
+
+        private MockResponse notFound(final String resource) {
+            return new MockResponse().setBody(payloadFromResource(resource)).setResponseCode(404);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketApi;
+import com.cdancy.bitbucket.rest.exception.PaginationException;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link JsonLinesExporter} class.
+ */
+@Test(groups = "unit", testName = "JsonLinesExporterMockTest")
+public class JsonLinesExporterMockTest extends BaseBitbucketMockTest {
+
+    public void testExportsEveryPageAsJsonLines() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final String lastPage = payloadFromResource("/admin-list-users.json");
+        server.enqueue(new MockResponse().setBody(lastPage.replace("\"isLastPage\": true", "\"isLastPage\": false, \"nextPageStart\": 1")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(lastPage).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final WritableByteChannel channel = Channels.newChannel(bytes);
+            final long written = JsonLinesExporter.builder().bufferSize(16).build()
+                    .export(start -> baseApi.adminApi().listUsersRaw(null, start, 1), channel);
+            assertThat(written).isEqualTo(2);
+            assertThat(channel.isOpen()).isTrue();
+
+            final List<String> lines = lines(bytes.toByteArray());
+            assertThat(lines).hasSize(2);
+
+            // written exactly as Bitbucket sent them
+            final JsonElement expected = JsonParser.parseString(lastPage).getAsJsonObject().getAsJsonArray("values").get(0);
+            assertThat(JsonParser.parseString(lines.get(0))).isEqualTo(expected);
+            assertThat(JsonParser.parseString(lines.get(1))).isEqualTo(expected);
+
+            assertSent(server, "GET", restBasePath + "1.0/admin/users", ImmutableMap.of("start", 0, "limit", 1));
+            assertSent(server, "GET", restBasePath + "1.0/admin/users", ImmutableMap.of("start", 1, "limit", 1));
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testGzipExport() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-permission-users.json")).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final long written = JsonLinesExporter.builder().gzip(true).build()
+                    .export(start -> baseApi.repositoryApi().listPermissionsByUserRaw("PRJ", "my-repo", start, 100),
+                            Channels.newChannel(bytes));
+
+            final byte[] unzipped = ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+            final List<String> lines = lines(unzipped);
+            assertThat(lines).hasSize((int) written);
+            final JsonObject permission = JsonParser.parseString(lines.get(0)).getAsJsonObject();
+            assertThat(permission.has("user")).isTrue();
+            assertThat(permission.has("permission")).isTrue();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testFailsOnPageErrors() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/project-permission-users-error.json")).setResponseCode(404));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            assertThatThrownBy(() -> JsonLinesExporter.builder().build()
+                    .export(start -> baseApi.projectApi().listPermissionsByUserRaw("PRJ", start, 100), Channels.newChannel(bytes)))
+                    .isInstanceOf(PaginationException.class);
+            assertThat(bytes.size()).isEqualTo(0);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static List<String> lines(final byte[] bytes) {
+        final String text = new String(bytes, StandardCharsets.UTF_8);
+        assertThat(text).endsWith("\n");
+        return Arrays.asList(text.split("\n"));
+    }
+}
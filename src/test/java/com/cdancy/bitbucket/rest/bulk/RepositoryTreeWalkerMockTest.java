@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link RepositoryTreeWalker} class.
+ */
+@Test(groups = "unit", testName = "RepositoryTreeWalkerMockTest")
+public class RepositoryTreeWalkerMockTest extends BaseBitbucketMockTest {
+
+    private final String repoPath = "/rest/api/1.0/projects/PRJ/repos/myrepo";
+    private final String commitId = "8d51122def5632836d1cb1026e879069e10a1e13";
+
+    public void testWalksTreeAndReplaysFromCache() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final Map<String, String> responses = new ConcurrentHashMap<>();
+        responses.put(repoPath + "/branches/default", "/branch-default.json");
+        responses.put(repoPath + "/browse", "/directory-root.json");
+        responses.put(repoPath + "/files/docs", "/files-page.json");
+        responses.put(repoPath + "/files/src", "/files-page-first.json");
+        responses.put(repoPath + "/files/src?start=2", "/files-page-last.json");
+        final TreeDispatcher dispatcher = new TreeDispatcher(responses);
+        server.setDispatcher(dispatcher);
+
+        try (final BitbucketClient client = client(server.getUrl("/"));
+                final RepositoryTreeWalker walker = RepositoryTreeWalker.builder(client)
+                        .parallelism(2)
+                        .build()) {
+
+            final Queue<String> paths = new ConcurrentLinkedQueue<>();
+            TreeWalkResult result = walker.walk("PRJ", "myrepo", null, paths::add);
+            assertThat(result.success()).isTrue();
+            assertThat(result.cached()).isFalse();
+            assertThat(result.commitId()).isEqualTo(commitId);
+            assertThat(result.files()).isEqualTo(5);
+            assertThat(paths).containsExactlyInAnyOrder("README.md",
+                    "docs/path/to/file.txt",
+                    "src/main/App.java",
+                    "src/main/Util.java",
+                    "src/test/AppTest.java");
+            assertThat(paths).doesNotContain("vendor");
+            for (final String request : dispatcher.requests) {
+                if (request.contains("/files/") || request.contains("/browse")) {
+                    assertThat(request).contains("at=" + commitId);
+                }
+            }
+            assertThat(server.getRequestCount()).isEqualTo(5);
+
+            // same commit, addressed by its hash: replayed without any request
+            final List<String> replayed = new ArrayList<>();
+            result = walker.walk("PRJ", "myrepo", commitId, replayed::add);
+            assertThat(result.success()).isTrue();
+            assertThat(result.cached()).isTrue();
+            assertThat(result.files()).isEqualTo(5);
+            assertThat(replayed).containsExactly("docs/path/to/file.txt",
+                    "src/main/App.java",
+                    "src/main/Util.java",
+                    "src/test/AppTest.java",
+                    "README.md");
+            assertThat(server.getRequestCount()).isEqualTo(5);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testTreesOverPathBoundAreNotCached() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final Map<String, String> responses = new ConcurrentHashMap<>();
+        responses.put(repoPath + "/browse", "/directory-root.json");
+        responses.put(repoPath + "/files/docs", "/files-page.json");
+        responses.put(repoPath + "/files/src", "/files-page-first.json");
+        responses.put(repoPath + "/files/src?start=2", "/files-page-last.json");
+        server.setDispatcher(new TreeDispatcher(responses));
+
+        try (final BitbucketClient client = client(server.getUrl("/"));
+                final RepositoryTreeWalker walker = RepositoryTreeWalker.builder(client)
+                        .cacheMaxPaths(4)
+                        .build()) {
+
+            TreeWalkResult result = walker.walk("PRJ", "myrepo", commitId, path -> { });
+            assertThat(result.success()).isTrue();
+            assertThat(result.files()).isEqualTo(5);
+            assertThat(server.getRequestCount()).isEqualTo(4);
+
+            result = walker.walk("PRJ", "myrepo", commitId, path -> { });
+            assertThat(result.cached()).isFalse();
+            assertThat(result.files()).isEqualTo(5);
+            assertThat(server.getRequestCount()).isEqualTo(8);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testFailedDirectoryIsNotCached() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final Map<String, String> responses = new ConcurrentHashMap<>();
+        responses.put(repoPath + "/commits/master", "/commit.json");
+        responses.put(repoPath + "/browse", "/directory-root.json");
+        responses.put(repoPath + "/files/docs", "/files-page.json");
+        server.setDispatcher(new TreeDispatcher(responses));
+
+        try (final BitbucketClient client = client(server.getUrl("/"));
+                final RepositoryTreeWalker walker = RepositoryTreeWalker.builder(client).build()) {
+
+            final Queue<String> paths = new ConcurrentLinkedQueue<>();
+            TreeWalkResult result = walker.walk("PRJ", "myrepo", "master", paths::add);
+            assertThat(result.success()).isFalse();
+            assertThat(result.failures()).containsOnlyKeys("src");
+            assertThat(result.commitId()).isEqualTo("abcdef0123abcdef4567abcdef8987abcdef6543");
+            assertThat(paths).containsExactlyInAnyOrder("README.md", "docs/path/to/file.txt");
+
+            // src now lists: the tree is listed again rather than replayed
+            responses.put(repoPath + "/files/src", "/files-page-last.json");
+            paths.clear();
+            result = walker.walk("PRJ", "myrepo", "master", paths::add);
+            assertThat(result.success()).isTrue();
+            assertThat(result.cached()).isFalse();
+            assertThat(paths).containsExactlyInAnyOrder("README.md", "docs/path/to/file.txt", "src/test/AppTest.java");
+
+            assertThatThrownBy(() -> walker.walk("PRJ", "myrepo", "missing", paths::add))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("missing");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    /**
+     * Serves fixtures by request path, followed by its `start` parameter
+     * when not at the first page. Anything else answers 404.
+     */
+    private final class TreeDispatcher extends Dispatcher {
+
+        private final Map<String, String> responses;
+        private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+
+        TreeDispatcher(final Map<String, String> responses) {
+            this.responses = responses;
+        }
+
+        @Override
+        public MockResponse dispatch(final RecordedRequest request) {
+            requests.add(request.getPath());
+            final int query = request.getPath().indexOf('?');
+            String key = query == -1 ? request.getPath() : request.getPath().substring(0, query);
+            for (final String param : request.getPath().substring(query + 1).split("&")) {
+                if (param.startsWith("start=") && !"start=0".equals(param)) {
+                    key += "?" + param;
+                }
+            }
+            final String resource = responses.get(key);
+            return resource != null
+                    ? new MockResponse().setBody(payloadFromResource(resource)).setResponseCode(200)
+                    : new MockResponse().setBody(payloadFromResource("/commit-error.json")).setResponseCode(404);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.features;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketApiMetadata;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.cdancy.bitbucket.rest.domain.repository.Repository;
+import com.cdancy.bitbucket.rest.domain.system.Version;
+import com.cdancy.bitbucket.rest.options.CreateRepository;
+import com.google.common.collect.Lists;
+import com.google.common.net.HttpHeaders;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.jclouds.Constants;
+import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link com.cdancy.bitbucket.rest.BitbucketAsyncApi} class.
+ */
+@Test(groups = "unit", testName = "BitbucketAsyncApiMockTest")
+public class BitbucketAsyncApiMockTest extends BaseBitbucketMockTest {
+
+    private final String projectKey = "PRJ";
+    private final String repoKey = "my-repo";
+    private final String getMethod = "GET";
+    private final String postMethod = "POST";
+    private final String reposPath = restBasePath + BitbucketApiMetadata.API_VERSION
+            + "/projects/" + projectKey + "/repos";
+    private final String repoPath = reposPath + "/" + repoKey;
+
+    public void testGetRepository() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository.json")).setResponseCode(200));
+        try (final BitbucketClient client = client(server.getUrl("/"))) {
+
+            final CompletableFuture<Repository> future = client.asyncApi().repositoryApi()
+                    .call(api -> api.get(projectKey, repoKey));
+            final Repository repository = future.get(10, TimeUnit.SECONDS);
+            assertThat(repository).isNotNull();
+            assertThat(repository.errors()).isEmpty();
+            assertThat(repository.slug()).isEqualToIgnoringCase(repoKey);
+            final RecordedRequest request = assertSent(server, getMethod, repoPath);
+            assertThat(request.getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Basic aGVsbG86d29ybGQ=");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testCreateRepositorySendsPayload() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository.json")).setResponseCode(201));
+        try (final BitbucketClient client = client(server.getUrl("/"))) {
+
+            final Repository repository = client.asyncApi().repositoryApi()
+                    .call(api -> api.create(projectKey, CreateRepository.create(repoKey, null, true)))
+                    .get(10, TimeUnit.SECONDS);
+            assertThat(repository.errors()).isEmpty();
+            assertSent(server, postMethod, reposPath,
+                    "{\"name\":\"" + repoKey + "\",\"scmId\":\"git\",\"forkable\":true}");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testErrorsGoThroughFallback() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-not-exist.json")).setResponseCode(404));
+        try (final BitbucketClient client = client(server.getUrl("/"))) {
+
+            final Repository repository = client.asyncApi().repositoryApi()
+                    .call(api -> api.get(projectKey, repoKey))
+                    .get(10, TimeUnit.SECONDS);
+            assertThat(repository).isNotNull();
+            assertThat(repository.errors()).isNotEmpty();
+            assertSent(server, getMethod, repoPath);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testConnectionFailureGoesThroughFallback() throws Exception {
+        final MockWebServer server = mockWebServer();
+        server.shutdown();
+
+        try (final BitbucketClient client = client(server.getUrl("/"))) {
+            final Repository repository = client.asyncApi().repositoryApi()
+                    .call(api -> api.get(projectKey, repoKey))
+                    .get(10, TimeUnit.SECONDS);
+            assertThat(repository.errors()).isNotEmpty();
+        }
+    }
+
+    public void testManyRequestsInFlightOnFewThreads() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final int requests = 32;
+        final String body = payloadFromResource("/version.json");
+        final CountDownLatch allArrived = new CountDownLatch(requests);
+        // no response goes out before every request has arrived
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(final RecordedRequest request) throws InterruptedException {
+                allArrived.countDown();
+                allArrived.await(10, TimeUnit.SECONDS);
+                return new MockResponse().setBody(body).setResponseCode(200);
+            }
+        });
+        final Properties overrides = setupProperties();
+        overrides.setProperty(Constants.PROPERTY_USER_THREADS, "2");
+        try (final BitbucketClient client = BitbucketClient.builder()
+                .endPoint(server.getUrl("/").toString())
+                .overrides(overrides)
+                .modules(new SLF4JLoggingModule())
+                .build()) {
+
+            final List<CompletableFuture<Version>> futures = Lists.newArrayList();
+            for (int i = 0; i < requests; i++) {
+                futures.add(client.asyncApi().systemApi().call(SystemApi::version));
+            }
+            for (final CompletableFuture<Version> future : futures) {
+                assertThat(future.get(20, TimeUnit.SECONDS).version()).isNotNull();
+            }
+            assertThat(allArrived.getCount()).isZero();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testCallMustInvokeOneEndpoint() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        try (final BitbucketClient client = client(server.getUrl("/"))) {
+            assertThatThrownBy(() -> client.asyncApi().repositoryApi().call(api -> null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> client.asyncApi().repositoryApi().call(api -> {
+                api.get(projectKey, repoKey);
+                return api.get(projectKey, "other");
+            })).isInstanceOf(IllegalStateException.class);
+            assertThat(server.getRequestCount()).isZero();
+        } finally {
+            server.shutdown();
+        }
+    }
+}
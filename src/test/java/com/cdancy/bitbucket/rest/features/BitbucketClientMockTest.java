@@ -19,10 +19,29 @@ package com.cdancy.bitbucket.rest.features;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.Constants;
+import org.testng.SkipException;
 import org.testng.annotations.Test;
 
+import com.cdancy.bitbucket.rest.BitbucketAuthentication;
 import com.cdancy.bitbucket.rest.BitbucketClient;
 import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.auth.AuthenticationType;
+import com.cdancy.bitbucket.rest.domain.system.Version;
+import com.google.common.collect.Lists;
+import com.google.common.net.HttpHeaders;
+import com.squareup.okhttp.mockwebserver.Dispatcher;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
 
 @Test(groups = "unit", testName = "BitbucketClientMockTest")
 public class BitbucketClientMockTest extends BaseBitbucketMockTest {
@@ -32,4 +51,160 @@ public class BitbucketClientMockTest extends BaseBitbucketMockTest {
         final BitbucketClient client = BitbucketClient.builder().build();
         assertThat(client).isNotNull();
     }
+
+    public void testVirtualThreadsFallBackCleanly() throws Exception {
+        try (final BitbucketClient client = BitbucketClient.builder().virtualThreads(true).build()) {
+            assertThat(client.api()).isNotNull();
+            assertThat(client.virtualThreads()).isEqualTo(Runtime.version().feature() >= 21);
+        }
+    }
+
+    public void testFeatureApisAreCreatedOnce() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        try (final BitbucketClient client = client(server.getUrl("/"))) {
+            final SystemApi systemApi = client.api().systemApi();
+            assertThat(client.api().systemApi()).isSameAs(systemApi);
+            assertThat(client.api().repositoryApi()).isSameAs(client.api().repositoryApi());
+            assertThat(systemApi.version().version()).isNotNull();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testUpdateAuthenticationWithoutRebuildingClient() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        try (final BitbucketClient client = client(server.getUrl("/"))) {
+            client.api().systemApi().version();
+            client.updateAuthentication(BitbucketAuthentication.builder().token("rotated-token").build());
+            client.api().systemApi().version();
+            client.updateAuthentication(BitbucketAuthentication.builder().build());
+            client.api().systemApi().version();
+
+            assertThat(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Basic aGVsbG86d29ybGQ=");
+            assertThat(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer rotated-token");
+            assertThat(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isNull();
+            assertThat(client.authType()).isEqualTo(AuthenticationType.Anonymous);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testRefreshAuthenticationFromSupplier() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        final AtomicInteger rotations = new AtomicInteger();
+        try (final BitbucketClient client = BitbucketClient.builder()
+                .endPoint(server.getUrl("/").toString())
+                .authentication(() -> BitbucketAuthentication.builder()
+                        .token("token-" + rotations.incrementAndGet()).build())
+                .overrides(setupProperties())
+                .build()) {
+            assertThat(client.authValue()).isEqualTo("token-1");
+            client.api().systemApi().version();
+            assertThat(client.refreshAuthentication().authValue()).isEqualTo("token-2");
+            client.api().systemApi().version();
+
+            assertThat(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer token-1");
+            assertThat(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer token-2");
+            assertThat(rotations.get()).isEqualTo(2);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testVirtualThreadsRaiseBlockingThroughput() throws Exception {
+        final int userThreads = 4;
+        final int callers = 32;
+
+        final Properties properties = setupProperties();
+        properties.setProperty(Constants.PROPERTY_USER_THREADS, String.valueOf(userThreads));
+        // a timeout makes jclouds run each blocking call on the user executor
+        properties.setProperty("jclouds.timeouts.system:version", "30000");
+        final CallStats virtual = blockingCalls(properties, true, callers);
+        final CallStats platform = blockingCalls(properties, false, callers);
+
+        assertThat(platform.maxInFlight).isLessThanOrEqualTo(userThreads);
+        assertThat(virtual.maxInFlight).isGreaterThan(userThreads);
+        assertThat(virtual.callsPerSecond()).isGreaterThan(platform.callsPerSecond() * 2);
+    }
+
+    /**
+     * Requests the server saw in flight at once and how long a batch of
+     * blocking calls took to complete.
+     */
+    private static final class CallStats {
+        private final int calls;
+        private final int maxInFlight;
+        private final long elapsedNanos;
+
+        CallStats(final int calls, final int maxInFlight, final long elapsedNanos) {
+            this.calls = calls;
+            this.maxInFlight = maxInFlight;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        double callsPerSecond() {
+            return calls / (elapsedNanos / 1e9);
+        }
+    }
+
+    /**
+     * Make one blocking call from each of the given number of caller threads
+     * against a slow server. Skips the test when virtual threads were asked
+     * for but the running JVM does not support them.
+     */
+    private CallStats blockingCalls(final Properties properties,
+            final boolean virtualThreads,
+            final int callers) throws Exception {
+        final MockWebServer server = mockWebServer();
+        final String body = payloadFromResource("/version.json");
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(final RecordedRequest request) throws InterruptedException {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(200);
+                    return new MockResponse().setBody(body).setResponseCode(200);
+                } finally {
+                    concurrent.decrementAndGet();
+                }
+            }
+        });
+
+        final ExecutorService callerThreads = Executors.newFixedThreadPool(callers);
+        try (final BitbucketClient client = BitbucketClient.builder()
+                .endPoint(server.getUrl("/").toString())
+                .overrides(properties)
+                .virtualThreads(virtualThreads)
+                .build()) {
+            if (virtualThreads && !client.virtualThreads()) {
+                throw new SkipException("virtual threads are not supported by this JVM");
+            }
+            final SystemApi api = client.api().systemApi();
+            final List<Callable<Version>> calls = Lists.newArrayList();
+            for (int i = 0; i < callers; i++) {
+                calls.add(api::version);
+            }
+            final long start = System.nanoTime();
+            for (final Future<Version> future : callerThreads.invokeAll(calls)) {
+                assertThat(future.get().version()).isNotNull();
+            }
+            final long elapsed = System.nanoTime() - start;
+            assertThat(server.getRequestCount()).isEqualTo(callers);
+            return new CallStats(callers, maxConcurrent.get(), elapsed);
+        } finally {
+            callerThreads.shutdownNow();
+            server.shutdown();
+        }
+    }
 }
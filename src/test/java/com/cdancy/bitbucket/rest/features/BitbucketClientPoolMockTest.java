@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.features;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.testng.annotations.Test;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketAuthentication;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.cdancy.bitbucket.rest.BitbucketClientPool;
+import com.cdancy.bitbucket.rest.domain.system.Version;
+import com.google.common.net.HttpHeaders;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+@Test(groups = "unit", testName = "BitbucketClientPoolMockTest")
+public class BitbucketClientPoolMockTest extends BaseBitbucketMockTest {
+
+    public void testClientsAuthenticateWithTheirOwnCredentials() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        try (final BitbucketClientPool pool = pool(server)) {
+            final BitbucketClient alice = pool.client(BitbucketAuthentication.builder().credentials("alice:secret").build());
+            final BitbucketClient bob = pool.client(BitbucketAuthentication.builder().token("bobs-token").build());
+            final BitbucketClient anonymous = pool.client(BitbucketAuthentication.builder().build());
+
+            final Version version = alice.api().systemApi().version();
+            assertThat(version.version()).isNotNull();
+            bob.api().systemApi().version();
+            anonymous.api().systemApi().version();
+
+            assertThat(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Basic YWxpY2U6c2VjcmV0");
+            assertThat(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer bobs-token");
+            assertThat(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isNull();
+            assertThat(alice.authValue()).isEqualTo("YWxpY2U6c2VjcmV0");
+            assertThat(alice.endPoint()).isEqualTo(pool.endPoint());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testAsyncApiUsesClientCredentials() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        try (final BitbucketClientPool pool = pool(server)) {
+            final BitbucketClient client = pool.client(BitbucketAuthentication.builder().token("async-token").build());
+
+            final Version version = client.asyncApi().systemApi()
+                    .call(SystemApi::version)
+                    .get(10, TimeUnit.SECONDS);
+            assertThat(version.version()).isNotNull();
+
+            final RecordedRequest request = server.takeRequest();
+            assertThat(request.getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer async-token");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testTimedOutCallsKeepClientCredentials() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        final Properties overrides = setupProperties();
+        // makes jclouds run the invocation, filters included, on its user executor
+        overrides.setProperty("jclouds.timeouts.system:version", "10000");
+        try (final BitbucketClientPool pool = BitbucketClientPool.builder()
+                .endPoint(server.getUrl("/").toString())
+                .overrides(overrides)
+                .modules(new SLF4JLoggingModule())
+                .build()) {
+            final BitbucketClient client = pool.client(BitbucketAuthentication.builder().token("timed-token").build());
+
+            assertThat(client.api().systemApi().version().version()).isNotNull();
+            assertThat(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer timed-token");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testClosingClientLeavesPoolOpen() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        try (final BitbucketClientPool pool = pool(server)) {
+            final BitbucketAuthentication authentication = BitbucketAuthentication.builder().token("token").build();
+            pool.client(authentication).close();
+
+            final BitbucketClient client = pool.client(authentication);
+            assertThat(client.api().systemApi()).isSameAs(client.api().systemApi());
+            assertThat(client.api().systemApi().version().version()).isNotNull();
+            assertThat(server.getRequestCount()).isEqualTo(1);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testRefreshAuthenticationRotatesPooledClientCredentials() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/version.json")).setResponseCode(200));
+        final AtomicInteger rotations = new AtomicInteger();
+        try (final BitbucketClientPool pool = pool(server)) {
+            final BitbucketClient client = pool.client(() -> BitbucketAuthentication.builder()
+                    .token("token-" + rotations.incrementAndGet()).build());
+
+            client.api().systemApi().version();
+            client.refreshAuthentication();
+            client.api().systemApi().version();
+
+            assertThat(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer token-1");
+            assertThat(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer token-2");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private BitbucketClientPool pool(final MockWebServer server) {
+        return BitbucketClientPool.builder()
+                .endPoint(server.getUrl("/").toString())
+                .overrides(setupProperties())
+                .modules(new SLF4JLoggingModule())
+                .build();
+    }
+}
@@ -195,6 +195,28 @@ public class BranchApiMockTest extends BaseBitbucketMockTest {
         }
     }
 
+    public void testDefaultBranchExists() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        server.enqueue(new MockResponse().setResponseCode(404));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+
+            assertThat(baseApi.branchApi().defaultExists(projectKey, repoKey)).isTrue();
+            assertThat(baseApi.branchApi().defaultExists(projectKey, repoKey)).isFalse();
+            assertThat(baseApi.branchApi().defaultExists(projectKey, repoKey)).isFalse();
+
+            final String path = restBasePath + BitbucketApiMetadata.API_VERSION
+                    + localProjectsPath + projectKey + localReposPath + repoKey + localBranchesPath + "/default";
+            assertSent(server, "HEAD", path);
+            assertSent(server, "HEAD", path);
+            assertSent(server, "HEAD", path);
+        } finally {
+            server.shutdown();
+        }
+    }
+
     public void testGetDefaultBranch() throws Exception {
         final MockWebServer server = mockWebServer();
 
@@ -23,6 +23,7 @@ import com.cdancy.bitbucket.rest.BitbucketApi;
 import com.cdancy.bitbucket.rest.BitbucketApiMetadata;
 import com.cdancy.bitbucket.rest.domain.commit.Commit;
 import com.cdancy.bitbucket.rest.domain.commit.CommitPage;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
 import com.cdancy.bitbucket.rest.domain.pullrequest.ChangePage;
 import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
 import com.google.common.collect.ImmutableMap;
@@ -166,4 +167,49 @@ public class CommitsApiMockTest extends BaseBitbucketMockTest {
             server.shutdown();
         }
     }
+
+    public void testListCommitsStreaming() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/pull-request-commits.json"))
+                .setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final StreamingPage<Commit> page = baseApi.commitsApi()
+                        .listStreaming(projectKey, repoKey, true, null, null, null, null, null, null, 1, null)) {
+
+            assertThat(page).isNotNull();
+            assertThat(page.hasNext()).isTrue();
+            final Commit commit = page.next();
+            assertThat(commit.id()).isNotNull();
+            assertThat(page.hasNext()).isFalse();
+            assertThat(page.errors()).isEmpty();
+            assertThat(page.isLastPage()).isTrue();
+            assertThat(page.size()).isEqualTo(1);
+            assertThat(page.start()).isEqualTo(0);
+
+            final Map<String, ?> queryParams = ImmutableMap.of("withCounts", true, limitKeyword, 1);
+            assertSent(server, getMethod, restApiPath + BitbucketApiMetadata.API_VERSION
+                    + "/projects/PRJ/repos/myrepo/commits", queryParams);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testListCommitsStreamingOnError() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/commit-error.json"))
+                .setResponseCode(404));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final StreamingPage<Commit> page = baseApi.commitsApi()
+                        .listStreaming(projectKey, repoKey, true, null, null, null, null, null, null, 1, null)) {
+
+            assertThat(page).isNotNull();
+            assertThat(page.hasNext()).isFalse();
+            assertThat(page.errors()).isNotEmpty();
+            assertThat(page.isLastPage()).isTrue();
+        } finally {
+            server.shutdown();
+        }
+    }
 }
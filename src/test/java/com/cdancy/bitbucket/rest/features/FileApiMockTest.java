@@ -24,16 +24,26 @@ import com.cdancy.bitbucket.rest.domain.file.LastModified;
 import com.cdancy.bitbucket.rest.domain.file.LinePage;
 import com.cdancy.bitbucket.rest.domain.file.RawContent;
 import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.domain.file.Directory;
 import com.cdancy.bitbucket.rest.domain.file.FilesPage;
 import com.google.common.collect.ImmutableMap;
 import com.squareup.okhttp.mockwebserver.MockResponse;
 import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+import com.squareup.okhttp.mockwebserver.SocketPolicy;
 
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Map;
+import java.util.stream.Stream;
+import okio.Buffer;
+import org.jclouds.rest.ResourceNotFoundException;
 import org.testng.annotations.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @Test(groups = "unit", testName = "FileApiMockTest")
 public class FileApiMockTest extends BaseBitbucketMockTest {
@@ -97,6 +107,103 @@ public class FileApiMockTest extends BaseBitbucketMockTest {
         }
     }
     
+    public void testRawStream() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final byte[] binary = binaryContent();
+        server.enqueue(new MockResponse().setBody(new Buffer().write(binary)).setResponseCode(200));
+        final BitbucketApi baseApi = api(server.getUrl("/"));
+        final FileApi api = baseApi.fileApi();
+        try (final InputStream stream = api.rawStream(projectKey, repoKey, filePath, branch)) {
+
+            assertThat(stream).hasBinaryContent(binary);
+            final RecordedRequest request = server.takeRequest();
+            assertThat(request.getMethod()).isEqualTo(getMethod);
+            assertThat(request.getPath()).isEqualTo(rawPath + filePath + "?at=" + branch);
+
+        } finally {
+            baseApi.close();
+            server.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = ResourceNotFoundException.class)
+    public void testRawStreamOnNotFound() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody("<html>randomString</html>").setResponseCode(404));
+        final BitbucketApi baseApi = api(server.getUrl("/"));
+        final FileApi api = baseApi.fileApi();
+        try {
+            api.rawStream(projectKey, repoKey, filePath, null);
+        } finally {
+            baseApi.close();
+            server.shutdown();
+        }
+    }
+
+    public void testRawToPath() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final byte[] binary = binaryContent();
+        server.enqueue(new MockResponse().setBody(new Buffer().write(binary)).setResponseCode(200));
+        final BitbucketApi baseApi = api(server.getUrl("/"));
+        final FileApi api = baseApi.fileApi();
+        final Path target = Files.createTempFile("bitbucket-raw", ".bin");
+        try {
+            Files.write(target, new byte[]{ 1, 2, 3 });
+
+            final Path written = api.rawToPath(projectKey, repoKey, filePath, null, target);
+            assertThat(written).isEqualTo(target);
+            assertThat(Files.readAllBytes(target)).isEqualTo(binary);
+            final RecordedRequest request = server.takeRequest();
+            assertThat(request.getMethod()).isEqualTo(getMethod);
+            assertThat(request.getPath()).isEqualTo(rawPath + filePath);
+
+        } finally {
+            Files.deleteIfExists(target);
+            baseApi.close();
+            server.shutdown();
+        }
+    }
+
+    public void testRawToPathFailureKeepsTarget() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        // the connection is closed before the announced body was sent
+        final byte[] binary = binaryContent();
+        server.enqueue(new MockResponse().setBody(new Buffer().write(binary)).setResponseCode(200)
+                .setHeader("Content-Length", binary.length * 2)
+                .setSocketPolicy(SocketPolicy.DISCONNECT_AT_END));
+        final BitbucketApi baseApi = api(server.getUrl("/"));
+        final FileApi api = baseApi.fileApi();
+        final Path dir = Files.createTempDirectory("bitbucket-raw");
+        final Path target = dir.resolve("file.bin");
+        try {
+            Files.write(target, new byte[]{ 1, 2, 3 });
+
+            assertThatThrownBy(() -> api.rawToPath(projectKey, repoKey, filePath, null, target))
+                    .isInstanceOf(RuntimeException.class);
+            assertThat(Files.readAllBytes(target)).containsExactly(1, 2, 3);
+            try (final Stream<Path> files = Files.list(dir)) {
+                assertThat(files).containsExactly(target);
+            }
+        } finally {
+            Files.deleteIfExists(target);
+            Files.deleteIfExists(dir);
+            baseApi.close();
+            server.shutdown();
+        }
+    }
+
+    private static byte[] binaryContent() {
+        final byte[] binary = new byte[256 * 1024 + 7];
+        for (int i = 0; i < binary.length; i++) {
+            binary[i] = (byte) (i * 31);
+        }
+        return binary;
+    }
+
     public void testListLines() throws Exception {
         final MockWebServer server = mockWebServer();
 
@@ -256,6 +363,56 @@ public class FileApiMockTest extends BaseBitbucketMockTest {
         }
     }
 
+    public void testListChildren() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/directory-root.json")).setResponseCode(200));
+        final BitbucketApi baseApi = api(server.getUrl("/"));
+        final FileApi api = baseApi.fileApi();
+        try {
+
+            final String gitRef = "some-existing-commit-or-tag-or-branch";
+            final Directory ref = api.listChildren(projectKey, repoKey, null, gitRef, null, 500);
+            assertThat(ref).isNotNull();
+            assertThat(ref.errors().isEmpty()).isTrue();
+            assertThat(ref.revision()).isEqualTo("8d51122def5632836d1cb1026e879069e10a1e13");
+            assertThat(ref.path().components()).isEmpty();
+            assertThat(ref.children().values()).hasSize(4);
+            assertThat(ref.children().values().get(1).path()._toString()).isEqualTo("src");
+            assertThat(ref.children().values().get(1).isDirectory()).isTrue();
+            assertThat(ref.children().values().get(2).isDirectory()).isFalse();
+            assertThat(ref.children().values().get(2).size()).isEqualTo(1024L);
+            assertThat(ref.children().values().get(3).isSubmodule()).isTrue();
+
+            final Map<String, ?> queryParams = ImmutableMap.of("at", gitRef, "limit", 500);
+            assertSent(server, getMethod, restApiPath + projectRepoPath + "/browse", queryParams);
+        } finally {
+            baseApi.close();
+            server.shutdown();
+        }
+    }
+
+    public void testListChildrenOnError() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(errorResponseBody).setResponseCode(404));
+        final BitbucketApi baseApi = api(server.getUrl("/"));
+        final FileApi api = baseApi.fileApi();
+        try {
+
+            final Directory ref = api.listChildren(projectKey, repoKey, directoryPath, null, null, null);
+            assertThat(ref).isNotNull();
+            assertThat(ref.errors().isEmpty()).isFalse();
+            assertThat(ref.children().errors()).isEqualTo(ref.errors());
+            assertThat(ref.children().values().isEmpty()).isTrue();
+
+            assertSent(server, getMethod, browsePath + directoryPath);
+        } finally {
+            baseApi.close();
+            server.shutdown();
+        }
+    }
+
     public void testLastModified() throws Exception {
         final MockWebServer server = mockWebServer();
 
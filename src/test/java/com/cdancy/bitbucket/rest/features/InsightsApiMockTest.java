@@ -31,8 +31,10 @@ import com.cdancy.bitbucket.rest.options.CreateInsightReport;
 import com.google.common.collect.ImmutableMap;
 import com.squareup.okhttp.mockwebserver.MockResponse;
 import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 
@@ -416,6 +418,38 @@ public class InsightsApiMockTest extends BaseBitbucketMockTest {
         }
     }
 
+    public void testCreateAnnotationsLeavesOutNullFields() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(204));
+        try (final BitbucketApi baseApi = api(server.url("/").url())) {
+            final InsightsApi api = baseApi.insightsApi();
+
+            final String reportKey = qwertyKeyword;
+            final CreateAnnotations createAnnotations = CreateAnnotations.create(Arrays.asList(
+                    Annotation.create(null, "id-1", 3, null, "first", mockPath, null, null),
+                    Annotation.create(null, null, 0, "https://example.com", "second", null,
+                            Annotation.AnnotationSeverity.HIGH, Annotation.AnnotationType.BUG)));
+            final RequestStatus requestStatus = api.createAnnotations(projectKey, repoKey, commitHash, reportKey, createAnnotations);
+            assertThat(requestStatus.value()).isTrue();
+
+            final RecordedRequest request = assertSent(server,
+                       postMethod,
+                       restApiPath + BitbucketApiMetadata.API_VERSION
+                           + projectsKeyword + projectKey
+                           + repoKeyword + repoKey
+                           + commitKeyword + commitHash
+                           + reportsKeyword + "/" + reportKey
+                           + annotationsKeyword);
+            assertThat(request.getUtf8Body()).isEqualTo("{\"annotations\":["
+                    + "{\"externalId\":\"id-1\",\"line\":3,\"message\":\"first\",\"path\":\"" + mockPath + "\"},"
+                    + "{\"line\":0,\"link\":\"https://example.com\",\"message\":\"second\",\"severity\":\"HIGH\",\"type\":\"BUG\"}"
+                    + "]}");
+        } finally {
+            server.shutdown();
+        }
+    }
+
     public void testCreateAnnotationsOnError() throws Exception {
         final MockWebServer server = mockWebServer();
 
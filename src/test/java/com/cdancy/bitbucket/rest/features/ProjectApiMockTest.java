@@ -105,6 +105,24 @@ public class ProjectApiMockTest extends BaseBitbucketMockTest {
         }
     }
 
+    public void testProjectExists() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server.enqueue(new MockResponse().setResponseCode(404));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+
+            assertThat(baseApi.projectApi().exists(projectKey)).isTrue();
+            assertThat(baseApi.projectApi().exists(projectKey)).isFalse();
+
+            final String path = restBasePath + BitbucketApiMetadata.API_VERSION + localPath + "/" + projectKey;
+            assertSent(server, "HEAD", path);
+            assertSent(server, "HEAD", path);
+        } finally {
+            server.shutdown();
+        }
+    }
+
     public void testGetProject() throws Exception {
         final MockWebServer server = mockWebServer();
 
@@ -19,6 +19,8 @@ package com.cdancy.bitbucket.rest.features;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import com.cdancy.bitbucket.rest.domain.activities.ActivitiesPage;
@@ -45,6 +47,9 @@ import com.cdancy.bitbucket.rest.domain.commit.CommitPage;
 import com.cdancy.bitbucket.rest.domain.common.RequestStatus;
 import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
 import com.cdancy.bitbucket.rest.options.CreatePullRequest;
+import com.cdancy.bitbucket.rest.pagination.FieldProjection;
+import com.cdancy.bitbucket.rest.pagination.ProjectedValue;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
 import com.google.common.collect.ImmutableMap;
 import com.squareup.okhttp.mockwebserver.MockResponse;
 import com.squareup.okhttp.mockwebserver.MockWebServer;
@@ -209,6 +214,38 @@ public class PullRequestApiMockTest extends BaseBitbucketMockTest {
         }
     }
 
+    public void testListPullRequestProjected() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/pull-request-page.json")).setResponseCode(200));
+        final FieldProjection projection = FieldProjection.of("id", "state", "updatedDate", "fromRef.id", "fromRef.latestCommit", "author.user.slug");
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final StreamingPage<ProjectedValue> page = baseApi.pullRequestApi()
+                        .listStreaming(projectKey, repoKey, null, null, null, null, null, null, null, 10)
+                        .project(projection)) {
+
+            final List<ProjectedValue> values = new ArrayList<>();
+            page.forEachRemaining(values::add);
+            assertThat(values).hasSize(1);
+
+            final ProjectedValue pr = values.get(0);
+            assertThat(pr.getLong("id")).isEqualTo(101L);
+            assertThat(pr.getString("state")).isEqualTo("OPEN");
+            assertThat(pr.getLong("updatedDate")).isEqualTo(1359085920L);
+            assertThat(pr.getString("fromRef.id")).isEqualTo("refs/heads/feature-ABC-123");
+            assertThat(pr.has("fromRef.latestCommit")).isFalse();
+            assertThat(pr.getString("author.user.slug")).isEqualTo("tom");
+            assertThat(page.errors()).isEmpty();
+            assertThat(page.isLastPage()).isTrue();
+
+            final Map<String, ?> queryParams = ImmutableMap.of(limitKeyword, 10);
+            assertSent(server, getMethod, restApiPath + BitbucketApiMetadata.API_VERSION
+                    + "/projects/PRJ/repos/my-repo/pull-requests", queryParams);
+        } finally {
+            server.shutdown();
+        }
+    }
+
     public void testListPullRequestNonExistent() throws Exception {
         final MockWebServer server = mockWebServer();
 
@@ -546,6 +583,32 @@ public class PullRequestApiMockTest extends BaseBitbucketMockTest {
         }
     }
 
+    public void testGetPullRequestActivitiesStreaming() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/pull-request-activities.json"))
+                .setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final StreamingPage<Activities> activities = baseApi.pullRequestApi()
+                        .listActivitiesStreaming(projectKey, repoKey, 1, 5, 0)) {
+
+            assertThat(activities).isNotNull();
+            final List<Long> ids = new ArrayList<>();
+            activities.forEachRemaining(act -> ids.add(act.id()));
+            assertThat(ids).hasSize(3);
+            assertThat(ids.get(1)).isEqualTo(29733L);
+            assertThat(activities.errors()).isEmpty();
+            assertThat(activities.isLastPage()).isTrue();
+            assertThat(activities.size()).isEqualTo(3);
+
+            final Map<String, ?> queryParams = ImmutableMap.of(startKeyword, "0", limitKeyword, 5);
+            assertSent(server, getMethod, restApiPath + BitbucketApiMetadata.API_VERSION
+                    + "/projects/PRJ/repos/my-repo/pull-requests/1/activities", queryParams);
+        } finally {
+            server.shutdown();
+        }
+    }
+
     public void testGetPullRequestActivitiesOnError() throws Exception {
         final MockWebServer server = mockWebServer();
 
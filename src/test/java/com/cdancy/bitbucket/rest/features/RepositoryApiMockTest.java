@@ -30,6 +30,9 @@ import com.cdancy.bitbucket.rest.domain.repository.RepositoryPage;
 import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
 import com.cdancy.bitbucket.rest.options.CreatePullRequestSettings;
 import com.cdancy.bitbucket.rest.options.CreateRepository;
+import com.cdancy.bitbucket.rest.pagination.FieldProjection;
+import com.cdancy.bitbucket.rest.pagination.ProjectedValue;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
 import com.google.common.collect.ImmutableMap;
 import com.squareup.okhttp.mockwebserver.MockResponse;
 import com.squareup.okhttp.mockwebserver.MockWebServer;
@@ -115,6 +118,25 @@ public class RepositoryApiMockTest extends BaseBitbucketMockTest {
         }
     }
 
+    public void testRepositoryExists() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server.enqueue(new MockResponse().setResponseCode(404));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final RepositoryApi api = baseApi.repositoryApi();
+
+            assertThat(api.exists(projectKey, repoKey)).isTrue();
+            assertThat(api.exists(projectKey, repoKey)).isFalse();
+
+            final String path = restApiPath + BitbucketApiMetadata.API_VERSION + projectsPath + projectKey + reposPath + repoKey;
+            assertSent(server, "HEAD", path);
+            assertSent(server, "HEAD", path);
+        } finally {
+            server.shutdown();
+        }
+    }
+
     public void testGetRepository() throws Exception {
         final MockWebServer server = mockWebServer();
 
@@ -254,6 +276,28 @@ public class RepositoryApiMockTest extends BaseBitbucketMockTest {
         }
     }
 
+    public void testGetRepositoryListProjected() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-page-full.json")).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"));
+                final StreamingPage<ProjectedValue> page = baseApi.repositoryApi()
+                        .listStreaming(projectKey, null, null)
+                        .project(FieldProjection.of("slug", "project.key"))) {
+
+            final List<String> slugs = new ArrayList<>();
+            page.forEachRemaining(repo -> {
+                assertThat(repo.getString("project.key")).isEqualTo("PRJ1");
+                slugs.add(repo.getString("slug"));
+            });
+            assertThat(slugs).containsExactly("repo-1", "repo-2", "repo-3");
+            assertThat(page.isLastPage()).isTrue();
+            assertSent(server, getMethod, restApiPath + BitbucketApiMetadata.API_VERSION + projectsPath + projectKey + reposEndpoint);
+        } finally {
+            server.shutdown();
+        }
+    }
+
     public void testGetRepositoryList() throws Exception {
         final MockWebServer server = mockWebServer();
 
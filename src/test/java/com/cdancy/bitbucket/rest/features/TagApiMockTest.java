@@ -75,6 +75,26 @@ public class TagApiMockTest extends BaseBitbucketMockTest {
         }
     }
 
+    public void testTagExists() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server.enqueue(new MockResponse().setResponseCode(404));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final String tagName = "release-2.0.0";
+
+            assertThat(baseApi.tagApi().exists(projectKey, repoKey, tagName)).isTrue();
+            assertThat(baseApi.tagApi().exists(projectKey, repoKey, tagName)).isFalse();
+
+            final String path = restApiPath + BitbucketApiMetadata.API_VERSION
+                    + projectsPath + projectKey + reposPath + repoKey + tagsPath + tagName;
+            assertSent(server, "HEAD", path);
+            assertSent(server, "HEAD", path);
+        } finally {
+            server.shutdown();
+        }
+    }
+
     public void testGetTag() throws Exception {
         final MockWebServer server = mockWebServer();
 
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.filters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.jclouds.http.HttpRequest;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link ScrubNullFromPathFilter} class.
+ */
+@Test(groups = "unit", testName = "ScrubNullFromPathFilterTest")
+public class ScrubNullFromPathFilterTest {
+
+    private final ScrubNullFromPathFilter filter = new ScrubNullFromPathFilter();
+
+    public void testCleanRequestIsReturnedAsIs() {
+        final HttpRequest request = request("/rest/api/1.0/projects/PRJ/repos/repo/files/src/main?at=master");
+        assertThat(filter.filter(request)).isSameAs(request);
+    }
+
+    public void testScrubsNullParams() {
+        final HttpRequest request = request("/rest/api/1.0/projects/PRJ/repos/repo/files/%7Bpath%7D?at=master&limit=25");
+        final HttpRequest filtered = filter.filter(request);
+        assertThat(filtered.getEndpoint().getRawPath()).isEqualTo("/rest/api/1.0/projects/PRJ/repos/repo/files");
+        assertThat(filtered.getEndpoint().getRawQuery()).isEqualTo("at=master&limit=25");
+    }
+
+    public void testScrub() {
+        assertThat(ScrubNullFromPathFilter.scrub("/a/%7Bpath%7D/b")).isEqualTo("/a/b");
+        assertThat(ScrubNullFromPathFilter.scrub("/a/%7Bx%7D/%7By%7D/b")).isEqualTo("/a/b");
+        assertThat(ScrubNullFromPathFilter.scrub("/a/b/")).isEqualTo("/a/b");
+        assertThat(ScrubNullFromPathFilter.scrub("/a//b")).isEqualTo("/a/b");
+        assertThat(ScrubNullFromPathFilter.scrub("/a/%7B%7D%7D/b")).isEqualTo("/a/b");
+
+        // unterminated or empty placeholders are not params
+        assertThat(ScrubNullFromPathFilter.scrub("/a/%7Bpath")).isEqualTo("/a/%7Bpath");
+        assertThat(ScrubNullFromPathFilter.scrub("/a/%7B%7D")).isEqualTo("/a/%7B%7D");
+
+        final String clean = "/rest/api/1.0/projects/PRJ/repos/repo/last-modified/src";
+        assertThat(ScrubNullFromPathFilter.scrub(clean)).isSameAs(clean);
+    }
+
+    private static HttpRequest request(final String path) {
+        return HttpRequest.builder().method("GET").endpoint("http://localhost:7990" + path).build();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.handlers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cdancy.bitbucket.rest.domain.common.Error;
+import com.cdancy.bitbucket.rest.exception.ResponseErrorsException;
+import com.cdancy.bitbucket.rest.fallbacks.BitbucketFallbacks;
+import com.google.common.io.Resources;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.rest.ResourceNotFoundException;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link BitbucketErrorHandler} class.
+ */
+@Test(groups = "unit", testName = "BitbucketErrorHandlerTest")
+public class BitbucketErrorHandlerTest {
+
+    private final BitbucketErrorHandler handler = new BitbucketErrorHandler();
+
+    public void testErrorsAreDecodedOnce() throws IOException {
+        final String body = resource("/branch-list-error.json");
+        final Exception exception = handle(404, body);
+
+        assertThat(exception).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(exception.getMessage()).isEqualTo(body);
+        assertThat(exception.getCause()).isInstanceOf(ResponseErrorsException.class);
+
+        final ResponseErrorsException cause = (ResponseErrorsException) exception.getCause();
+        assertThat(cause.statusCode()).isEqualTo(404);
+        assertThat(cause.errors()).isEqualTo(BitbucketFallbacks.getErrors(body));
+        assertThat(cause.errors().get(0).vetoes()).hasSize(1);
+        assertThat(BitbucketFallbacks.getErrors(exception)).isSameAs(cause.errors());
+    }
+
+    public void testPlainTextErrorsFallBackToMessage() {
+        final Exception exception = handle(404, "Not Found");
+
+        assertThat(exception).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(exception.getCause()).isNull();
+
+        final List<Error> errors = BitbucketFallbacks.getErrors(exception);
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0).context()).isEqualTo("Not Found");
+        assertThat(errors.get(0).message()).startsWith("Failed to parse output");
+    }
+
+    public void testUnmappedStatusIsNotDecoded() throws IOException {
+        final Exception exception = handle(500, resource("/errors.json"));
+
+        assertThat(exception).isInstanceOf(HttpResponseException.class);
+        assertThat(exception.getCause()).isNull();
+    }
+
+    public void testReadErrorsMatchesGetErrors() throws IOException {
+        final String errors = resource("/errors.json");
+        assertThat(BitbucketFallbacks.readErrors(errors)).isEqualTo(BitbucketFallbacks.getErrors(errors));
+
+        final String single = "{\"context\":\"name\",\"message\":\"bad name\",\"exceptionName\":null,\"extra\":[1,{}]}";
+        assertThat(BitbucketFallbacks.readErrors(single)).isEqualTo(BitbucketFallbacks.getErrors(single));
+
+        assertThat(BitbucketFallbacks.readErrors("{\"unknown\":true}")).isNull();
+        assertThat(BitbucketFallbacks.readErrors("{\"errors\":null}")).isNull();
+        assertThat(BitbucketFallbacks.readErrors("{\"errors\":[]} trailing")).isNull();
+        assertThat(BitbucketFallbacks.readErrors("<html/>")).isNull();
+    }
+
+    private Exception handle(final int statusCode, final String body) {
+        final HttpCommand command = new HttpCommand(HttpRequest.builder()
+                .method("GET")
+                .endpoint("http://localhost:7990/rest/api/1.0/projects/PRJ/repos/repo")
+                .build());
+        handler.handleError(command, HttpResponse.builder()
+                .statusCode(statusCode)
+                .message("status")
+                .payload(body)
+                .build());
+        return command.getException();
+    }
+
+    private static String resource(final String resource) throws IOException {
+        return Resources.toString(Resources.getResource(BitbucketErrorHandlerTest.class, resource), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.handlers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.cdancy.bitbucket.rest.BitbucketConstants;
+import com.cdancy.bitbucket.rest.domain.common.RequestStatus;
+import com.cdancy.bitbucket.rest.exception.RateLimitExceededException;
+import com.cdancy.bitbucket.rest.features.RepositoryApi;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.util.Properties;
+import org.jclouds.Constants;
+import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link RateLimitRetryHandler} class.
+ */
+@Test(groups = "unit", testName = "RateLimitRetryHandlerMockTest")
+public class RateLimitRetryHandlerMockTest extends BaseBitbucketMockTest {
+
+    private final String projectKey = "PRJ";
+    private final String repoKey = "my-repo";
+    private final String rateLimitedBody = "{\"errors\":[{\"context\":null,\"message\":\"Too many requests\",\"exceptionName\":null}]}";
+
+    public void testRetriesAfterRetryAfter() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(tooManyRequests().setHeader("Retry-After", "0"));
+        server.enqueue(tooManyRequests().setHeader("Retry-After", "0"));
+        server.enqueue(new MockResponse().setResponseCode(204));
+        try (final BitbucketClient client = client(server, 3)) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            final RequestStatus status = api.createPermissionsByUser(projectKey, repoKey, "REPO_READ", "bob");
+            assertThat(status.value()).isTrue();
+            assertThat(status.errors()).isEmpty();
+            assertThat(server.getRequestCount()).isEqualTo(3);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testGivesUpAfterMaxRetries() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(tooManyRequests());
+        server.enqueue(tooManyRequests());
+        server.enqueue(tooManyRequests());
+        try (final BitbucketClient client = client(server, 2)) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            final RequestStatus status = api.createPermissionsByUser(projectKey, repoKey, "REPO_READ", "bob");
+            assertThat(status.value()).isFalse();
+            assertThat(status.errors()).hasSize(1);
+            assertThat(status.errors().get(0).message()).isEqualTo("Too many requests");
+            assertThat(server.getRequestCount()).isEqualTo(3);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testRetryAfterBeyondMaxBackoffIsNotRetried() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(tooManyRequests().setHeader("Retry-After", "3600"));
+        try (final BitbucketClient client = client(server, 3)) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            final RequestStatus status = api.createPermissionsByUser(projectKey, repoKey, "REPO_READ", "bob");
+            assertThat(status.value()).isFalse();
+            assertThat(server.getRequestCount()).isEqualTo(1);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testRateLimitExceededWithoutFallback() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(tooManyRequests());
+        try (final BitbucketClient client = client(server, 0)) {
+            client.api().fileApi().rawStream(projectKey, repoKey, "README.md", null);
+            throw new AssertionError("Expected RateLimitExceededException");
+        } catch (final RateLimitExceededException e) {
+            assertThat(e.getMessage()).contains("Too many requests");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private MockResponse tooManyRequests() {
+        return new MockResponse()
+                .setResponseCode(429)
+                .setHeader("Content-Type", "application/json")
+                .setBody(rateLimitedBody);
+    }
+
+    private BitbucketClient client(final MockWebServer server, final int maxRetries) {
+        final Properties overrides = setupProperties();
+        overrides.setProperty(Constants.PROPERTY_MAX_RETRIES, Integer.toString(maxRetries));
+        overrides.setProperty(BitbucketConstants.RATE_LIMIT_BACKOFF_START, "10");
+        overrides.setProperty(BitbucketConstants.RATE_LIMIT_BACKOFF_MAX, "1000");
+        return BitbucketClient.builder()
+                .endPoint(server.getUrl("/").toString())
+                .credentials("hello:world")
+                .overrides(overrides)
+                .modules(new SLF4JLoggingModule())
+                .build();
+    }
+}
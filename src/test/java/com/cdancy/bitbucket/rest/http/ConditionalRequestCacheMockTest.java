@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.cdancy.bitbucket.rest.BitbucketConstants;
+import com.cdancy.bitbucket.rest.domain.repository.Repository;
+import com.cdancy.bitbucket.rest.features.RepositoryApi;
+import com.cdancy.bitbucket.rest.pagination.StreamingPage;
+import com.google.common.collect.Lists;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+import com.squareup.okhttp.mockwebserver.RecordedRequest;
+
+import java.util.Properties;
+import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link ConditionalRequestCache} class.
+ */
+@Test(groups = "unit", testName = "ConditionalRequestCacheMockTest")
+public class ConditionalRequestCacheMockTest extends BaseBitbucketMockTest {
+
+    private final String projectKey = "PRJ";
+    private final String repoKey = "my-repo";
+    private final String ifNoneMatch = "If-None-Match";
+
+    public void testNotModifiedServesParsedResponse() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(repositoryResponse("\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""));
+        try (final BitbucketClient client = client(server, 10, 1024 * 1024)) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            final Repository first = api.get(projectKey, repoKey);
+            final Repository second = api.get(projectKey, repoKey);
+            assertThat(first.errors()).isEmpty();
+            assertThat(first.slug()).isEqualToIgnoringCase(repoKey);
+            assertThat(second).isSameAs(first);
+
+            assertThat(server.takeRequest().getHeader(ifNoneMatch)).isNull();
+            assertThat(server.takeRequest().getHeader(ifNoneMatch)).isEqualTo("\"v1\"");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testModifiedResponseReplacesEntry() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(repositoryResponse("\"v1\""));
+        server.enqueue(repositoryResponse("\"v2\""));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        try (final BitbucketClient client = client(server, 10, 1024 * 1024)) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            final Repository first = api.get(projectKey, repoKey);
+            final Repository second = api.get(projectKey, repoKey);
+            final Repository third = api.get(projectKey, repoKey);
+            assertThat(second).isNotSameAs(first);
+            assertThat(third).isSameAs(second);
+
+            server.takeRequest();
+            assertThat(server.takeRequest().getHeader(ifNoneMatch)).isEqualTo("\"v1\"");
+            assertThat(server.takeRequest().getHeader(ifNoneMatch)).isEqualTo("\"v2\"");
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testErrorAfterCachedResponse() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(repositoryResponse("\"v1\""));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-not-exist.json")).setResponseCode(404));
+        server.enqueue(repositoryResponse("\"v1\""));
+        try (final BitbucketClient client = client(server, 10, 1024 * 1024)) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            assertThat(api.get(projectKey, repoKey).errors()).isEmpty();
+            assertThat(api.get(projectKey, repoKey).errors()).isNotEmpty();
+            assertThat(api.get(projectKey, repoKey).errors()).isEmpty();
+
+            server.takeRequest();
+            assertThat(server.takeRequest().getHeader(ifNoneMatch)).isEqualTo("\"v1\"");
+            assertThat(server.takeRequest().getHeader(ifNoneMatch)).isNull();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testStreamingEndpointsAreNotCached() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(jsonResponse("/repository-page-full.json", "\"v1\""));
+        server.enqueue(jsonResponse("/repository-page-full.json", "\"v1\""));
+        try (final BitbucketClient client = client(server, 10, 1024 * 1024)) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            for (int i = 0; i < 2; i++) {
+                try (final StreamingPage<Repository> page = api.listStreaming(projectKey, null, null)) {
+                    assertThat(Lists.newArrayList(page)).hasSize(3);
+                }
+            }
+            assertThat(server.takeRequest().getHeader(ifNoneMatch)).isNull();
+            assertThat(server.takeRequest().getHeader(ifNoneMatch)).isNull();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testResponsesOverByteBoundAreNotKept() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(repositoryResponse("\"v1\""));
+        server.enqueue(repositoryResponse("\"v1\""));
+        try (final BitbucketClient client = client(server, 10, 16)) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            assertThat(api.get(projectKey, repoKey).errors()).isEmpty();
+            assertThat(api.get(projectKey, repoKey).errors()).isEmpty();
+            assertThat(server.takeRequest().getHeader(ifNoneMatch)).isNull();
+            assertThat(server.takeRequest().getHeader(ifNoneMatch)).isNull();
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testDisabledByDefault() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(repositoryResponse("\"v1\""));
+        server.enqueue(repositoryResponse("\"v1\""));
+        try (final BitbucketClient client = client(server.getUrl("/"))) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            final Repository first = api.get(projectKey, repoKey);
+            final Repository second = api.get(projectKey, repoKey);
+            assertThat(second).isEqualTo(first).isNotSameAs(first);
+
+            for (int i = 0; i < 2; i++) {
+                final RecordedRequest request = server.takeRequest();
+                assertThat(request.getHeader(ifNoneMatch)).isNull();
+            }
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private MockResponse repositoryResponse(final String etag) {
+        return jsonResponse("/repository.json", etag);
+    }
+
+    private MockResponse jsonResponse(final String resource, final String etag) {
+        return new MockResponse()
+                .setBody(payloadFromResource(resource))
+                .addHeader("Content-Type", "application/json;charset=UTF-8")
+                .addHeader("ETag", etag)
+                .setResponseCode(200);
+    }
+
+    private BitbucketClient client(final MockWebServer server, final int maxEntries, final int maxBytes) {
+        final Properties overrides = setupProperties();
+        overrides.setProperty(BitbucketConstants.CONDITIONAL_CACHE_MAX_ENTRIES, Integer.toString(maxEntries));
+        overrides.setProperty(BitbucketConstants.CONDITIONAL_CACHE_MAX_BYTES, Integer.toString(maxBytes));
+        return BitbucketClient.builder()
+                .endPoint(server.getUrl("/").toString())
+                .credentials("hello:world")
+                .overrides(overrides)
+                .modules(new SLF4JLoggingModule())
+                .build();
+    }
+}
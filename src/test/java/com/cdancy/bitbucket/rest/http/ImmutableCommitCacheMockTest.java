@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.cdancy.bitbucket.rest.BitbucketConstants;
+import com.cdancy.bitbucket.rest.domain.commit.Commit;
+import com.cdancy.bitbucket.rest.features.CommitsApi;
+import com.cdancy.bitbucket.rest.features.FileApi;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.util.Properties;
+import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link ImmutableCommitCache} class.
+ */
+@Test(groups = "unit", testName = "ImmutableCommitCacheMockTest")
+public class ImmutableCommitCacheMockTest extends BaseBitbucketMockTest {
+
+    private final String projectKey = "PRJ";
+    private final String repoKey = "myrepo";
+    private final String filePath = "some/random/path/MyFile.txt";
+    private final String commitHash = "abcdef0123abcdef4567abcdef8987abcdef6543";
+    private final String otherCommitHash = "0123456789012345678901234567890123456789";
+
+    public void testServesRepeatsWithoutNetwork() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/commit.json")).setResponseCode(200));
+        try (final BitbucketClient client = client(server, 10, 1024 * 1024)) {
+            final CommitsApi api = client.api().commitsApi();
+
+            final Commit first = api.get(projectKey, repoKey, commitHash, null);
+            final Commit second = api.get(projectKey, repoKey, commitHash, null);
+            assertThat(first.errors()).isEmpty();
+            assertThat(first.id()).isEqualToIgnoringCase(commitHash);
+            assertThat(second).isSameAs(first);
+            assertThat(server.getRequestCount()).isEqualTo(1);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testRefsAreAlwaysFetched() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/commit.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/commit.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody("one").setResponseCode(200));
+        server.enqueue(new MockResponse().setBody("two").setResponseCode(200));
+        try (final BitbucketClient client = client(server, 10, 1024 * 1024)) {
+            final CommitsApi commitsApi = client.api().commitsApi();
+            final FileApi fileApi = client.api().fileApi();
+
+            commitsApi.get(projectKey, repoKey, "master", null);
+            commitsApi.get(projectKey, repoKey, commitHash.substring(0, 12), null);
+            assertThat(fileApi.raw(projectKey, repoKey, filePath, null).value()).isEqualTo("one");
+            assertThat(fileApi.raw(projectKey, repoKey, filePath, null).value()).isEqualTo("two");
+            assertThat(server.getRequestCount()).isEqualTo(4);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testErrorsAreNotCached() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/commit-error.json")).setResponseCode(404));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/commit.json")).setResponseCode(200));
+        try (final BitbucketClient client = client(server, 10, 1024 * 1024)) {
+            final CommitsApi api = client.api().commitsApi();
+
+            assertThat(api.get(projectKey, repoKey, commitHash, null).errors()).isNotEmpty();
+            assertThat(api.get(projectKey, repoKey, commitHash, null).errors()).isEmpty();
+            assertThat(api.get(projectKey, repoKey, commitHash, null).errors()).isEmpty();
+            assertThat(server.getRequestCount()).isEqualTo(2);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testEvictsByEntryCount() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody("first").setResponseCode(200));
+        server.enqueue(new MockResponse().setBody("second").setResponseCode(200));
+        server.enqueue(new MockResponse().setBody("first").setResponseCode(200));
+        try (final BitbucketClient client = client(server, 1, 1024 * 1024)) {
+            final FileApi api = client.api().fileApi();
+
+            assertThat(api.raw(projectKey, repoKey, filePath, commitHash).value()).isEqualTo("first");
+            assertThat(api.raw(projectKey, repoKey, filePath, otherCommitHash).value()).isEqualTo("second");
+            assertThat(api.raw(projectKey, repoKey, filePath, otherCommitHash).value()).isEqualTo("second");
+            assertThat(api.raw(projectKey, repoKey, filePath, commitHash).value()).isEqualTo("first");
+            assertThat(server.getRequestCount()).isEqualTo(3);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testEvictsByWeight() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody("0123456").setResponseCode(200));
+        server.enqueue(new MockResponse().setBody("abcdefg").setResponseCode(200));
+        server.enqueue(new MockResponse().setBody("0123456").setResponseCode(200));
+        server.enqueue(new MockResponse().setBody("far too large to keep").setResponseCode(200));
+        server.enqueue(new MockResponse().setBody("far too large to keep").setResponseCode(200));
+        try (final BitbucketClient client = client(server, 10, 10)) {
+            final FileApi api = client.api().fileApi();
+
+            api.raw(projectKey, repoKey, filePath, commitHash);
+            api.raw(projectKey, repoKey, filePath, otherCommitHash);
+            api.raw(projectKey, repoKey, filePath, otherCommitHash);
+            assertThat(api.raw(projectKey, repoKey, filePath, commitHash).value()).isEqualTo("0123456");
+            assertThat(server.getRequestCount()).isEqualTo(3);
+
+            api.raw(projectKey, repoKey, "large.txt", commitHash);
+            api.raw(projectKey, repoKey, "large.txt", commitHash);
+            assertThat(server.getRequestCount()).isEqualTo(5);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testDisabledByDefault() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/commit.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/commit.json")).setResponseCode(200));
+        try (final BitbucketClient client = client(server.getUrl("/"))) {
+            final CommitsApi api = client.api().commitsApi();
+
+            api.get(projectKey, repoKey, commitHash, null);
+            api.get(projectKey, repoKey, commitHash, null);
+            assertThat(server.getRequestCount()).isEqualTo(2);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private BitbucketClient client(final MockWebServer server, final int maxEntries, final int maxBytes) {
+        final Properties overrides = setupProperties();
+        overrides.setProperty(BitbucketConstants.COMMIT_CACHE_MAX_ENTRIES, Integer.toString(maxEntries));
+        overrides.setProperty(BitbucketConstants.COMMIT_CACHE_MAX_BYTES, Integer.toString(maxBytes));
+        return BitbucketClient.builder()
+                .endPoint(server.getUrl("/").toString())
+                .credentials("hello:world")
+                .overrides(overrides)
+                .modules(new SLF4JLoggingModule())
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.cdancy.bitbucket.rest.BitbucketConstants;
+import com.cdancy.bitbucket.rest.features.RepositoryApi;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.jclouds.Constants;
+import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link TokenBucketRateLimiter} class.
+ */
+@Test(groups = "unit", testName = "TokenBucketRateLimiterMockTest")
+public class TokenBucketRateLimiterMockTest extends BaseBitbucketMockTest {
+
+    private final String projectKey = "PRJ";
+    private final String repoKey = "my-repo";
+
+    public void testLimitsConfiguredOperation() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        for (int i = 0; i < 8; i++) {
+            server.enqueue(new MockResponse().setResponseCode(204));
+        }
+        try (final BitbucketClient client = client(server, "repository:create-permissions-by-user=4")) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            final long start = System.nanoTime();
+            for (int i = 0; i < 8; i++) {
+                assertThat(api.createPermissionsByUser(projectKey, repoKey, "REPO_READ", "user" + i).value()).isTrue();
+            }
+            // 4 permits of burst, then one every 250ms
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(900);
+            assertThat(server.getRequestCount()).isEqualTo(8);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testAdaptsToServerRate() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse()
+                .setResponseCode(429)
+                .setHeader("Retry-After", "0")
+                .setHeader("X-RateLimit-Limit", "1")
+                .setHeader("X-RateLimit-FillRate", "4")
+                .setHeader("X-RateLimit-Interval-Seconds", "1"));
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(204));
+        }
+        try (final BitbucketClient client = client(server, "")) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            final long start = System.nanoTime();
+            for (int i = 0; i < 4; i++) {
+                assertThat(api.createPermissionsByUser(projectKey, repoKey, "REPO_READ", "user" + i).value()).isTrue();
+            }
+            // 4 permits spaced at 90% of the advertised 4 per second
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(1000);
+            assertThat(server.getRequestCount()).isEqualTo(5);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private BitbucketClient client(final MockWebServer server, final String groups) {
+        final Properties overrides = setupProperties();
+        overrides.setProperty(Constants.PROPERTY_MAX_RETRIES, "1");
+        overrides.setProperty(BitbucketConstants.RATE_LIMIT_GROUPS, groups);
+        overrides.setProperty(BitbucketConstants.RATE_LIMIT_BACKOFF_START, "10");
+        return BitbucketClient.builder()
+                .endPoint(server.getUrl("/").toString())
+                .credentials("hello:world")
+                .overrides(overrides)
+                .modules(new SLF4JLoggingModule())
+                .build();
+    }
+}
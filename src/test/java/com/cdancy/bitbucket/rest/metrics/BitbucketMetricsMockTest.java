@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketClient;
+import com.cdancy.bitbucket.rest.BitbucketConstants;
+import com.cdancy.bitbucket.rest.config.BitbucketMetricsModule;
+import com.cdancy.bitbucket.rest.domain.commit.Commit;
+import com.cdancy.bitbucket.rest.domain.repository.Repository;
+import com.cdancy.bitbucket.rest.features.RepositoryApi;
+import com.cdancy.bitbucket.rest.options.CreateRepository;
+import com.google.common.collect.ImmutableMap;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.jclouds.rest.ResourceNotFoundException;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link BitbucketMetricsModule} and {@link InMemoryBitbucketMetrics} classes.
+ */
+@Test(groups = "unit", testName = "BitbucketMetricsMockTest")
+public class BitbucketMetricsMockTest extends BaseBitbucketMockTest {
+
+    private final String projectKey = "PRJ";
+    private final String repoKey = "myrepo";
+
+    public void testRecordsPerOperation() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final String body = payloadFromResource("/repository.json");
+        server.enqueue(new MockResponse().setBody(body).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-not-exist.json")).setResponseCode(404));
+        server.enqueue(new MockResponse().setBody(body).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(body).setResponseCode(201));
+        final InMemoryBitbucketMetrics metrics = new InMemoryBitbucketMetrics();
+        try (final BitbucketClient client = client(server, metrics)) {
+            final RepositoryApi api = client.api().repositoryApi();
+
+            api.get(projectKey, repoKey);
+            assertThat(api.get(projectKey, repoKey).errors()).isNotEmpty();
+            api.get(projectKey, repoKey);
+            api.create(projectKey, CreateRepository.create(repoKey, null, true));
+
+            assertThat(metrics.snapshot().keySet()).containsExactly("repository:create", "repository:get");
+
+            final OperationMetrics get = metrics.snapshot("repository:get");
+            assertThat(get.calls()).isEqualTo(3);
+            assertThat(get.errors()).isEqualTo(1);
+            assertThat(get.errorsByStatus()).isEqualTo(ImmutableMap.of(404, 1L));
+            assertThat(get.fallbacks()).isEqualTo(1);
+            assertThat(get.requestBytes()).isEqualTo(0);
+            assertThat(get.responseBytes()).isGreaterThanOrEqualTo(2L * body.length());
+            assertThat(get.p50Micros()).isPositive().isLessThanOrEqualTo(get.p95Micros());
+            assertThat(get.p95Micros()).isLessThanOrEqualTo(get.p99Micros());
+
+            final OperationMetrics create = metrics.snapshot("repository:create");
+            assertThat(create.calls()).isEqualTo(1);
+            assertThat(create.errors()).isZero();
+            assertThat(create.fallbacks()).isZero();
+            assertThat(create.requestBytes()).isPositive();
+            assertThat(create.responseBytes()).isEqualTo(body.length());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testFallbackPropagatingIsNotCounted() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody("not found").setResponseCode(404));
+        final InMemoryBitbucketMetrics metrics = new InMemoryBitbucketMetrics();
+        try (final BitbucketClient client = client(server, metrics)) {
+            client.api().fileApi().rawStream(projectKey, repoKey, "README.md", null);
+        } catch (final ResourceNotFoundException e) {
+            final OperationMetrics raw = metrics.snapshot("file:raw-stream");
+            assertThat(raw.calls()).isEqualTo(1);
+            assertThat(raw.errorsByStatus()).isEqualTo(ImmutableMap.of(404, 1L));
+            assertThat(raw.fallbacks()).isZero();
+            return;
+        } finally {
+            server.shutdown();
+        }
+        throw new AssertionError("expected ResourceNotFoundException");
+    }
+
+    public void testConnectionFailures() throws Exception {
+        final MockWebServer server = mockWebServer();
+        server.shutdown();
+
+        final InMemoryBitbucketMetrics metrics = new InMemoryBitbucketMetrics();
+        try (final BitbucketClient client = client(server, metrics)) {
+            assertThat(client.api().repositoryApi().get(projectKey, repoKey).errors()).isNotEmpty();
+        }
+        final OperationMetrics get = metrics.snapshot("repository:get");
+        assertThat(get.calls()).isEqualTo(1);
+        assertThat(get.errors()).isEqualTo(1);
+        assertThat(get.errorsByStatus()).isEmpty();
+        assertThat(get.fallbacks()).isEqualTo(1);
+    }
+
+    public void testCacheServedResponsesAreNotCounted() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        final String repository = payloadFromResource("/repository.json");
+        final String commit = payloadFromResource("/commit.json");
+        server.enqueue(new MockResponse().setBody(repository)
+                .addHeader("Content-Type", "application/json;charset=UTF-8")
+                .addHeader("ETag", "\"v1\"")
+                .setResponseCode(200));
+        server.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setBody(commit).setResponseCode(200));
+        final Properties overrides = setupProperties();
+        overrides.setProperty(BitbucketConstants.CONDITIONAL_CACHE_MAX_ENTRIES, "10");
+        overrides.setProperty(BitbucketConstants.COMMIT_CACHE_MAX_ENTRIES, "10");
+        final InMemoryBitbucketMetrics metrics = new InMemoryBitbucketMetrics();
+        try (final BitbucketClient client = BitbucketClient.builder()
+                .endPoint(server.getUrl("/").toString())
+                .credentials("hello:world")
+                .overrides(overrides)
+                .modules(new SLF4JLoggingModule(), new BitbucketMetricsModule(metrics))
+                .build()) {
+            final Repository first = client.api().repositoryApi().get(projectKey, repoKey);
+            assertThat(client.api().repositoryApi().get(projectKey, repoKey)).isSameAs(first);
+
+            final String commitHash = "abcdef0123abcdef4567abcdef8987abcdef6543";
+            final Commit cached = client.api().commitsApi().get(projectKey, repoKey, commitHash, null);
+            assertThat(client.api().commitsApi().get(projectKey, repoKey, commitHash, null)).isSameAs(cached);
+            assertThat(server.getRequestCount()).isEqualTo(3);
+
+            final OperationMetrics get = metrics.snapshot("repository:get");
+            assertThat(get.calls()).isEqualTo(2);
+            assertThat(get.errors()).isZero();
+            assertThat(get.responseBytes()).isEqualTo(repository.length());
+
+            final OperationMetrics commits = metrics.snapshot("commits:get");
+            assertThat(commits.calls()).isEqualTo(1);
+            assertThat(commits.responseBytes()).isEqualTo(commit.length());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testLatencyPercentiles() {
+        final InMemoryBitbucketMetrics metrics = new InMemoryBitbucketMetrics();
+        for (int i = 1; i <= 1000; i++) {
+            metrics.recordExchange("op", 200, TimeUnit.MILLISECONDS.toNanos(i), 0);
+        }
+
+        final OperationMetrics op = metrics.snapshot("op");
+        assertThat(op.p50Micros()).isBetween(500_000L, 562_500L);
+        assertThat(op.p95Micros()).isBetween(950_000L, 1_068_750L);
+        assertThat(op.p99Micros()).isBetween(990_000L, 1_113_750L);
+
+        metrics.reset();
+        assertThat(metrics.snapshot()).isEmpty();
+        assertThat(metrics.snapshot("op")).isNull();
+    }
+
+    private BitbucketClient client(final MockWebServer server, final BitbucketMetrics metrics) {
+        return BitbucketClient.builder()
+                .endPoint(server.getUrl("/").toString())
+                .credentials("hello:world")
+                .overrides(setupProperties())
+                .modules(new SLF4JLoggingModule(), new BitbucketMetricsModule(metrics))
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.cdancy.bitbucket.rest.BitbucketUtils;
+
+import java.io.StringReader;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link FieldProjection} class.
+ */
+@Test(groups = "unit", testName = "FieldProjectionTest")
+public class FieldProjectionTest {
+
+    public void testDecodesOnlyRequestedFields() {
+        final String json = "{\"values\":["
+                + "{\"id\":1,\"description\":{\"deep\":[1,2,{\"id\":9}]},\"open\":true,\"fromRef\":{\"id\":\"refs/heads/a\",\"latestCommit\":\"abc\"},\"links\":{\"self\":[]}},"
+                + "{\"id\":2,\"open\":false,\"fromRef\":null,\"reviewers\":[{\"user\":{}}]}"
+                + "],\"isLastPage\":true}";
+        final FieldProjection projection = FieldProjection.of("id", "open", "fromRef.latestCommit", "links");
+        try (final StreamingPage<ProjectedValue> page = StreamingPage.<Object> create(new StringReader(json), BitbucketUtils.GSON_PARSER, Object.class)
+                .project(projection)) {
+
+            final ProjectedValue first = page.next();
+            assertThat(first.getInteger("id")).isEqualTo(1);
+            assertThat(first.getBoolean("open")).isTrue();
+            assertThat(first.getString("fromRef.latestCommit")).isEqualTo("abc");
+            assertThat(first.getJson("links").getAsJsonObject().has("self")).isTrue();
+
+            final ProjectedValue second = page.next();
+            assertThat(second.getLong("id")).isEqualTo(2L);
+            assertThat(second.getBoolean("open")).isFalse();
+            assertThat(second.has("fromRef.latestCommit")).isFalse();
+            assertThat(second.getJson("links")).isNull();
+
+            assertThat(page.hasNext()).isFalse();
+            assertThat(page.isLastPage()).isTrue();
+            assertThatThrownBy(() -> second.get("description")).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    public void testProjectAfterIterationFails() {
+        final StreamingPage<Object> page = StreamingPage.create(new StringReader("{\"values\":[1,2]}"), BitbucketUtils.GSON_PARSER, Object.class);
+        page.next();
+        assertThatThrownBy(() -> page.project(FieldProjection.of("id"))).isInstanceOf(IllegalStateException.class);
+        page.close();
+    }
+
+    public void testInvalidPaths() {
+        assertThatThrownBy(() -> FieldProjection.of()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FieldProjection.of("id", "id")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FieldProjection.of("fromRef", "fromRef.id")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FieldProjection.of("fromRef.id", "fromRef")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FieldProjection.of("fromRef..id")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
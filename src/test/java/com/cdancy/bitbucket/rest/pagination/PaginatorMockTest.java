@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketApi;
+import com.cdancy.bitbucket.rest.BitbucketApiMetadata;
+import com.cdancy.bitbucket.rest.domain.repository.Repository;
+import com.cdancy.bitbucket.rest.exception.PaginationException;
+import com.cdancy.bitbucket.rest.features.RepositoryApi;
+import com.google.common.collect.ImmutableMap;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link Paginator} class.
+ */
+@Test(groups = "unit", testName = "PaginatorMockTest")
+public class PaginatorMockTest extends BaseBitbucketMockTest {
+
+    private final String getMethod = "GET";
+    private final String reposPath = restBasePath + BitbucketApiMetadata.API_VERSION + "/repos";
+
+    public void testStreamAllPages() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-page-truncated.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-page-full.json")).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final RepositoryApi api = baseApi.repositoryApi();
+
+            final List<Repository> repositories = Paginator
+                    .stream(start -> api.listAll(null, null, null, null, start, 2))
+                    .collect(Collectors.toList());
+            assertThat(repositories).hasSize(5);
+            assertSent(server, getMethod, reposPath, ImmutableMap.of("start", 0, "limit", 2));
+            assertSent(server, getMethod, reposPath, ImmutableMap.of("start", 2, "limit", 2));
+            assertThat(server.getRequestCount()).isEqualTo(2);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testEarlyTerminationStopsFetching() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-page-truncated.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-page-full.json")).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final RepositoryApi api = baseApi.repositoryApi();
+
+            final Optional<Repository> first = Paginator
+                    .stream(start -> api.listAll(null, null, null, null, start, 2))
+                    .findFirst();
+            assertThat(first.isPresent()).isTrue();
+            assertThat(server.getRequestCount()).isEqualTo(1);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testPageWithErrorsThrows() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-not-exist.json")).setResponseCode(404));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final RepositoryApi api = baseApi.repositoryApi();
+
+            try {
+                Paginator.stream(start -> api.listAll(null, null, null, null, start, 2)).count();
+                fail("Expected PaginationException");
+            } catch (final PaginationException e) {
+                assertThat(e.start()).isEqualTo(0);
+                assertThat(e.errors()).isNotEmpty();
+            }
+            assertThat(server.getRequestCount()).isEqualTo(1);
+        } finally {
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.cdancy.bitbucket.rest.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketApi;
+import com.cdancy.bitbucket.rest.domain.repository.Repository;
+import com.cdancy.bitbucket.rest.features.RepositoryApi;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Mock tests for the {@link PrefetchingPaginator} class.
+ */
+@Test(groups = "unit", testName = "PrefetchingPaginatorMockTest")
+public class PrefetchingPaginatorMockTest extends BaseBitbucketMockTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterClass
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    private String pageAt(final int start) {
+        return payloadFromResource("/repository-page-truncated.json")
+                .replace("\"start\": 0", "\"start\": " + start)
+                .replace("\"nextPageStart\": 2", "\"nextPageStart\": " + (start + 2));
+    }
+
+    public void testStreamAllPages() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(pageAt(0)).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(pageAt(2)).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-page-full.json")).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final RepositoryApi api = baseApi.repositoryApi();
+
+            try (final Stream<Repository> stream = PrefetchingPaginator
+                    .of(0, start -> api.listAll(null, null, null, null, start, 2), executor, 1)
+                    .stream()) {
+                final List<Repository> repositories = stream.collect(Collectors.toList());
+                assertThat(repositories).hasSize(7);
+            }
+            assertThat(server.getRequestCount()).isEqualTo(3);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testReadsAheadOfConsumer() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(pageAt(0)).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/repository-page-full.json")).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final RepositoryApi api = baseApi.repositoryApi();
+
+            try (final PrefetchingPaginator.PrefetchingIterator<Repository> iterator = PrefetchingPaginator
+                    .of(start -> api.listAll(null, null, null, null, start, 2), executor)
+                    .iterator()) {
+                assertThat(iterator.next()).isNotNull();
+
+                // second page is requested while the first is still being consumed
+                assertThat(server.takeRequest(5, TimeUnit.SECONDS)).isNotNull();
+                assertThat(server.takeRequest(5, TimeUnit.SECONDS)).isNotNull();
+            }
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testCloseStopsFetching() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        for (int i = 0; i < 10; i++) {
+            server.enqueue(new MockResponse().setBody(pageAt(i * 2)).setResponseCode(200));
+        }
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final RepositoryApi api = baseApi.repositoryApi();
+
+            final int prefetchDepth = 2;
+            try (final Stream<Repository> stream = PrefetchingPaginator
+                    .of(0, start -> api.listAll(null, null, null, null, start, 2), executor, prefetchDepth)
+                    .stream()) {
+                assertThat(stream.findFirst().isPresent()).isTrue();
+            }
+            Thread.sleep(500);
+
+            // consumed page + buffered pages + at most one in-flight fetch
+            assertThat(server.getRequestCount()).isLessThanOrEqualTo(prefetchDepth + 2);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testErrorReachesConsumer() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(pageAt(0)).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server.getUrl("/"))) {
+            final RepositoryApi api = baseApi.repositoryApi();
+
+            try (final PrefetchingPaginator.PrefetchingIterator<Repository> iterator = PrefetchingPaginator
+                    .of(0, start -> {
+                        if (start > 0) {
+                            throw new AssertionError("fetcher failed");
+                        }
+                        return api.listAll(null, null, null, null, start, 2);
+                    }, executor, 1)
+                    .iterator()) {
+                assertThat(iterator.next()).isNotNull();
+                assertThat(iterator.next()).isNotNull();
+                assertThatThrownBy(iterator::hasNext)
+                        .isInstanceOf(AssertionError.class)
+                        .hasMessage("fetcher failed");
+                assertThat(iterator.hasNext()).isFalse();
+            }
+        } finally {
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.cdancy.bitbucket.rest.BitbucketUtils;
+import com.google.gson.JsonSyntaxException;
+
+import java.io.StringReader;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the {@link StreamingPage} class.
+ */
+@Test(groups = "unit", testName = "StreamingPageTest")
+public class StreamingPageTest {
+
+    public void testMalformedValueClosesReader() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final StringReader json = new StringReader("{\"values\":[1,\"two\",3],\"isLastPage\":true}") {
+            @Override
+            public void close() {
+                closed.set(true);
+                super.close();
+            }
+        };
+        final StreamingPage<Integer> page = StreamingPage.create(json, BitbucketUtils.GSON_PARSER, Integer.class);
+        assertThat(page.next()).isEqualTo(1);
+        assertThat(closed.get()).isFalse();
+        assertThatThrownBy(page::next).isInstanceOf(JsonSyntaxException.class);
+        assertThat(closed.get()).isTrue();
+    }
+}
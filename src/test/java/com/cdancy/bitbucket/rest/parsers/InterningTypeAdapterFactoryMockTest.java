@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.cdancy.bitbucket.rest.parsers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cdancy.bitbucket.rest.BaseBitbucketMockTest;
+import com.cdancy.bitbucket.rest.BitbucketApi;
+import com.cdancy.bitbucket.rest.BitbucketAuthentication;
+import com.cdancy.bitbucket.rest.BitbucketConstants;
+import com.cdancy.bitbucket.rest.config.BitbucketAuthenticationModule;
+import com.cdancy.bitbucket.rest.domain.pullrequest.PullRequest;
+import com.google.common.collect.Lists;
+import com.squareup.okhttp.mockwebserver.MockResponse;
+import com.squareup.okhttp.mockwebserver.MockWebServer;
+
+import java.util.Properties;
+
+import org.jclouds.ContextBuilder;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "InterningTypeAdapterFactoryMockTest")
+public class InterningTypeAdapterFactoryMockTest extends BaseBitbucketMockTest {
+
+    private final String projectKey = "PRJ";
+    private final String repoKey = "my-repo";
+
+    public void testEqualObjectsShareOneInstance() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/pull-request-page.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/pull-request-page.json")).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server, true)) {
+            final PullRequest first = baseApi.pullRequestApi().list(projectKey, repoKey, null, null, null, null, null, null, null, null).values().get(0);
+            final PullRequest second = baseApi.pullRequestApi().list(projectKey, repoKey, null, null, null, null, null, null, null, null).values().get(0);
+
+            assertThat(second).isNotSameAs(first);
+            assertThat(second.author()).isSameAs(first.author());
+            assertThat(second.author().user()).isSameAs(first.author().user());
+            assertThat(second.fromRef()).isSameAs(first.fromRef());
+            assertThat(second.toRef()).isSameAs(first.toRef());
+
+            // the source and target branch share their repository
+            assertThat(first.toRef().repository()).isSameAs(first.fromRef().repository());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    public void testDisabledByDefault() throws Exception {
+        final MockWebServer server = mockWebServer();
+
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/pull-request-page.json")).setResponseCode(200));
+        server.enqueue(new MockResponse().setBody(payloadFromResource("/pull-request-page.json")).setResponseCode(200));
+        try (final BitbucketApi baseApi = api(server, false)) {
+            final PullRequest first = baseApi.pullRequestApi().list(projectKey, repoKey, null, null, null, null, null, null, null, null).values().get(0);
+            final PullRequest second = baseApi.pullRequestApi().list(projectKey, repoKey, null, null, null, null, null, null, null, null).values().get(0);
+
+            assertThat(second.author()).isEqualTo(first.author());
+            assertThat(second.author()).isNotSameAs(first.author());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private BitbucketApi api(final MockWebServer server, final boolean interning) {
+        final Properties properties = setupProperties();
+        if (interning) {
+            properties.setProperty(BitbucketConstants.INTERNING, "true");
+        }
+        final BitbucketAuthentication creds = BitbucketAuthentication.builder().credentials("hello:world").build();
+        return ContextBuilder.newBuilder(provider)
+                .endpoint(server.getUrl("/").toString())
+                .overrides(properties)
+                .modules(Lists.newArrayList(new BitbucketAuthenticationModule(creds)))
+                .buildApi(BitbucketApi.class);
+    }
+}